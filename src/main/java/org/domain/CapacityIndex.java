@@ -0,0 +1,607 @@
+package org.domain;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+/**
+ * Index of the free resources and the weights of the PMs of a {@link PhysicalMachineList}
+ * <p>
+ *     A segment tree over the positions of the list keeps, by resource, the maximum free resources
+ *     (capacity - requested) of the PMs below each node, so {@link #firstFit(float[], Predicate)}
+ *     skips the subtrees that cannot host a demand and finds the first PM in O(log P), and
+ *     {@link #firstFitAll(float[][], PhysicalMachineList.Packing)} places a run of demands in one
+ *     pass over the tree. The weights ({@link PhysicalMachine#getWeight()}) are cached by slot,
+ *     and once the list is sorted by weight only the PMs whose weight changed are moved to restore
+ *     the order.
+ * </p>
+ * <p>
+ *     The index follows the writes into the {@link DatacenterState} of the PMs (see
+ *     {@link DatacenterState#pollChanges(Object)}), it is rebuilt when the list is modified.
+ *     During a batch ({@link #beginBatch()}) the new order is written into the list only once, at
+ *     the end of the batch.
+ * </p>
+ * @since 10/18/26.
+ */
+class CapacityIndex {
+
+    /**
+     * Order of the list by ascending weight ({@code BestComparator})
+     */
+    static final int BEST = 1;
+
+    /**
+     * Order of the list by descending weight ({@code WorstComparator})
+     */
+    static final int WORST = -1;
+
+    private static final int UNSORTED = 0;
+
+    // Relative margin on the free resources, covers the rounding of the exact check
+    private static final float MARGIN = 1E-4F;
+
+    // Above this number of moved PMs the order is restored with a merge of the whole list
+    private static final int MAX_INSERTIONS = 16;
+
+    private final PhysicalMachineList list;
+
+    private boolean built;
+
+    // The PMs of the list share one state and are in the list once
+    private boolean usable;
+
+    private DatacenterState state;
+
+    private int numberOfResources;
+
+    // Copy of the list and position of each slot in it (-1 if the slot is not in the list)
+    private PhysicalMachine[] order;
+
+    private int size;
+
+    private int[] positions;
+
+    private float[] weights;
+
+    private int sortedBy;
+
+    // Slots whose weight changed since the list was sorted
+    private boolean[] moved;
+
+    private int[] movedSlots;
+
+    private int movedCount;
+
+    // [resource][node], the leaves start at leaves
+    private float[][] tree;
+
+    private int leaves;
+
+    // During a batch the new order is written into the list at the end, for the range [from, to)
+    private boolean batch;
+
+    private int batchFrom;
+
+    private int batchTo;
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param list List of Physical Machines
+     */
+    CapacityIndex(PhysicalMachineList list) {
+        this.list = list;
+    }
+
+    /* Methods */
+
+    /**
+     * @return <b>True</b>, if the PMs of the list can be indexed
+     */
+    boolean isUsable() {
+
+        sync();
+        return usable;
+    }
+
+    /**
+     * The list was modified, the index is rebuilt on the next call
+     */
+    void invalidate() {
+
+        if (batchFrom < batchTo) {
+            throw new IllegalStateException("The PM list was modified before the end of a batch");
+        }
+        built = false;
+    }
+
+    /**
+     * The list is no longer used, the state stops recording the changes for the index. The index
+     * is rebuilt on the next call
+     */
+    void release() {
+
+        invalidate();
+        untrack();
+    }
+
+    /**
+     * Start a batch, the changes of order are written into the list by {@link #endBatch()}
+     */
+    void beginBatch() {
+
+        batch = true;
+        batchFrom = Integer.MAX_VALUE;
+        batchTo = 0;
+    }
+
+    /**
+     * End a batch, write the new order into the list
+     */
+    void endBatch() {
+
+        batch = false;
+        writeBatch();
+    }
+
+    /**
+     * Sort the list by weight, with the same result as a stable sort of the list
+     * @param direction {@link #BEST} or {@link #WORST}
+     */
+    void sort(int direction) {
+
+        sync();
+        if (sortedBy != direction) {
+            sortedBy = direction;
+            Arrays.sort(order, 0, size, comparator());
+            for (int i = 0; i < size; i++) {
+                positions[order[i].getSlot()] = i;
+            }
+            clearMoved();
+            write(0, size);
+            buildTree();
+        } else if (movedCount > MAX_INSERTIONS) {
+            merge();
+        } else if (movedCount > 0) {
+            insert();
+        }
+    }
+
+    /**
+     * First PM of the list that can host a demand
+     * @param demand Demand by resource, the PMs with fewer free resources are skipped
+     * @param fits   Exact check of a PM
+     * @return Physical Machine, <b>null</b> if no PM fits
+     */
+    PhysicalMachine firstFit(float[] demand, Predicate<PhysicalMachine> fits) {
+
+        sync();
+        int position = first(1, 0, leaves, bound(demand), fits);
+        return position < 0 ? null : order[position];
+    }
+
+    /**
+     * First fit of a run of demands, in one pass over the positions of the list
+     * <p>
+     *     The tree is walked once from left to right with the demands still pending, in order. A
+     *     subtree is skipped when no pending demand is below its free resources, and in each PM the
+     *     pending demands are tried in order, so a demand gets the first PM that can host it after the
+     *     placements of the demands before it, as with a call to
+     *     {@link #firstFit(float[], Predicate)} per demand. The tree is brought up to date with the
+     *     placements on the next call.
+     * </p>
+     * @param demands Demands by resource, in order of placement
+     * @param packing Exact check and placement of a demand in a PM
+     */
+    void firstFitAll(float[][] demands, PhysicalMachineList.Packing packing) {
+
+        sync();
+        float[][] bounds = new float[demands.length][];
+        int[] pending = new int[demands.length];
+        for (int d = 0; d < demands.length; d++) {
+            bounds[d] = bound(demands[d]);
+            pending[d] = d;
+        }
+        pack(1, 0, leaves, bounds, pending, demands.length, packing);
+    }
+
+    /**
+     * Place the pending demands in the PMs of a subtree, in order of position
+     * @param node         Node
+     * @param from         First position of the subtree
+     * @param length       Number of positions of the subtree
+     * @param bounds       Minimum free resources by demand
+     * @param pending      Demands not placed yet, in order, the ones left are kept at the start
+     * @param pendingCount Number of demands not placed yet
+     * @param packing      Exact check and placement of a demand in a PM
+     * @return Number of demands not placed yet
+     */
+    private int pack(int node, int from, int length, float[][] bounds, int[] pending, int pendingCount,
+            PhysicalMachineList.Packing packing) {
+
+        if (from >= size || !mayFitAny(node, bounds, pending, pendingCount)) {
+            return pendingCount;
+        }
+        if (length == 1) {
+            int kept = 0;
+            for (int i = 0; i < pendingCount; i++) {
+                int d = pending[i];
+                if (!packing.place(d, order[from])) {
+                    pending[kept++] = d;
+                }
+            }
+            return kept;
+        }
+        int half = length >>> 1;
+        int left = pack(2 * node, from, half, bounds, pending, pendingCount, packing);
+        return pack(2 * node + 1, from + half, half, bounds, pending, left, packing);
+    }
+
+    /**
+     * @param node         Node
+     * @param bounds       Minimum free resources by demand
+     * @param pending      Demands not placed yet
+     * @param pendingCount Number of demands not placed yet
+     * @return <b>True</b>, if a pending demand is below the free resources of the node
+     */
+    private boolean mayFitAny(int node, float[][] bounds, int[] pending, int pendingCount) {
+
+        for (int i = 0; i < pendingCount; i++) {
+            float[] bound = bounds[pending[i]];
+            boolean fits = true;
+            for (int k = 0; fits && k < numberOfResources; k++) {
+                fits = tree[k][node] >= bound[k];
+            }
+            if (fits) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check of a demand against the whole datacenter
+     * <p>
+     *     The root of the tree keeps, by resource, the maximum free resources of the PMs of the list,
+     *     so a demand above the maximum of any resource is rejected in O(1), with the same bound as
+     *     {@link #firstFit(float[], Predicate)}.
+     * </p>
+     * @param demand Demand by resource
+     * @return <b>False</b>, if no PM of the list has the free resources of the demand
+     */
+    boolean mayFit(float[] demand) {
+
+        sync();
+        if (size == 0) {
+            return false;
+        }
+        float[] bound = bound(demand);
+        for (int k = 0; k < numberOfResources; k++) {
+            if (tree[k][1] < bound[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param demand Demand by resource
+     * @return Minimum free resources of a PM that can host the demand, by resource
+     */
+    private float[] bound(float[] demand) {
+
+        float[] bound = new float[numberOfResources];
+        for (int k = 0; k < numberOfResources; k++) {
+            bound[k] = demand[k] - MARGIN * Math.abs(demand[k]);
+        }
+        return bound;
+    }
+
+    /**
+     * Leftmost position of a subtree whose PM passes the check
+     * @param node   Node
+     * @param from   First position of the subtree
+     * @param length Number of positions of the subtree
+     * @param bound  Minimum free resources
+     * @param fits   Exact check of a PM
+     * @return Position, -1 if there is none
+     */
+    private int first(int node, int from, int length, float[] bound, Predicate<PhysicalMachine> fits) {
+
+        if (from >= size) {
+            return -1;
+        }
+        for (int k = 0; k < numberOfResources; k++) {
+            if (tree[k][node] < bound[k]) {
+                return -1;
+            }
+        }
+        if (length == 1) {
+            return fits.test(order[from]) ? from : -1;
+        }
+        int half = length >>> 1;
+        int position = first(2 * node, from, half, bound, fits);
+        return position >= 0 ? position : first(2 * node + 1, from + half, half, bound, fits);
+    }
+
+    /**
+     * Bring the index up to date with the list and the writes into the state
+     */
+    private void sync() {
+
+        if (!built) {
+            build();
+            return;
+        }
+        if (!usable || state == null) {
+            return;
+        }
+        int[] changes = state.pollChanges(this);
+        if (changes == null) {
+            // The state stopped recording the changes for this index
+            writeBatch();
+            build();
+            return;
+        }
+        for (int slot : changes) {
+            if (slot >= positions.length || positions[slot] < 0) {
+                continue;
+            }
+            float weight = weight(slot);
+            if (sortedBy != UNSORTED && !moved[slot] && Float.compare(weight, weights[slot]) != 0) {
+                moved[slot] = true;
+                movedSlots[movedCount++] = slot;
+            }
+            weights[slot] = weight;
+            int node = leaves + positions[slot];
+            for (int k = 0; k < numberOfResources; k++) {
+                tree[k][node] = free(k, slot);
+            }
+            for (node >>>= 1; node > 0; node >>>= 1) {
+                for (int k = 0; k < numberOfResources; k++) {
+                    tree[k][node] = Math.max(tree[k][2 * node], tree[k][2 * node + 1]);
+                }
+            }
+        }
+    }
+
+    private void untrack() {
+
+        if (state != null) {
+            state.untrackChanges(this);
+            state = null;
+        }
+    }
+
+    private void build() {
+
+        untrack();
+        built = true;
+        usable = true;
+        sortedBy = UNSORTED;
+        size = list.size();
+        order = list.toArray(new PhysicalMachine[size]);
+        state = size == 0 ? null : order[0].getState();
+        if (state == null) {
+            usable = size == 0;
+            numberOfResources = 0;
+            tree = new float[0][];
+            leaves = 1;
+            return;
+        }
+        numberOfResources = state.getNumberOfResources();
+        positions = new int[state.size()];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < size; i++) {
+            PhysicalMachine pm = order[i];
+            if (pm.getState() != state || pm.getSlot() >= positions.length || positions[pm.getSlot()] >= 0) {
+                usable = false;
+                return;
+            }
+            positions[pm.getSlot()] = i;
+        }
+        weights = new float[positions.length];
+        for (int i = 0; i < size; i++) {
+            weights[order[i].getSlot()] = weight(order[i].getSlot());
+        }
+        moved = new boolean[positions.length];
+        movedSlots = new int[positions.length];
+        movedCount = 0;
+        state.trackChanges(this);
+        buildTree();
+    }
+
+    private void buildTree() {
+
+        leaves = 1;
+        while (leaves < size) {
+            leaves <<= 1;
+        }
+        tree = new float[numberOfResources][2 * leaves];
+        for (int k = 0; k < numberOfResources; k++) {
+            Arrays.fill(tree[k], leaves + size, 2 * leaves, Float.NEGATIVE_INFINITY);
+        }
+        updateTree(0, size);
+    }
+
+    /**
+     * Update the leaves of a range of positions and their ancestors
+     * @param from First position
+     * @param to   Last position (exclusive)
+     */
+    private void updateTree(int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            int slot = order[i].getSlot();
+            for (int k = 0; k < numberOfResources; k++) {
+                tree[k][leaves + i] = free(k, slot);
+            }
+        }
+        for (int first = (leaves + from) >>> 1, last = (leaves + to - 1) >>> 1; first > 0;
+                first >>>= 1, last >>>= 1) {
+            for (int node = first; node <= last; node++) {
+                for (int k = 0; k < numberOfResources; k++) {
+                    tree[k][node] = Math.max(tree[k][2 * node], tree[k][2 * node + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Restore the order moving each PM whose weight changed to its position (binary search)
+     */
+    private void insert() {
+
+        PhysicalMachine[] movedPMs = movedPMs();
+        Comparator<PhysicalMachine> comparator = comparator();
+        int from = size;
+        int to = 0;
+        for (PhysicalMachine pm : movedPMs) {
+            from = Math.min(from, positions[pm.getSlot()]);
+            to = Math.max(to, positions[pm.getSlot()] + 1);
+        }
+        // Remove the moved PMs, the others keep the order
+        int kept = from;
+        for (int i = from; i < size; i++) {
+            if (!moved[order[i].getSlot()]) {
+                order[kept++] = order[i];
+            }
+        }
+        for (PhysicalMachine pm : movedPMs) {
+            int low = 0;
+            int high = kept;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparator.compare(order[middle], pm) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            System.arraycopy(order, low, order, low + 1, kept - low);
+            order[low] = pm;
+            kept++;
+            from = Math.min(from, low);
+            // Later insertions can shift the PM to the right
+            to = Math.max(to, Math.min(size, low + movedPMs.length));
+        }
+        reorder(from, to);
+    }
+
+    /**
+     * Restore the order merging the PMs whose weight changed with the others
+     */
+    private void merge() {
+
+        PhysicalMachine[] movedPMs = movedPMs();
+        Comparator<PhysicalMachine> comparator = comparator();
+        PhysicalMachine[] others = new PhysicalMachine[size - movedPMs.length];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!moved[order[i].getSlot()]) {
+                others[count++] = order[i];
+            }
+        }
+        int i = 0;
+        int j = 0;
+        for (int position = 0; position < size; position++) {
+            if (j == movedPMs.length || (i < others.length && comparator.compare(others[i], movedPMs[j]) < 0)) {
+                order[position] = others[i++];
+            } else {
+                order[position] = movedPMs[j++];
+            }
+        }
+        reorder(0, size);
+    }
+
+    /**
+     * @return PMs whose weight changed, sorted
+     */
+    private PhysicalMachine[] movedPMs() {
+
+        PhysicalMachine[] movedPMs = new PhysicalMachine[movedCount];
+        for (int i = 0; i < movedCount; i++) {
+            movedPMs[i] = order[positions[movedSlots[i]]];
+        }
+        Arrays.sort(movedPMs, comparator());
+        return movedPMs;
+    }
+
+    /**
+     * Apply the new order of a range of positions to the positions, the list and the tree
+     * @param from First position
+     * @param to   Last position (exclusive)
+     */
+    private void reorder(int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            positions[order[i].getSlot()] = i;
+        }
+        clearMoved();
+        write(from, to);
+        updateTree(from, to);
+    }
+
+    /**
+     * Write the order of a range of positions into the list, at the end of the batch during a batch
+     * @param from First position
+     * @param to   Last position (exclusive)
+     */
+    private void write(int from, int to) {
+
+        if (batch) {
+            batchFrom = Math.min(batchFrom, from);
+            batchTo = Math.max(batchTo, to);
+        } else {
+            list.permute(order, from, to);
+        }
+    }
+
+    private void writeBatch() {
+
+        if (batchFrom < batchTo) {
+            int from = batchFrom;
+            int to = batchTo;
+            batchFrom = Integer.MAX_VALUE;
+            batchTo = 0;
+            list.permute(order, from, to);
+        }
+    }
+
+    private void clearMoved() {
+
+        for (int i = 0; i < movedCount; i++) {
+            moved[movedSlots[i]] = false;
+        }
+        movedCount = 0;
+    }
+
+    /**
+     * Order by weight and, for the same weight, by the position before the sort (stable sort)
+     * @return Comparator
+     */
+    private Comparator<PhysicalMachine> comparator() {
+
+        int direction = sortedBy;
+        return (pm1, pm2) -> {
+            int compare = direction * Float.compare(weights[pm1.getSlot()], weights[pm2.getSlot()]);
+            return compare != 0 ? compare : Integer.compare(positions[pm1.getSlot()], positions[pm2.getSlot()]);
+        };
+    }
+
+    private float weight(int slot) {
+
+        float weight = 0F;
+        for (int k = 0; k < numberOfResources; k++) {
+            weight += (1F - state.getUtilization(k, slot));
+        }
+        return weight;
+    }
+
+    private float free(int resource, int slot) {
+
+        float capacity = state.getCapacity(resource, slot);
+        return capacity - state.getRequested(resource, slot) + MARGIN * Math.abs(capacity);
+    }
+}
@@ -0,0 +1,141 @@
+package org.domain;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * Positions written in a primitive store (PM slots of a {@link DatacenterState}, VM handles of a
+ * {@link VmTable}), recorded for each tracker
+ * <p>
+ *     Each tracker gets the positions written since its last poll, once each. A tracker is recorded
+ *     until it is untracked or no longer referenced (the trackers are held weakly), so the indexes
+ *     over the same store never drop each other.
+ * </p>
+ * @since 10/18/26.
+ */
+final class ChangeLog {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Changes[] trackers = new Changes[0];
+
+    /* Methods */
+
+    /**
+     * Record the positions written from now on for <b>tracker</b>
+     * @param tracker  Tracker
+     * @param capacity Number of positions of the store
+     */
+    void track(Object tracker, int capacity) {
+
+        Changes changes = find(tracker);
+        if (changes == null) {
+            trackers = Arrays.copyOf(trackers, trackers.length + 1);
+            changes = trackers[trackers.length - 1] = new Changes(tracker);
+        }
+        changes.positions = new int[INITIAL_CAPACITY];
+        changes.count = 0;
+        changes.changed = new boolean[capacity];
+    }
+
+    /**
+     * Stop recording the positions written for <b>tracker</b>
+     * @param tracker Tracker
+     */
+    void untrack(Object tracker) {
+
+        Changes changes = find(tracker);
+        if (changes != null) {
+            changes.tracker.clear();
+            dropUntracked();
+        }
+    }
+
+    /**
+     * Positions written since the last call, each position is returned once
+     * @param tracker Tracker
+     * @return Positions written, <b>null</b> if the positions are not recorded for <b>tracker</b>
+     */
+    int[] poll(Object tracker) {
+
+        Changes changes = find(tracker);
+        if (changes == null) {
+            return null;
+        }
+        int[] positions = Arrays.copyOf(changes.positions, changes.count);
+        for (int position : positions) {
+            changes.changed[position] = false;
+        }
+        changes.count = 0;
+        return positions;
+    }
+
+    /**
+     * Record a written position for the trackers
+     * @param position Position
+     * @param capacity Number of positions of the store
+     */
+    void touch(int position, int capacity) {
+
+        for (Changes changes : trackers) {
+            if (changes.tracker.get() == null) {
+                dropUntracked();
+                touch(position, capacity);
+                return;
+            }
+            if (position >= changes.changed.length) {
+                changes.changed = Arrays.copyOf(changes.changed, capacity);
+            }
+            if (!changes.changed[position]) {
+                changes.changed[position] = true;
+                if (changes.count == changes.positions.length) {
+                    changes.positions = Arrays.copyOf(changes.positions, changes.count * 2);
+                }
+                changes.positions[changes.count++] = position;
+            }
+        }
+    }
+
+    private Changes find(Object tracker) {
+
+        for (Changes changes : trackers) {
+            if (changes.tracker.get() == tracker) {
+                return changes;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove the trackers untracked or no longer referenced
+     */
+    private void dropUntracked() {
+
+        int count = 0;
+        for (Changes changes : trackers) {
+            if (changes.tracker.get() != null) {
+                trackers[count++] = changes;
+            }
+        }
+        trackers = Arrays.copyOf(trackers, count);
+    }
+
+    /**
+     * Positions written for one tracker
+     */
+    private static final class Changes {
+
+        // Weak, so a tracker that is no longer referenced is dropped
+        private final WeakReference<Object> tracker;
+
+        private int[] positions;
+
+        private int count;
+
+        private boolean[] changed;
+
+        private Changes(Object tracker) {
+            this.tracker = new WeakReference<>(tracker);
+        }
+    }
+}
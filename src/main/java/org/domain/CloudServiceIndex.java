@@ -0,0 +1,333 @@
+package org.domain;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Index of the cloud services of the VMs of a {@link VirtualMachineList}
+ * <p>
+ *     Keeps the number of VMs of the list by (cloud service, physical machine) and by cloud
+ *     service, so the fault tolerance checks (no two VMs of a cloud service in the same PM) run in
+ *     O(1) instead of a scan of the list.
+ * </p>
+ * <p>
+ *     The index follows the writes into the {@link VmTable} of the VMs (see
+ *     {@link VmTable#pollChanges(Object)}), so an allocation or a migration of a VM that is already
+ *     in the list only updates that VM. It is rebuilt when the VMs of the list are not in the same
+ *     table.
+ * </p>
+ * @since 10/18/26.
+ */
+class CloudServiceIndex {
+
+    private final VirtualMachineList list;
+
+    private boolean built;
+
+    // The VMs of the list share one table
+    private boolean usable;
+
+    private VmTable table;
+
+    // Key (cloud service, physical machine) of each VM in the list, as counted
+    private final Map<VirtualMachine, Entry> entries = new IdentityHashMap<>();
+
+    private final Counter byPhysicalMachine = new Counter();
+
+    private final Counter byCloudService = new Counter();
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param list List of Virtual Machines
+     */
+    CloudServiceIndex(VirtualMachineList list) {
+        this.list = list;
+    }
+
+    /* Methods */
+
+    /**
+     * @return <b>True</b>, if the VMs of the list can be indexed
+     */
+    boolean isUsable() {
+
+        sync();
+        return usable;
+    }
+
+    /**
+     * @param cloudService    Cloud Service ID
+     * @param physicalMachine Physical Machine ID
+     * @return <b>True</b>, if a VM of the list of the cloud service is in the PM
+     */
+    boolean contains(int cloudService, int physicalMachine) {
+        return byPhysicalMachine.get(key(cloudService, physicalMachine)) > 0;
+    }
+
+    /**
+     * @param cloudService Cloud Service ID
+     * @return Number of VMs of the list of the cloud service
+     */
+    int count(int cloudService) {
+        return byCloudService.get(cloudService);
+    }
+
+    /**
+     * A VM was added to the list
+     * @param vm Virtual Machine
+     */
+    void added(VirtualMachine vm) {
+
+        if (!built) {
+            return;
+        }
+        if (!usable || vm.getTable() != table) {
+            built = false;
+            return;
+        }
+        Entry entry = entries.get(vm);
+        if (entry == null) {
+            entry = new Entry(key(vm));
+            entries.put(vm, entry);
+        }
+        entry.copies++;
+        count(entry.key, 1);
+    }
+
+    /**
+     * A VM was removed from the list
+     * @param vm Virtual Machine
+     */
+    void removed(VirtualMachine vm) {
+
+        if (!built) {
+            return;
+        }
+        Entry entry = usable ? entries.get(vm) : null;
+        if (entry == null) {
+            built = false;
+            return;
+        }
+        count(entry.key, -1);
+        if (--entry.copies == 0) {
+            entries.remove(vm);
+        }
+    }
+
+    /**
+     * The list was modified, the index is rebuilt on the next call
+     */
+    void invalidate() {
+        built = false;
+    }
+
+    /**
+     * The list is no longer used, the table stops recording the changes for the index. The index
+     * is rebuilt on the next call
+     */
+    void release() {
+
+        invalidate();
+        untrack();
+    }
+
+    /**
+     * Bring the index up to date with the list and the table
+     */
+    private void sync() {
+
+        if (!built) {
+            build();
+            return;
+        }
+        if (!usable) {
+            return;
+        }
+        int[] handles = table.pollChanges(this);
+        if (handles == null) {
+            build();
+            return;
+        }
+        for (int handle : handles) {
+            VirtualMachine vm = table.getVirtualMachine(handle);
+            Entry entry = vm == null ? null : entries.get(vm);
+            if (entry != null) {
+                long key = key(vm);
+                if (key != entry.key) {
+                    count(entry.key, -entry.copies);
+                    entry.key = key;
+                    count(key, entry.copies);
+                }
+            }
+        }
+    }
+
+    private void untrack() {
+
+        if (table != null) {
+            table.untrackChanges(this);
+            table = null;
+        }
+    }
+
+    private void build() {
+
+        untrack();
+        entries.clear();
+        byPhysicalMachine.clear();
+        byCloudService.clear();
+        built = true;
+        table = list.isEmpty() ? null : list.get(0).getTable();
+        usable = table != null;
+        for (VirtualMachine vm : list) {
+            if (vm.getTable() != table) {
+                usable = false;
+                break;
+            }
+            Entry entry = entries.get(vm);
+            if (entry == null) {
+                entry = new Entry(key(vm));
+                entries.put(vm, entry);
+            }
+            entry.copies++;
+            count(entry.key, 1);
+        }
+        if (usable) {
+            table.trackChanges(this);
+        } else {
+            entries.clear();
+            byPhysicalMachine.clear();
+            byCloudService.clear();
+            table = null;
+        }
+    }
+
+    private void count(long key, int delta) {
+
+        byPhysicalMachine.add(key, delta);
+        byCloudService.add(key >> 32, delta);
+    }
+
+    private static long key(VirtualMachine vm) {
+
+        VmTable vmTable = vm.getTable();
+        int handle = vm.getHandle();
+        return key(vmTable.getCloudService(handle), vmTable.getPhysicalMachine(handle));
+    }
+
+    private static long key(int cloudService, int physicalMachine) {
+        return ((long) cloudService << 32) | (physicalMachine & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Key of a VM in the list and number of times the VM is in the list
+     */
+    private static final class Entry {
+
+        private long key;
+
+        private int copies;
+
+        private Entry(long key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Open-addressing map from a long key to a positive count, the keys with count zero are removed
+     */
+    private static final class Counter {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        private int[] counts = new int[INITIAL_CAPACITY];
+
+        private int size;
+
+        private int mask = INITIAL_CAPACITY - 1;
+
+        private int get(long key) {
+
+            for (int i = hash(key); counts[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return counts[i];
+                }
+            }
+            return 0;
+        }
+
+        private void add(long key, int delta) {
+
+            int i = hash(key);
+            for (; counts[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    counts[i] += delta;
+                    if (counts[i] == 0) {
+                        remove(i);
+                    }
+                    return;
+                }
+            }
+            if (delta == 0) {
+                return;
+            }
+            keys[i] = key;
+            counts[i] = delta;
+            if (++size * 2 > keys.length) {
+                rehash(keys.length << 1);
+            }
+        }
+
+        private void clear() {
+
+            Arrays.fill(counts, 0);
+            size = 0;
+        }
+
+        private void remove(int i) {
+
+            size--;
+            // Shift back the entries of the cluster that can take the free position
+            int free = i;
+            for (int j = (i + 1) & mask; counts[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j]);
+                if (((j - home) & mask) >= ((j - free) & mask)) {
+                    keys[free] = keys[j];
+                    counts[free] = counts[j];
+                    free = j;
+                }
+            }
+            counts[free] = 0;
+        }
+
+        private void rehash(int capacity) {
+
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[capacity];
+            counts = new int[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] != 0) {
+                    int j = hash(oldKeys[i]);
+                    while (counts[j] != 0) {
+                        j = (j + 1) & mask;
+                    }
+                    keys[j] = oldKeys[i];
+                    counts[j] = oldCounts[i];
+                }
+            }
+        }
+
+        private int hash(long key) {
+
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
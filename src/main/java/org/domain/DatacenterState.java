@@ -0,0 +1,423 @@
+package org.domain;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays state of the Physical Machines of a datacenter
+ * <p>
+ *     Every attribute of a PM is stored in a primitive array indexed by the PM slot. Capacity,
+ *     requested resources and utilization are stored by resource (dimension) inside pages of
+ *     {@value #PAGE_SIZE} slots, so a scan of one resource over the PMs of a page runs over
+ *     contiguous memory. A {@link PhysicalMachine} is a view over one slot of a state.
+ * </p>
+ * <p>
+ *     {@link #snapshot()} returns a copy of the state in O(1): the pages are shared and each state
+ *     copies a page the first time it writes into it (copy-on-write).
+ * </p>
+ * <p>
+ *     The slots written can be recorded for trackers (see {@link #trackChanges(Object)}), so an
+ *     index over the PMs only updates the slots that changed. A tracker is recorded until it is
+ *     untracked or no longer referenced, so the lists that share a state never drop each other.
+ * </p>
+ * @since 10/18/26.
+ */
+public class DatacenterState {
+
+    private static final int PAGE_SHIFT = 6;
+
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final int numberOfResources;
+
+    private int size;
+
+    private Page[] pages;
+
+    // The page array is shared with a snapshot
+    private boolean pagesShared;
+
+    // Pages owned by this token can be written in place
+    private Object owner = new Object();
+
+    private PhysicalMachine[] physicalMachines;
+
+    // Slots written since the last pollChanges of each tracker
+    private final ChangeLog changes = new ChangeLog();
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param numberOfResources Number of resources by PM
+     * @param slots             Initial number of slots
+     */
+    public DatacenterState(int numberOfResources, int slots) {
+
+        this.numberOfResources = numberOfResources;
+        if (slots <= PAGE_SIZE) {
+            this.pages = new Page[]{new Page(owner, numberOfResources, Math.max(slots, 1))};
+        } else {
+            this.pages = new Page[(slots + PAGE_MASK) >>> PAGE_SHIFT];
+            for (int i = 0; i < pages.length; i++) {
+                pages[i] = new Page(owner, numberOfResources, PAGE_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Constructor
+     * @param numberOfResources Number of resources by PM
+     */
+    public DatacenterState(int numberOfResources) {
+        this(numberOfResources, PAGE_SIZE);
+    }
+
+    /**
+     * Constructor of a snapshot, the pages are shared with <b>state</b>
+     * @param state Datacenter State
+     */
+    private DatacenterState(DatacenterState state) {
+
+        this.numberOfResources = state.numberOfResources;
+        this.size = state.size;
+        this.pages = state.pages;
+        this.pagesShared = true;
+    }
+
+    /* Getters and Setters */
+
+    public int size() {
+        return size;
+    }
+
+    public int getNumberOfResources() {
+        return numberOfResources;
+    }
+
+    public int getId(int slot) {
+        return pages[slot >>> PAGE_SHIFT].ids[slot & PAGE_MASK];
+    }
+
+    public void setId(int slot, int id) {
+        writablePage(slot).ids[slot & PAGE_MASK] = id;
+    }
+
+    public int getPowerMax(int slot) {
+        return pages[slot >>> PAGE_SHIFT].powerMax[slot & PAGE_MASK];
+    }
+
+    public void setPowerMax(int slot, int power) {
+        writablePage(slot).powerMax[slot & PAGE_MASK] = power;
+    }
+
+    public float getCapacity(int resource, int slot) {
+
+        Page page = pages[slot >>> PAGE_SHIFT];
+        return page.capacity[page.index(resource, slot)];
+    }
+
+    public void setCapacity(int resource, int slot, float value) {
+
+        Page page = writablePage(slot);
+        page.capacity[page.index(resource, slot)] = value;
+        touch(slot);
+    }
+
+    public float getRequested(int resource, int slot) {
+
+        Page page = pages[slot >>> PAGE_SHIFT];
+        return page.requested[page.index(resource, slot)];
+    }
+
+    public void setRequested(int resource, int slot, float value) {
+
+        Page page = writablePage(slot);
+        page.requested[page.index(resource, slot)] = value;
+        touch(slot);
+    }
+
+    public float getUtilization(int resource, int slot) {
+
+        Page page = pages[slot >>> PAGE_SHIFT];
+        return page.utilization[page.index(resource, slot)];
+    }
+
+    public void setUtilization(int resource, int slot, float value) {
+
+        Page page = writablePage(slot);
+        page.utilization[page.index(resource, slot)] = value;
+        touch(slot);
+    }
+
+    /**
+     * @param slot PM slot
+     * @return Physical Machine (view) added to the slot, <b>null</b> for the slots of a snapshot
+     */
+    public PhysicalMachine getPhysicalMachine(int slot) {
+        return physicalMachines == null ? null : physicalMachines[slot];
+    }
+
+    /* Methods */
+
+    /**
+     * Copy of the state in O(1), the pages are copied when they are written
+     * @return Datacenter State
+     */
+    public DatacenterState snapshot() {
+
+        DatacenterState snapshot = new DatacenterState(this);
+        this.pagesShared = true;
+        this.owner = new Object();
+        return snapshot;
+    }
+
+    /**
+     * Add a slot for a new PM, with requested resources and utilization set to zero
+     * @param pm       Physical Machine (view) of the new slot
+     * @param id       PM ID
+     * @param power    Power Max
+     * @return New slot
+     */
+    int addSlot(PhysicalMachine pm, int id, int power) {
+
+        if (size == capacity()) {
+            grow();
+        }
+        int slot = size++;
+        if (physicalMachines == null || slot >= physicalMachines.length) {
+            physicalMachines = Arrays.copyOf(physicalMachines == null ? new PhysicalMachine[0] : physicalMachines,
+                    capacity());
+        }
+        physicalMachines[slot] = pm;
+        setId(slot, id);
+        setPowerMax(slot, power);
+        return slot;
+    }
+
+    /**
+     * Copy every attribute of a slot of another state into a slot of this one
+     * @param slot       Destination slot
+     * @param source     Source state
+     * @param sourceSlot Source slot
+     */
+    void copySlot(int slot, DatacenterState source, int sourceSlot) {
+
+        Page page = writablePage(slot);
+        Page sourcePage = source.pages[sourceSlot >>> PAGE_SHIFT];
+        page.ids[slot & PAGE_MASK] = sourcePage.ids[sourceSlot & PAGE_MASK];
+        page.powerMax[slot & PAGE_MASK] = sourcePage.powerMax[sourceSlot & PAGE_MASK];
+        for (int k = 0; k < numberOfResources; k++) {
+            int index = page.index(k, slot);
+            int sourceIndex = sourcePage.index(k, sourceSlot);
+            page.capacity[index] = sourcePage.capacity[sourceIndex];
+            page.requested[index] = sourcePage.requested[sourceIndex];
+            page.utilization[index] = sourcePage.utilization[sourceIndex];
+        }
+        touch(slot);
+    }
+
+    /**
+     * Add <b>delta</b> to the requested resources of a slot
+     * @param resource Resource index
+     * @param slot     PM slot
+     * @param delta    Delta resource
+     */
+    public void addRequested(int resource, int slot, float delta) {
+
+        Page page = writablePage(slot);
+        int index = page.index(resource, slot);
+        page.requested[index] = delta + page.requested[index];
+        touch(slot);
+    }
+
+    /**
+     * Subtract <b>delta</b> from the requested resources of a slot
+     * @param resource Resource index
+     * @param slot     PM slot
+     * @param delta    Delta resource
+     */
+    public void subRequested(int resource, int slot, float delta) {
+
+        Page page = writablePage(slot);
+        int index = page.index(resource, slot);
+        page.requested[index] = page.requested[index] - delta;
+        touch(slot);
+    }
+
+    /**
+     * Update the utilization (requested / capacity) of every resource of a slot
+     * @param slot PM slot
+     */
+    public void updateUtilization(int slot) {
+
+        Page page = writablePage(slot);
+        for (int k = 0; k < numberOfResources; k++) {
+            int index = page.index(k, slot);
+            page.utilization[index] = page.requested[index] / page.capacity[index];
+        }
+        touch(slot);
+    }
+
+    /**
+     * Slots that can hold a demand
+     * <p>
+     *     A slot is feasible if {@code requested + used + headroom < capacity} for every resource of
+     *     the demand, evaluated left to right in float like {@code Constraints.checkResources}. The
+     *     columns of each page are scanned by resource in a branch-free loop.
+     * </p>
+     * @param used     Used resources of the demand, by resource
+     * @param headroom Protected headroom of the demand, by resource
+     * @return Bitmap of the feasible slots, bit {@code slot & 63} of the word {@code slot >>> 6}
+     */
+    public long[] feasibleSlots(float[] used, float[] headroom) {
+
+        long[] bitmap = new long[(size + PAGE_MASK) >>> PAGE_SHIFT];
+        for (int p = 0; p < bitmap.length; p++) {
+            Page page = pages[p];
+            int length = Math.min(page.length, size - (p << PAGE_SHIFT));
+            long word = length == Long.SIZE ? -1L : (1L << length) - 1;
+            for (int k = 0; k < used.length; k++) {
+                float[] requested = page.requested;
+                float[] capacity = page.capacity;
+                float vmUsed = used[k];
+                float vmHeadroom = headroom[k];
+                int base = k * page.length;
+                long fits = 0L;
+                for (int i = 0; i < length; i++) {
+                    fits |= (requested[base + i] + vmUsed + vmHeadroom < capacity[base + i] ? 1L : 0L) << i;
+                }
+                word &= fits;
+            }
+            bitmap[p] = word;
+        }
+        return bitmap;
+    }
+
+    /**
+     * Record the slots written from now on for <b>tracker</b>, until {@link #untrackChanges(Object)}
+     * or until the tracker is no longer referenced
+     * @param tracker Tracker
+     */
+    void trackChanges(Object tracker) {
+        changes.track(tracker, capacity());
+    }
+
+    /**
+     * Stop recording the slots written for <b>tracker</b>
+     * @param tracker Tracker
+     */
+    void untrackChanges(Object tracker) {
+        changes.untrack(tracker);
+    }
+
+    /**
+     * Slots written since the last call, each slot is returned once
+     * @param tracker Tracker
+     * @return Slots written, <b>null</b> if the slots are not recorded for <b>tracker</b>
+     */
+    int[] pollChanges(Object tracker) {
+        return changes.poll(tracker);
+    }
+
+    /**
+     * Record a written slot for the trackers
+     * @param slot PM slot
+     */
+    private void touch(int slot) {
+        changes.touch(slot, capacity());
+    }
+
+    /**
+     * Page of a slot that can be written, the page is copied if it is shared with a snapshot
+     * @param slot PM slot
+     * @return Page
+     */
+    private Page writablePage(int slot) {
+
+        int pageIndex = slot >>> PAGE_SHIFT;
+        Page page = pages[pageIndex];
+        if (page.owner != owner) {
+            page = new Page(owner, page, page.length);
+            ownPages()[pageIndex] = page;
+        }
+        return page;
+    }
+
+    private Page[] ownPages() {
+
+        if (pagesShared) {
+            pages = pages.clone();
+            pagesShared = false;
+        }
+        return pages;
+    }
+
+    private int capacity() {
+        return pages.length == 1 ? pages[0].length : pages.length * PAGE_SIZE;
+    }
+
+    private void grow() {
+
+        Page first = pages[0];
+        if (pages.length == 1 && first.length < PAGE_SIZE) {
+            ownPages()[0] = new Page(owner, first, Math.min(PAGE_SIZE, first.length * 2));
+        } else {
+            pages = Arrays.copyOf(pages, pages.length + 1);
+            pagesShared = false;
+            pages[pages.length - 1] = new Page(owner, numberOfResources, PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Attributes of {@value #PAGE_SIZE} slots (fewer for the first page of a small state)
+     */
+    private static final class Page {
+
+        private final Object owner;
+
+        private final int numberOfResources;
+
+        private final int length;
+
+        private final int[] ids;
+
+        private final int[] powerMax;
+
+        // [resource * length + slot]
+        private final float[] capacity;
+
+        private final float[] requested;
+
+        private final float[] utilization;
+
+        private Page(Object owner, int numberOfResources, int length) {
+
+            this.owner = owner;
+            this.numberOfResources = numberOfResources;
+            this.length = length;
+            this.ids = new int[length];
+            this.powerMax = new int[length];
+            this.capacity = new float[numberOfResources * length];
+            this.requested = new float[numberOfResources * length];
+            this.utilization = new float[numberOfResources * length];
+        }
+
+        private Page(Object owner, Page page, int length) {
+
+            this(owner, page.numberOfResources, length);
+            System.arraycopy(page.ids, 0, ids, 0, page.length);
+            System.arraycopy(page.powerMax, 0, powerMax, 0, page.length);
+            for (int k = 0; k < numberOfResources; k++) {
+                System.arraycopy(page.capacity, k * page.length, capacity, k * length, page.length);
+                System.arraycopy(page.requested, k * page.length, requested, k * length, page.length);
+                System.arraycopy(page.utilization, k * page.length, utilization, k * length, page.length);
+            }
+        }
+
+        private int index(int resource, int slot) {
+            return resource * length + (slot & PAGE_MASK);
+        }
+    }
+}
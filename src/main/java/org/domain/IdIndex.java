@@ -0,0 +1,141 @@
+package org.domain;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from an int ID to an element
+ * <p>
+ *     The IDs are stored in a primitive array with linear probing, removals shift back the
+ *     following entries of the cluster, so no tombstones are left.
+ * </p>
+ * @param <E> Type of the elements
+ * @since 10/18/26.
+ */
+class IdIndex<E> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    private int mask;
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param expectedSize Expected number of IDs
+     */
+    IdIndex(int expectedSize) {
+
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /* Methods */
+
+    /**
+     * @param id ID
+     * @return Element of the ID, <b>null</b> if there is none
+     */
+    @SuppressWarnings("unchecked")
+    E get(int id) {
+
+        for (int i = hash(id); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return (E) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add an element if the ID has none
+     * @param id      ID
+     * @param element Element
+     * @return <b>True</b>, if the element was added <br> <b>False</b>, if the ID already has an element
+     */
+    boolean putIfAbsent(int id, E element) {
+
+        int i = hash(id);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                return false;
+            }
+        }
+        keys[i] = id;
+        values[i] = element;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Remove the element of an ID
+     * @param id ID
+     */
+    void remove(int id) {
+
+        int i = hash(id);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == id) {
+                break;
+            }
+        }
+        if (values[i] == null) {
+            return;
+        }
+        size--;
+        // Shift back the entries of the cluster that can take the free position
+        int free = i;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = hash(keys[j]);
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                keys[free] = keys[j];
+                values[free] = values[j];
+                free = j;
+            }
+        }
+        values[free] = null;
+    }
+
+    void clear() {
+
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int j = hash(oldKeys[i]);
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private int hash(int id) {
+
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
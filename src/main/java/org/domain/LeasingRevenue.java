@@ -0,0 +1,231 @@
+package org.domain;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Leasing revenue of the VMs of a {@link VirtualMachineList}, maintained incrementally
+ * <p>
+ *     Keeps, by resource, the total of resource * revenue of the VMs of the list: the revenue of the
+ *     derived VMs before the derive cost (see
+ *     {@link org.framework.ObjectivesFunctions#economicalRevenue(java.util.List, java.util.List, Integer)}).
+ *     The totals follow the VMs added to and removed from the list, and the writes into the
+ *     {@link VmTable} of the VMs (see {@link VmTable#pollChanges(Object)}), so an update of a VM
+ *     only computes that VM again and the revenue is read in O(changes). It is rebuilt when the VMs
+ *     of the list are not in the same table.
+ * </p>
+ * <p>
+ *     The totals are kept in double, so they match the sum of the list in float within float
+ *     rounding.
+ * </p>
+ * @since 10/18/26.
+ */
+public class LeasingRevenue {
+
+    private final VirtualMachineList list;
+
+    private boolean built;
+
+    // The VMs of the list share one table
+    private boolean usable;
+
+    private VmTable table;
+
+    // Resource * revenue of each VM in the list, as added to the totals
+    private final Map<VirtualMachine, Entry> entries = new IdentityHashMap<>();
+
+    private final double[] totals = new double[VmTable.NUMBER_OF_RESOURCES];
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param list List of Virtual Machines
+     */
+    LeasingRevenue(VirtualMachineList list) {
+        this.list = list;
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @param resource Resource index
+     * @return Sum of resource * revenue of the VMs of the list
+     */
+    public float getLeased(int resource) {
+
+        sync();
+        return (float) totals[resource];
+    }
+
+    /* Methods */
+
+    /**
+     * @return <b>True</b>, if the VMs of the list can be accumulated
+     */
+    public boolean isUsable() {
+
+        sync();
+        return usable;
+    }
+
+    /**
+     * A VM was added to the list
+     * @param vm Virtual Machine
+     */
+    void added(VirtualMachine vm) {
+
+        if (!built) {
+            return;
+        }
+        if (!usable || vm.getTable() != table) {
+            built = false;
+            return;
+        }
+        Entry entry = entries.get(vm);
+        if (entry == null) {
+            entry = new Entry(vm);
+            entries.put(vm, entry);
+        }
+        entry.copies++;
+        count(entry, 1);
+    }
+
+    /**
+     * A VM was removed from the list
+     * @param vm Virtual Machine
+     */
+    void removed(VirtualMachine vm) {
+
+        if (!built) {
+            return;
+        }
+        Entry entry = usable ? entries.get(vm) : null;
+        if (entry == null) {
+            built = false;
+            return;
+        }
+        count(entry, -1);
+        if (--entry.copies == 0) {
+            entries.remove(vm);
+        }
+        if (entries.isEmpty()) {
+            // No rounding left over when the list is empty
+            Arrays.fill(totals, 0);
+        }
+    }
+
+    /**
+     * The list was modified, the totals are computed again on the next call
+     */
+    void invalidate() {
+        built = false;
+    }
+
+    /**
+     * The list is no longer used, the table stops recording the changes for the totals. The
+     * totals are computed again on the next call
+     */
+    void release() {
+
+        invalidate();
+        untrack();
+    }
+
+    /**
+     * Bring the totals up to date with the list and the table
+     */
+    private void sync() {
+
+        if (!built) {
+            build();
+            return;
+        }
+        if (!usable || table == null) {
+            return;
+        }
+        int[] handles = table.pollChanges(this);
+        if (handles == null) {
+            build();
+            return;
+        }
+        for (int handle : handles) {
+            VirtualMachine vm = table.getVirtualMachine(handle);
+            Entry entry = vm == null ? null : entries.get(vm);
+            if (entry != null) {
+                count(entry, -entry.copies);
+                entry.read(vm);
+                count(entry, entry.copies);
+            }
+        }
+    }
+
+    private void untrack() {
+
+        if (table != null) {
+            table.untrackChanges(this);
+            table = null;
+        }
+    }
+
+    private void build() {
+
+        untrack();
+        entries.clear();
+        Arrays.fill(totals, 0);
+        built = true;
+        table = list.isEmpty() ? null : list.get(0).getTable();
+        usable = true;
+        for (VirtualMachine vm : list) {
+            if (vm.getTable() != table) {
+                usable = false;
+                break;
+            }
+            Entry entry = entries.get(vm);
+            if (entry == null) {
+                entry = new Entry(vm);
+                entries.put(vm, entry);
+            }
+            entry.copies++;
+            count(entry, 1);
+        }
+        if (!usable) {
+            entries.clear();
+            Arrays.fill(totals, 0);
+            table = null;
+        } else if (table != null) {
+            table.trackChanges(this);
+        }
+    }
+
+    private void count(Entry entry, int copies) {
+
+        for (int k = 0; k < totals.length; k++) {
+            totals[k] += (double) entry.leased[k] * copies;
+        }
+    }
+
+    /**
+     * Resource * revenue of a VM in the list and number of times the VM is in the list
+     */
+    private static final class Entry {
+
+        private final float[] leased = new float[VmTable.NUMBER_OF_RESOURCES];
+
+        private int copies;
+
+        private Entry(VirtualMachine vm) {
+            read(vm);
+        }
+
+        private void read(VirtualMachine vm) {
+
+            VmTable vmTable = vm.getTable();
+            int handle = vm.getHandle();
+            for (int k = 0; k < leased.length; k++) {
+                leased[k] = vmTable.getResource(handle, k) * vmTable.getRevenue(handle, k);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Migrations of a reallocation of VMs
+ * <p>
+ *     Each move records the VM with the PM of origin and the PM of destination, in the order the
+ *     moves were made. The VMs moved are the ones whose migration times are computed.
+ * </p>
+ * @since 10/18/26.
+ */
+public class MigrationPlan {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final List<VirtualMachine> virtualMachines = new ArrayList<>();
+
+    private int[] sources = new int[INITIAL_CAPACITY];
+
+    private int[] targets = new int[INITIAL_CAPACITY];
+
+    /* Getters and Setters */
+
+    /**
+     * @return VMs moved, in the order of the moves
+     */
+    public List<VirtualMachine> getVirtualMachines() {
+        return Collections.unmodifiableList(virtualMachines);
+    }
+
+    /**
+     * @param move Index of the move
+     * @return Physical Machine ID of origin
+     */
+    public int getSource(int move) {
+        return sources[move];
+    }
+
+    /**
+     * @param move Index of the move
+     * @return Physical Machine ID of destination
+     */
+    public int getTarget(int move) {
+        return targets[move];
+    }
+
+    /* Methods */
+
+    /**
+     * Record a move
+     * @param vm     Virtual Machine
+     * @param source Physical Machine ID of origin
+     * @param target Physical Machine ID of destination
+     */
+    public void add(VirtualMachine vm, int source, int target) {
+
+        int move = virtualMachines.size();
+        if (move == sources.length) {
+            sources = Arrays.copyOf(sources, move * 2);
+            targets = Arrays.copyOf(targets, move * 2);
+        }
+        virtualMachines.add(vm);
+        sources[move] = source;
+        targets[move] = target;
+    }
+
+    /**
+     * @return Number of moves
+     */
+    public int size() {
+        return virtualMachines.size();
+    }
+
+    /**
+     * @return <b>True</b>, if there are no moves
+     */
+    public boolean isEmpty() {
+        return virtualMachines.isEmpty();
+    }
+}
@@ -0,0 +1,244 @@
+package org.domain;
+
+import org.framework.ObjectivesFunctions;
+
+import java.util.Arrays;
+
+/**
+ * Objective functions of the PMs of a {@link PhysicalMachineList}, maintained incrementally
+ * <p>
+ *     Keeps, by slot, the power consumption and the wasted resources ratio (by resource) of each
+ *     working PM (a PM with requested resources), and their totals over the list: the number of
+ *     working PMs, the power consumption and the wasted resources by resource. The accumulator
+ *     follows the writes into the {@link DatacenterState} of the PMs (see
+ *     {@link DatacenterState#pollChanges(Object)}), so after an allocation, a release or an update
+ *     only the PMs written are computed again and the objectives are read in O(changes). It is
+ *     rebuilt when the list is modified.
+ * </p>
+ * <p>
+ *     The totals are kept in double, so they match {@link ObjectivesFunctions#powerConsumption(java.util.List)}
+ *     and {@link ObjectivesFunctions#wastedResources(java.util.List, java.util.List)} within float
+ *     rounding (the functions add up the PMs in float, in the order of the list).
+ * </p>
+ * @since 10/18/26.
+ */
+public class ObjectiveAccumulator {
+
+    // Requested resources of a working PM
+    private static final double MIN_REQUESTED = 0.0001;
+
+    private final PhysicalMachineList list;
+
+    private boolean built;
+
+    // The PMs of the list share one state and are in the list once
+    private boolean usable;
+
+    private DatacenterState state;
+
+    private int numberOfResources;
+
+    // The slot is in the list
+    private boolean[] members;
+
+    private boolean[] working;
+
+    // Power consumption by slot, zero if the PM is not working
+    private float[] power;
+
+    // [slot * numberOfResources + resource], zero if the PM is not working
+    private float[] wasted;
+
+    private int workingPMs;
+
+    private double powerConsumption;
+
+    private double[] wastedResources;
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param list List of Physical Machines
+     */
+    ObjectiveAccumulator(PhysicalMachineList list) {
+        this.list = list;
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @return Number of working PMs
+     */
+    public int getWorkingPMs() {
+
+        sync();
+        return workingPMs;
+    }
+
+    /**
+     * @return Power Consumption of the PMs
+     */
+    public float getPowerConsumption() {
+
+        sync();
+        return (float) powerConsumption;
+    }
+
+    /**
+     * @param resource Resource index
+     * @return Sum of the wasted resources ratio (free / capacity) of the working PMs
+     */
+    public float getWastedResources(int resource) {
+
+        sync();
+        return (float) wastedResources[resource];
+    }
+
+    /* Methods */
+
+    /**
+     * @return <b>True</b>, if the PMs of the list can be accumulated
+     */
+    public boolean isUsable() {
+
+        sync();
+        return usable;
+    }
+
+    /**
+     * The list was modified, the accumulator is rebuilt on the next call
+     */
+    void invalidate() {
+        built = false;
+    }
+
+    /**
+     * The list is no longer used, the state stops recording the changes for the accumulator. The
+     * accumulator is rebuilt on the next call
+     */
+    void release() {
+
+        invalidate();
+        untrack();
+    }
+
+    /**
+     * Bring the totals up to date with the list and the writes into the state
+     */
+    private void sync() {
+
+        if (!built) {
+            build();
+            return;
+        }
+        if (!usable || state == null) {
+            return;
+        }
+        int[] changes = state.pollChanges(this);
+        if (changes == null) {
+            build();
+            return;
+        }
+        for (int slot : changes) {
+            if (slot < members.length && members[slot]) {
+                remove(slot);
+                add(slot);
+            }
+        }
+    }
+
+    private void untrack() {
+
+        if (state != null) {
+            state.untrackChanges(this);
+            state = null;
+        }
+    }
+
+    private void build() {
+
+        untrack();
+        built = true;
+        usable = true;
+        workingPMs = 0;
+        powerConsumption = 0;
+        state = list.isEmpty() ? null : list.get(0).getState();
+        numberOfResources = state == null ? 0 : state.getNumberOfResources();
+        wastedResources = new double[numberOfResources];
+        if (state == null) {
+            return;
+        }
+        members = new boolean[state.size()];
+        working = new boolean[state.size()];
+        power = new float[state.size()];
+        wasted = new float[state.size() * numberOfResources];
+        for (PhysicalMachine pm : list) {
+            int slot = pm.getSlot();
+            if (pm.getState() != state || members[slot]) {
+                usable = false;
+                return;
+            }
+            members[slot] = true;
+            add(slot);
+        }
+        state.trackChanges(this);
+    }
+
+    /**
+     * Compute the objectives of a slot and add them to the totals
+     * @param slot PM slot
+     */
+    private void add(int slot) {
+
+        boolean isWorking = false;
+        for (int k = 0; k < numberOfResources; k++) {
+            isWorking |= state.getRequested(k, slot) > MIN_REQUESTED;
+        }
+        working[slot] = isWorking;
+        if (!isWorking) {
+            return;
+        }
+        workingPMs++;
+
+        float requestedCPU = state.getRequested(0, slot);
+        if (requestedCPU > MIN_REQUESTED) {
+            int powerMax = state.getPowerMax(slot);
+            float utilidad = requestedCPU / state.getCapacity(0, slot);
+            float minPowerPercentage = ObjectivesFunctions.MIN_POWER_PERCENTAGE;
+            power[slot] = (powerMax - powerMax * minPowerPercentage) * utilidad + powerMax * minPowerPercentage;
+            powerConsumption += power[slot];
+        }
+        for (int k = 0; k < numberOfResources; k++) {
+            float waste = 1 - state.getRequested(k, slot) / state.getCapacity(k, slot);
+            if (waste > 0) {
+                wasted[slot * numberOfResources + k] = waste;
+                wastedResources[k] += waste;
+            }
+        }
+    }
+
+    /**
+     * Subtract the objectives of a slot from the totals
+     * @param slot PM slot
+     */
+    private void remove(int slot) {
+
+        if (!working[slot]) {
+            return;
+        }
+        working[slot] = false;
+        workingPMs--;
+        powerConsumption -= power[slot];
+        power[slot] = 0F;
+        for (int k = 0; k < numberOfResources; k++) {
+            wastedResources[k] -= wasted[slot * numberOfResources + k];
+        }
+        Arrays.fill(wasted, slot * numberOfResources, (slot + 1) * numberOfResources, 0F);
+        if (workingPMs == 0) {
+            // No rounding left over when the DC is empty
+            powerConsumption = 0;
+            Arrays.fill(wastedResources, 0);
+        }
+    }
+}
@@ -2,20 +2,42 @@ package org.domain;
 
 import org.framework.Utils;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
 
 /**
  * Class that represents a Physical Machine.
+ * <p>
+ *     The resources, requested resources and utilization of the PM are stored in a slot of a
+ *     {@link DatacenterState}, the PM is a view over that slot.
+ * </p>
  * @author Saul Zalimben.
  * @since 8/14/16.
  */
 public class PhysicalMachine {
 
+    /**
+     * ID of a PM, for the lists indexed by ID (see {@link SharedArrayList#getById(int)})
+     */
+    public static final ToIntFunction<PhysicalMachine> ID_FUNCTION = pm -> pm.state.getId(pm.slot);
+
     private Integer id;
 
     private Integer powerMax;
 
+    private static final int CAPACITY = 0;
+
+    private static final int REQUESTED = 1;
+
+    private static final int UTILIZATION = 2;
+
+    // Slot of the PM in the datacenter state
+    private final DatacenterState state;
+
+    private final int slot;
+
     private List<Float> resources;
 
     private List<Float> resourcesRequested;
@@ -32,17 +54,21 @@ public class PhysicalMachine {
      */
     public PhysicalMachine(Integer id, Integer powerMax, List<Float> resources) {
 
-        this.id = id +1;
-        this.powerMax = powerMax;
-        this.resources = resources;
-        this.resourcesRequested = new ArrayList<>();
-        this.utilization = new ArrayList<>();
-
-        for (int i =0; i < resources.size(); i++) {
-            Float newResource = 0F;
-            resourcesRequested.add(newResource);
-            Float newUtilization = 0F;
-            utilization.add(newUtilization);
+        this(new DatacenterState(resources.size(), 1), id, powerMax, resources);
+    }
+
+    /**
+     * Constructor, the PM is added to a new slot of <b>state</b>
+     * @param state     Datacenter State
+     * @param id        New ID
+     * @param powerMax  Power Max
+     * @param resources Resources
+     */
+    public PhysicalMachine(DatacenterState state, Integer id, Integer powerMax, List<Float> resources) {
+
+        this(state, id + 1, powerMax);
+        for (int k = 0; k < resources.size(); k++) {
+            state.setCapacity(k, slot, resources.get(k));
         }
     }
 
@@ -57,11 +83,42 @@ public class PhysicalMachine {
     public PhysicalMachine(Integer id, Integer powerMax, List<Float> resources,
             List<Float> resourcesRequested, List<Float> utilization) {
 
+        this(new DatacenterState(resources.size(), 1), id, powerMax);
+        this.setResources(resources);
+        this.setResourcesRequested(resourcesRequested);
+        this.setUtilization(utilization);
+    }
+
+    /**
+     * Constructor, copy of <b>pm</b> in a new slot of <b>state</b>
+     * @param state Datacenter State
+     * @param pm    Physical Machine
+     */
+    private PhysicalMachine(DatacenterState state, PhysicalMachine pm) {
+
+        this(state, pm.getId(), pm.getPowerMax());
+        state.copySlot(slot, pm.state, pm.slot);
+    }
+
+    private PhysicalMachine(DatacenterState state, Integer id, Integer powerMax) {
+
         this.id = id;
         this.powerMax = powerMax;
-        this.resources = resources;
-        this.resourcesRequested = Utils.getListClone(resourcesRequested);
-        this.utilization = Utils.getListClone(utilization);
+        this.state = state;
+        this.slot = state.addSlot(this, id, powerMax);
+    }
+
+    /**
+     * Constructor of a view over a slot already in use of <b>state</b>
+     * @param state Datacenter State
+     * @param slot  PM slot
+     */
+    PhysicalMachine(DatacenterState state, int slot) {
+
+        this.id = state.getId(slot);
+        this.powerMax = state.getPowerMax(slot);
+        this.state = state;
+        this.slot = slot;
     }
 
     /* Getters and Setters */
@@ -72,34 +129,52 @@ public class PhysicalMachine {
 
     public void setPowerMax(Integer powerMax ) {
         this.powerMax = powerMax;
+        state.setPowerMax(slot, powerMax);
     }
 
     public List<Float> getResourcesRequested() {
+
+        if (resourcesRequested == null) {
+            resourcesRequested = new ResourceView(REQUESTED);
+        }
         return this.resourcesRequested;
     }
 
     public void setResourcesRequested(List<Float> resourcesRequested) {
-        this.resourcesRequested = resourcesRequested;
+
+        for (int k = 0; k < resourcesRequested.size(); k++) {
+            state.setRequested(k, slot, resourcesRequested.get(k));
+        }
     }
 
     public List<Float> getUtilization() {
 
+        if (utilization == null) {
+            utilization = new ResourceView(UTILIZATION);
+        }
         return utilization;
     }
 
     public void setUtilization(List<Float> utilization) {
 
-        this.utilization = utilization;
+        for (int k = 0; k < utilization.size(); k++) {
+            state.setUtilization(k, slot, utilization.get(k));
+        }
     }
 
     public List<Float> getResources() {
 
+        if (resources == null) {
+            resources = new ResourceView(CAPACITY);
+        }
         return resources;
     }
 
     public void setResources(List<Float> resources) {
 
-        this.resources = resources;
+        for (int k = 0; k < resources.size(); k++) {
+            state.setCapacity(k, slot, resources.get(k));
+        }
     }
 
     public Integer getId() {
@@ -110,6 +185,39 @@ public class PhysicalMachine {
     public void setId(Integer id) {
 
         this.id = id;
+        state.setId(slot, id);
+    }
+
+    public DatacenterState getState() {
+        return state;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getNumberOfResources() {
+        return state.getNumberOfResources();
+    }
+
+    public float getResource(int resource) {
+        return state.getCapacity(resource, slot);
+    }
+
+    public float getResourceRequested(int resource) {
+        return state.getRequested(resource, slot);
+    }
+
+    public void setResourceRequested(int resource, float value) {
+        state.setRequested(resource, slot, value);
+    }
+
+    public float getUtilization(int resource) {
+        return state.getUtilization(resource, slot);
+    }
+
+    public void setUtilization(int resource, float value) {
+        state.setUtilization(resource, slot, value);
     }
 
     /* Methods */
@@ -126,17 +234,6 @@ public class PhysicalMachine {
         System.out.println();
     }
 
-    /**
-     * Update Physical Machine Resource
-     * @param resource       Resources index
-     * @param newUtilization Delta Utilization
-     */
-    private void updateUtilizationResource (Integer resource, Float newUtilization) {
-
-        this.getUtilization().remove(resource.intValue());
-        this.getUtilization().add(resource, newUtilization);
-    }
-
     /**
      * Updated ResourcesRequested of a Physical Machine
      * @param resource      Resources index
@@ -147,20 +244,15 @@ public class PhysicalMachine {
             String operation ) {
 
         if("SUM".equals(operation)) {
-            Float newResource = deltaResource + this.getResourcesRequested().get(resource);
-            this.getResourcesRequested().remove(resource.intValue());
-            this.getResourcesRequested().add(resource, newResource);
+            state.addRequested(resource, slot, deltaResource);
         }
 
         if("SUB".equals(operation)) {
-            Float newResource = this.getResourcesRequested().get(resource) - deltaResource;
-            this.getResourcesRequested().remove(resource.intValue());
-            this.getResourcesRequested().add(resource, newResource);
+            state.subRequested(resource, slot, deltaResource);
         }
 
         if("MAX".equals(operation)) {
-            this.getResourcesRequested().remove(resource.intValue());
-            this.getResourcesRequested().add(resource, this.getResources().get(resource));
+            state.setRequested(resource, slot, state.getCapacity(resource, slot));
         }
     }
 
@@ -170,9 +262,9 @@ public class PhysicalMachine {
      */
     public Float getWeight() {
 
-        Float weight = 0F;
-        for (Float utilizationPM : this.getUtilization()) {
-            weight += (1F - utilizationPM);
+        float weight = 0F;
+        for (int k = 0; k < state.getNumberOfResources(); k++) {
+            weight += (1F - state.getUtilization(k, slot));
         }
 
         return weight;
@@ -180,13 +272,17 @@ public class PhysicalMachine {
     }
 
     /**
-     * Get PM by Id
+     * Get PM by Id, in O(1) for a list indexed by ID
      * @param pmId             Physical Machine Id
      * @param physicalMachines List of PMs
      * @return Physical Machine
      */
     public static PhysicalMachine getById(Integer pmId, List<PhysicalMachine> physicalMachines) {
 
+        if (pmId != null && physicalMachines instanceof SharedArrayList
+                && ((SharedArrayList<PhysicalMachine>) physicalMachines).isIndexed()) {
+            return ((SharedArrayList<PhysicalMachine>) physicalMachines).getById(pmId);
+        }
         for (PhysicalMachine pm : physicalMachines) {
             if (pm.getId().equals(pmId)) {
                 return pm;
@@ -200,10 +296,7 @@ public class PhysicalMachine {
      */
     public void updateUtilization() {
 
-        for (int k =0; k < this.getResources().size(); k++) {
-            Float newUtilization = this.getResourcesRequested().get(k) / this.getResources().get(k);
-            this.updateUtilizationResource(k, newUtilization);
-        }
+        state.updateUtilization(slot);
     }
 
 
@@ -225,24 +318,28 @@ public class PhysicalMachine {
      * Create a copy of the Physical Machine
      * @return Cloned Physical Machine
      */
-    private PhysicalMachine clonePM() {
+    private PhysicalMachine clonePM(DatacenterState cloneState) {
 
-        return new PhysicalMachine(this.getId(), this.getPowerMax(), this.getResources(),
-                this.getResourcesRequested(), this.getUtilization());
+        return new PhysicalMachine(cloneState, this);
 
     }
 
     /**
-     * Create a copy of each PM in a list
+     * Create a copy of each PM in a list, the copies share a new {@link DatacenterState}
      * @param physicalMachines List of Virtual Machines
      * @return Copy of physicalMachines
      */
     public static List<PhysicalMachine> clonePMsList(List<PhysicalMachine> physicalMachines) {
 
-        List<PhysicalMachine> clonePM = new ArrayList<>();
+        List<PhysicalMachine> clonePM = new PhysicalMachineList();
+        if (physicalMachines.isEmpty()) {
+            return clonePM;
+        }
+        DatacenterState cloneState = new DatacenterState(physicalMachines.get(0).getNumberOfResources(),
+                physicalMachines.size());
 
         physicalMachines.forEach(pm ->
-            clonePM.add((PhysicalMachine) pm.clonePM()));
+            clonePM.add(pm.clonePM(cloneState)));
 
         return clonePM;
     }
@@ -258,11 +355,66 @@ public class PhysicalMachine {
      */
     public void updatePMResources(VirtualMachine vm, String operation) {
 
-        for (int k = 0; k < this.getResources().size(); k++) {
+        for (int k = 0; k < state.getNumberOfResources(); k++) {
             this.updateResource(k, vm.getResources().get(k) * vm.getUtilization().get(k) / 100,
                     operation);
         }
         this.updateUtilization();
     }
 
+    /**
+     * Write-through {@link List} view of one attribute of the PM in the {@link DatacenterState}
+     */
+    private class ResourceView extends AbstractList<Float> implements RandomAccess {
+
+        private final int attribute;
+
+        private ResourceView(int attribute) {
+            this.attribute = attribute;
+        }
+
+        @Override
+        public Float get(int resource) {
+
+            checkIndex(resource);
+            switch (attribute) {
+                case CAPACITY:
+                    return state.getCapacity(resource, slot);
+                case REQUESTED:
+                    return state.getRequested(resource, slot);
+                default:
+                    return state.getUtilization(resource, slot);
+            }
+        }
+
+        @Override
+        public Float set(int resource, Float value) {
+
+            Float previous = get(resource);
+            switch (attribute) {
+                case CAPACITY:
+                    state.setCapacity(resource, slot, value);
+                    break;
+                case REQUESTED:
+                    state.setRequested(resource, slot, value);
+                    break;
+                default:
+                    state.setUtilization(resource, slot, value);
+            }
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return state.getNumberOfResources();
+        }
+
+        private void checkIndex(int resource) {
+
+            if (resource < 0 || resource >= state.getNumberOfResources()) {
+                throw new IndexOutOfBoundsException("Index: " + resource + ", Size: " + size());
+            }
+        }
+    }
+
 }
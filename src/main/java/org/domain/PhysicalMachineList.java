@@ -0,0 +1,204 @@
+package org.domain;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.Predicate;
+
+/**
+ * List of Physical Machines indexed by ID and by free resources
+ * <p>
+ *     Besides the index by ID of {@link SharedArrayList}, the list keeps a {@link CapacityIndex}, so
+ *     the first PM that can host a VM is found in O(log P) and the sort by weight of best/worst
+ *     fit only moves the PMs whose weight changed. The index is built on the first call after the
+ *     list is modified. An {@link ObjectiveAccumulator} keeps the objective functions of the PMs.
+ * </p>
+ * @since 10/18/26.
+ */
+public class PhysicalMachineList extends SharedArrayList<PhysicalMachine> {
+
+    /**
+     * Exact check and placement of a demand of a run in a PM, see
+     * {@link #firstFitAll(float[][], Packing)}
+     */
+    @FunctionalInterface
+    public interface Packing {
+
+        /**
+         * @param demand Index of the demand in the run
+         * @param pm     Physical Machine
+         * @return <b>True</b>, if the demand passed the check and was placed in the PM
+         */
+        boolean place(int demand, PhysicalMachine pm);
+    }
+
+    private final CapacityIndex capacityIndex = new CapacityIndex(this);
+
+    private final ObjectiveAccumulator objectives = new ObjectiveAccumulator(this);
+
+    /* Constructors */
+
+    /**
+     * Default Constructor
+     */
+    public PhysicalMachineList() {
+        super(PhysicalMachine.ID_FUNCTION);
+    }
+
+    /**
+     * Constructor
+     * @param physicalMachines Initial Physical Machines
+     */
+    public PhysicalMachineList(Collection<PhysicalMachine> physicalMachines) {
+        super(physicalMachines, PhysicalMachine.ID_FUNCTION);
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @return Objective functions of the PMs of the list, maintained incrementally
+     */
+    public ObjectiveAccumulator getObjectives() {
+        return objectives;
+    }
+
+    /* Methods */
+
+    /**
+     * Sort the PMs by weight, the result is the same as a stable sort with
+     * {@code BestComparator} (ascending weight) or {@code WorstComparator} (descending weight)
+     * @param ascending <b>True</b>, for ascending weight
+     */
+    public void sortByWeight(boolean ascending) {
+
+        if (capacityIndex.isUsable()) {
+            capacityIndex.sort(ascending ? CapacityIndex.BEST : CapacityIndex.WORST);
+        } else {
+            Comparator<PhysicalMachine> comparator = Comparator.comparing(PhysicalMachine::getWeight);
+            sort(ascending ? comparator : comparator.reversed());
+        }
+    }
+
+    /**
+     * First PM of the list, in order, that passes a check
+     * @param demand Resources needed by resource, the PMs whose free resources (capacity - requested)
+     *               are clearly below the demand are skipped without the check
+     * @param fits   Check of a PM
+     * @return Physical Machine, <b>null</b> if no PM passes the check
+     */
+    public PhysicalMachine firstFit(float[] demand, Predicate<PhysicalMachine> fits) {
+
+        if (capacityIndex.isUsable()) {
+            return capacityIndex.firstFit(demand, fits);
+        }
+        for (PhysicalMachine pm : this) {
+            if (fits.test(pm)) {
+                return pm;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * First fit of a run of demands
+     * <p>
+     *     Each demand, in order, is placed in the first PM of the list that passes the check after
+     *     the placements of the demands before it. With the capacity index the whole run is placed in
+     *     one pass over the index, otherwise the list is searched once per demand.
+     * </p>
+     * @param demands Resources needed by resource, by demand
+     * @param packing Exact check and placement of a demand in a PM
+     */
+    public void firstFitAll(float[][] demands, Packing packing) {
+
+        if (capacityIndex.isUsable()) {
+            capacityIndex.firstFitAll(demands, packing);
+            return;
+        }
+        for (int d = 0; d < demands.length; d++) {
+            for (PhysicalMachine pm : this) {
+                if (packing.place(d, pm)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Datacenter-wide check of a demand, before the search of a PM
+     * <p>
+     *     With the capacity index the maximum free resources of the PMs, by resource, are known, so
+     *     a saturated datacenter rejects the demand in O(1).
+     * </p>
+     * @param demand Resources needed by resource
+     * @return <b>False</b>, if no PM of the list has the free resources of the demand <br>
+     *         <b>True</b>, if a PM may host it (the list is not indexed, or a PM has the free resources
+     *         of every resource)
+     */
+    public boolean mayHost(float[] demand) {
+
+        if (capacityIndex.isUsable()) {
+            return capacityIndex.mayFit(demand);
+        }
+        return !isEmpty();
+    }
+
+    /**
+     * Start a batch of placements
+     * <p>
+     *     Until {@link #endBatch()}, the changes of order of {@link #sortByWeight(boolean)} are kept
+     *     in the index and written into the list once at the end, so the list must not be modified
+     *     nor read by position during the batch (the lookups by ID are not affected).
+     * </p>
+     */
+    public void beginBatch() {
+        capacityIndex.beginBatch();
+    }
+
+    /**
+     * End a batch of placements, the list gets the order of the index
+     */
+    public void endBatch() {
+        capacityIndex.endBatch();
+    }
+
+    /**
+     * The list is replaced by another list of the same PMs: its indexes stop following the writes
+     * into the state of the PMs, and are rebuilt if the list is used again
+     */
+    public void release() {
+
+        capacityIndex.release();
+        objectives.release();
+    }
+
+    @Override
+    protected void added(PhysicalMachine pm, boolean last) {
+
+        super.added(pm, last);
+        capacityIndex.invalidate();
+        objectives.invalidate();
+    }
+
+    @Override
+    protected void removed(PhysicalMachine pm) {
+
+        super.removed(pm);
+        capacityIndex.invalidate();
+        objectives.invalidate();
+    }
+
+    @Override
+    protected void reordered() {
+
+        super.reordered();
+        capacityIndex.invalidate();
+    }
+
+    @Override
+    protected void cleared() {
+
+        super.cleared();
+        capacityIndex.invalidate();
+        objectives.invalidate();
+    }
+}
@@ -14,6 +14,11 @@ import java.util.List;
  *     the total memory migrated,
  *     and his score
  * </p>
+ * <p>
+ *     A placement created by {@link #snapshot(List, List, List, Float)} shares the datacenter state
+ *     and the VM table of the current placement (copy-on-write), its lists are built the first time
+ *     they are read.
+ * </p>
  * @author Leonardo Benitez.
  */
 public class Placement  {
@@ -24,6 +29,11 @@ public class Placement  {
     private List<VirtualMachine> derivedVMs;
     private Float placementScore;
 
+    // Snapshot of the datacenter state and the VM tables, the lists are built on first read
+    private DatacenterState stateSnapshot;
+    private VmTable vmSnapshot;
+    private VmTable derivedSnapshot;
+
     /**
      * Constructor
      * @param physicalMachines   List of Physical Machine
@@ -59,29 +69,50 @@ public class Placement  {
     /* Getters and Setters */
 
     public List<VirtualMachine> getVirtualMachineList() {
+
+        if (vmSnapshot != null) {
+            virtualMachineList = bindVMs(virtualMachineList, vmSnapshot);
+            vmSnapshot = null;
+        }
         return virtualMachineList;
     }
 
     public void setVirtualMachineList(List<VirtualMachine> virtualMachineList) {
         this.virtualMachineList = virtualMachineList;
+        this.vmSnapshot = null;
     }
 
     public List<VirtualMachine> getDerivedVMs() {
+
+        if (derivedSnapshot != null) {
+            derivedVMs = bindVMs(derivedVMs, derivedSnapshot);
+            derivedSnapshot = null;
+        }
         return derivedVMs;
     }
 
     public void setDerivedVMs(List<VirtualMachine> derivedVMs) {
         this.derivedVMs = derivedVMs;
+        this.derivedSnapshot = null;
     }
 
     public List<PhysicalMachine> getPhysicalMachines() {
 
+        if (stateSnapshot != null) {
+            List<PhysicalMachine> boundPMs = new PhysicalMachineList();
+            for (PhysicalMachine pm : physicalMachines) {
+                boundPMs.add(new PhysicalMachine(stateSnapshot, pm.getSlot()));
+            }
+            physicalMachines = boundPMs;
+            stateSnapshot = null;
+        }
         return physicalMachines;
     }
 
     public void setPhysicalMachines(final List<PhysicalMachine> physicalMachines) {
 
         this.physicalMachines = physicalMachines;
+        this.stateSnapshot = null;
     }
 
     public Float getPlacementScore() {
@@ -104,6 +135,95 @@ public class Placement  {
 
     /* Methods */
 
+    /**
+     * Placement with the current state of the lists
+     * <p>
+     *     A {@link SharedArrayList} whose PMs (VMs) share one {@link DatacenterState}
+     *     ({@link VmTable}) is taken without copying the machines. Any other list is cloned. Later
+     *     changes of the lists, the PMs or the VMs are not seen by the placement.
+     * </p>
+     * @param physicalMachines   List of Physical Machine
+     * @param virtualMachineList List of allocated Virtual Machine
+     * @param derivedVMs         List of derived Virtual Machine
+     * @param placementScore     Placement Score
+     * @return Placement
+     */
+    public static Placement snapshot(final List<PhysicalMachine> physicalMachines,
+            final List<VirtualMachine> virtualMachineList, final List<VirtualMachine> derivedVMs,
+            Float placementScore) {
+
+        Placement placement = new Placement(null, null, null, placementScore);
+
+        if (physicalMachines instanceof SharedArrayList && sharesState(physicalMachines)) {
+            placement.physicalMachines = ((SharedArrayList<PhysicalMachine>) physicalMachines).snapshot();
+            placement.stateSnapshot = physicalMachines.get(0).getState().snapshot();
+        } else {
+            placement.physicalMachines = PhysicalMachine.clonePMsList(physicalMachines);
+        }
+        if (virtualMachineList instanceof SharedArrayList && sharesHome(virtualMachineList)) {
+            placement.virtualMachineList = ((SharedArrayList<VirtualMachine>) virtualMachineList).snapshot();
+            placement.vmSnapshot = virtualMachineList.get(0).getHome().snapshot();
+        } else {
+            placement.virtualMachineList = VirtualMachine.cloneVMsList(virtualMachineList);
+        }
+        if (derivedVMs instanceof SharedArrayList && sharesHome(derivedVMs)) {
+            placement.derivedVMs = ((SharedArrayList<VirtualMachine>) derivedVMs).snapshot();
+            placement.derivedSnapshot = derivedVMs.get(0).getHome().snapshot();
+        } else {
+            placement.derivedVMs = VirtualMachine.cloneVMsList(derivedVMs);
+        }
+        return placement;
+    }
+
+    /**
+     * Placement with the current state of the lists, see {@link #snapshot(List, List, List, Float)}
+     * @param physicalMachines   List of Physical Machine
+     * @param virtualMachineList List of allocated Virtual Machine
+     * @param derivedVMs         List of derived Virtual Machine
+     * @return Placement
+     */
+    public static Placement snapshot(final List<PhysicalMachine> physicalMachines,
+            final List<VirtualMachine> virtualMachineList, final List<VirtualMachine> derivedVMs) {
+
+        return snapshot(physicalMachines, virtualMachineList, derivedVMs, null);
+    }
+
+    /**
+     * @param physicalMachines List of Physical Machine
+     * @return <b>True</b>, if the list is not empty and its PMs share the state of the first PM
+     */
+    private static boolean sharesState(final List<PhysicalMachine> physicalMachines) {
+
+        if (physicalMachines.isEmpty()) {
+            return false;
+        }
+        DatacenterState state = physicalMachines.get(0).getState();
+        for (PhysicalMachine pm : physicalMachines) {
+            if (pm.getState() != state) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param virtualMachines List of Virtual Machine
+     * @return <b>True</b>, if the list is not empty and its VMs share the table of the first VM
+     */
+    private static boolean sharesHome(final List<VirtualMachine> virtualMachines) {
+
+        if (virtualMachines.isEmpty()) {
+            return false;
+        }
+        VmTable home = virtualMachines.get(0).getHome();
+        for (VirtualMachine vm : virtualMachines) {
+            if (vm.getHome() != home) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Update the Placement Score
      * @param aPrioriValueList List of AprioriValues
@@ -117,4 +237,19 @@ public class Placement  {
         this.setPlacementScore(score);
     }
 
+    /**
+     * Views over the snapshot of the VMs of a list
+     * @param virtualMachines List of Virtual Machines
+     * @param snapshot        Snapshot of the VM Table of the list
+     * @return List of Virtual Machines
+     */
+    private static List<VirtualMachine> bindVMs(List<VirtualMachine> virtualMachines, VmTable snapshot) {
+
+        List<VirtualMachine> boundVMs = new VirtualMachineList();
+        for (VirtualMachine vm : virtualMachines) {
+            boundVMs.add(new VirtualMachine(snapshot, vm.getHandle()));
+        }
+        return boundVMs;
+    }
+
 }
@@ -0,0 +1,173 @@
+package org.domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Placements of a scenario by time unit
+ * <p>
+ *     The score of every time unit is kept in a dense series. The full placement is only kept for
+ *     the last <b>retention</b> time units and for the pinned ones (e.g. the baseline of a
+ *     reconfiguration), so the memory used does not grow with the length of the scenario. The
+ *     time units are added in increasing order.
+ * </p>
+ * @since 10/18/26.
+ */
+public class PlacementHistory {
+
+    /**
+     * Retention that keeps the placement of every time unit
+     */
+    public static final int RETAIN_ALL = Integer.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int retention;
+
+    // Scores by time unit, from firstTimeUnit
+    private int firstTimeUnit;
+
+    private float[] scores = new float[INITIAL_CAPACITY];
+
+    private final BitSet recorded = new BitSet();
+
+    private int size;
+
+    private final Map<Integer, Placement> retained = new HashMap<>();
+
+    // Retained time units that are not pinned, oldest first
+    private final NavigableSet<Integer> recent = new TreeSet<>();
+
+    private final Set<Integer> pinned = new HashSet<>();
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param retention Number of last placements kept (at least 1), {@link #RETAIN_ALL} to keep
+     *                  every placement
+     */
+    public PlacementHistory(int retention) {
+        this.retention = Math.max(retention, 1);
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @return Number of time units with a placement
+     */
+    public int size() {
+        return size;
+    }
+
+    /* Methods */
+
+    /**
+     * Add the placement of a time unit
+     * @param timeUnit  Time unit
+     * @param placement Placement
+     */
+    public void put(Integer timeUnit, Placement placement) {
+
+        if (size == 0) {
+            firstTimeUnit = timeUnit;
+        }
+        int index = timeUnit - firstTimeUnit;
+        if (index < 0) {
+            throw new IllegalArgumentException("Time unit " + timeUnit + " is before the first time unit "
+                    + firstTimeUnit);
+        }
+        if (index >= scores.length) {
+            scores = Arrays.copyOf(scores, Math.max(index + 1, scores.length * 2));
+        }
+        if (!recorded.get(index)) {
+            recorded.set(index);
+            size++;
+        }
+        scores[index] = placement.getPlacementScore();
+
+        retained.put(timeUnit, placement);
+        if (!pinned.contains(timeUnit)) {
+            recent.add(timeUnit);
+            evict();
+        }
+    }
+
+    /**
+     * @param timeUnit Time unit
+     * @return Placement of the time unit, <b>null</b> if it is not retained
+     */
+    public Placement get(Integer timeUnit) {
+        return retained.get(timeUnit);
+    }
+
+    /**
+     * @param timeUnit Time unit
+     * @return <b>True</b>, if the time unit has a score
+     */
+    public boolean containsScore(int timeUnit) {
+
+        int index = timeUnit - firstTimeUnit;
+        return size > 0 && index >= 0 && recorded.get(index);
+    }
+
+    /**
+     * @param timeUnit Time unit
+     * @return Placement score of the time unit
+     */
+    public Float getPlacementScore(int timeUnit) {
+        return containsScore(timeUnit) ? scores[timeUnit - firstTimeUnit] : null;
+    }
+
+    /**
+     * Sum of the placement scores, by time unit
+     * @return Total score
+     */
+    public Float getTotalScore() {
+
+        Float totalScore = 0F;
+        for (int index = recorded.nextSetBit(0); index >= 0; index = recorded.nextSetBit(index + 1)) {
+            totalScore += scores[index];
+        }
+        return totalScore;
+    }
+
+    /**
+     * Keep the placement of a time unit until it is unpinned
+     * @param timeUnit Time unit, if it has no placement yet it is kept when it is added
+     */
+    public void pin(Integer timeUnit) {
+
+        if (pinned.add(timeUnit)) {
+            recent.remove(timeUnit);
+        }
+    }
+
+    /**
+     * Release the placement of a pinned time unit
+     * @param timeUnit Time unit
+     */
+    public void unpin(Integer timeUnit) {
+
+        if (pinned.remove(timeUnit) && retained.containsKey(timeUnit)) {
+            recent.add(timeUnit);
+            evict();
+        }
+    }
+
+    /**
+     * Drop the oldest placements that are not pinned beyond the retention
+     */
+    private void evict() {
+
+        while (recent.size() > retention) {
+            retained.remove(recent.pollFirst());
+        }
+    }
+}
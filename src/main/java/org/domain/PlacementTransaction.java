@@ -0,0 +1,220 @@
+package org.domain;
+
+import java.util.Arrays;
+
+/**
+ * Transaction over a placement, backed by an undo log
+ * <p>
+ *     The moves are applied in place to the {@link DatacenterState} of the PMs and to the
+ *     {@link VmTable} of the VMs. While the transaction is active, the values of each PM slot
+ *     (requested resources and utilization) and of each VM (its PM) are saved in the log before
+ *     they are written, so a what-if evaluation costs O(changes) instead of a copy of the PMs
+ *     and VMs:
+ * </p>
+ * <ul>
+ *     <li>{@link #rollback()} writes the saved values back, in reverse order, so the placement
+ *     is the same as before {@link #begin()}.</li>
+ *     <li>{@link #rollback(int)} undoes the changes made after a {@link #savepoint()}.</li>
+ *     <li>{@link #commit()} keeps the changes and drops the log.</li>
+ * </ul>
+ * <p>
+ *     Outside a transaction the moves are applied without the log.
+ * </p>
+ * @since 10/18/26.
+ */
+public class PlacementTransaction {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Requested resources and utilization of a slot
+    private static final int VALUES = 2 * VmTable.NUMBER_OF_RESOURCES;
+
+    private boolean active;
+
+    private int size;
+
+    // DatacenterState of a slot or VmTable of a VM, by entry
+    private Object[] owners = new Object[INITIAL_CAPACITY];
+
+    // Slot or handle, by entry
+    private int[] keys = new int[INITIAL_CAPACITY];
+
+    // PM of a VM, by entry
+    private int[] physicalMachines = new int[INITIAL_CAPACITY];
+
+    // [entry * VALUES + resource] requested, [entry * VALUES + NUMBER_OF_RESOURCES + resource] utilization
+    private float[] values = new float[INITIAL_CAPACITY * VALUES];
+
+    /* Getters and Setters */
+
+    /**
+     * @return <b>True</b>, between {@link #begin()} and {@link #commit()} or {@link #rollback()}
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return Number of entries of the undo log
+     */
+    public int size() {
+        return size;
+    }
+
+    /* Methods */
+
+    /**
+     * Start the transaction, with an empty log
+     */
+    public void begin() {
+
+        if (active) {
+            throw new IllegalStateException("The transaction is already active");
+        }
+        active = true;
+        size = 0;
+    }
+
+    /**
+     * @return Position of the log, for {@link #rollback(int)}
+     */
+    public int savepoint() {
+        return size;
+    }
+
+    /**
+     * Keep the changes and end the transaction
+     */
+    public void commit() {
+
+        Arrays.fill(owners, 0, size, null);
+        size = 0;
+        active = false;
+    }
+
+    /**
+     * Undo every change and end the transaction
+     */
+    public void rollback() {
+
+        rollback(0);
+        active = false;
+    }
+
+    /**
+     * Undo the changes made after a savepoint, the transaction stays active
+     * @param savepoint Position of the log (see {@link #savepoint()})
+     */
+    public void rollback(int savepoint) {
+
+        while (size > savepoint) {
+            size--;
+            if (owners[size] instanceof DatacenterState) {
+                DatacenterState state = (DatacenterState) owners[size];
+                int slot = keys[size];
+                for (int k = 0; k < state.getNumberOfResources(); k++) {
+                    state.setRequested(k, slot, values[size * VALUES + k]);
+                    state.setUtilization(k, slot, values[size * VALUES + VmTable.NUMBER_OF_RESOURCES + k]);
+                }
+            } else {
+                ((VmTable) owners[size]).setPhysicalMachine(keys[size], physicalMachines[size]);
+            }
+            owners[size] = null;
+        }
+    }
+
+    /**
+     * Save the requested resources and utilization of a PM, before a write outside the moves of
+     * the transaction
+     * @param pm Physical Machine
+     */
+    public void save(PhysicalMachine pm) {
+
+        if (!active) {
+            return;
+        }
+        DatacenterState state = pm.getState();
+        int slot = pm.getSlot();
+        int entry = add(state, slot);
+        for (int k = 0; k < state.getNumberOfResources(); k++) {
+            values[entry * VALUES + k] = state.getRequested(k, slot);
+            values[entry * VALUES + VmTable.NUMBER_OF_RESOURCES + k] = state.getUtilization(k, slot);
+        }
+    }
+
+    /**
+     * Save the PM of a VM, before a write outside the moves of the transaction
+     * @param vm Virtual Machine
+     */
+    public void save(VirtualMachine vm) {
+
+        if (!active) {
+            return;
+        }
+        int entry = add(vm.getTable(), vm.getHandle());
+        physicalMachines[entry] = vm.getTable().getPhysicalMachine(vm.getHandle());
+    }
+
+    /**
+     * Move a VM between PMs: the used resources of the VM go from the PM of origin to the PM of
+     * destination and the VM is set to the PM of destination
+     * @param vm     Virtual Machine
+     * @param source Physical Machine of origin
+     * @param target Physical Machine of destination
+     */
+    public void moveVM(VirtualMachine vm, PhysicalMachine source, PhysicalMachine target) {
+
+        releaseVM(vm, source);
+        save(target);
+        save(vm);
+
+        DatacenterState state = target.getState();
+        int slot = target.getSlot();
+        VmTable table = vm.getTable();
+        int handle = vm.getHandle();
+        for (int k = 0; k < state.getNumberOfResources(); k++) {
+            state.addRequested(k, slot, table.getUsedResource(handle, k));
+        }
+        state.updateUtilization(slot);
+        vm.setPhysicalMachine(target.getId());
+    }
+
+    /**
+     * Subtract the used resources of a VM from a PM, the VM keeps its PM
+     * @param vm Virtual Machine
+     * @param pm Physical Machine
+     */
+    public void releaseVM(VirtualMachine vm, PhysicalMachine pm) {
+
+        save(pm);
+
+        DatacenterState state = pm.getState();
+        int slot = pm.getSlot();
+        VmTable table = vm.getTable();
+        int handle = vm.getHandle();
+        for (int k = 0; k < state.getNumberOfResources(); k++) {
+            state.subRequested(k, slot, table.getUsedResource(handle, k));
+        }
+        state.updateUtilization(slot);
+    }
+
+    /**
+     * Add an entry to the log
+     * @param owner DatacenterState or VmTable
+     * @param key   Slot or handle
+     * @return Entry
+     */
+    private int add(Object owner, int key) {
+
+        if (size == owners.length) {
+            int capacity = size * 2;
+            owners = Arrays.copyOf(owners, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            physicalMachines = Arrays.copyOf(physicalMachines, capacity);
+            values = Arrays.copyOf(values, capacity * VALUES);
+        }
+        owners[size] = owner;
+        keys[size] = key;
+        return size++;
+    }
+}
@@ -0,0 +1,368 @@
+package org.domain;
+
+import org.framework.Parameter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the VMs of a {@link VirtualMachineList} by physical machine
+ * <p>
+ *     Keeps the VMs of the list hosted by each PM, in the order of the list, and the protected load
+ *     of each PM: the sum of the resources of its VMs with the protection factor, the same sums that
+ *     {@link org.framework.Constraints#checkPMOverloaded(PhysicalMachine, List, List)} computes over
+ *     the VMs of a PM.
+ * </p>
+ * <p>
+ *     The index follows the VMs added to and removed from the list, and the writes into the
+ *     {@link VmTable} of the VMs (see {@link VmTable#pollChanges(Object)}): an allocation, a
+ *     migration or an update of a VM only moves that VM and marks its PMs. The load of a marked PM
+ *     is added up again on the next read, in the order of the list, so it is the same as a new
+ *     filter of the VMs. It is rebuilt after a VM is inserted before the end of the list or the list
+ *     is sorted, and it is not used when the VMs of the list are not in the same table or a VM is
+ *     more than once in the list.
+ * </p>
+ * @since 10/18/26.
+ */
+class ProtectedLoadIndex {
+
+    private static final int NUMBER_OF_RESOURCES = VmTable.NUMBER_OF_RESOURCES;
+
+    private final VirtualMachineList list;
+
+    private boolean built;
+
+    // The VMs of the list share one table and are in the list once
+    private boolean usable;
+
+    private VmTable table;
+
+    private final Map<VirtualMachine, Entry> entries = new IdentityHashMap<>();
+
+    // Sequence of the next VM appended, the sequences follow the order of the list
+    private long nextSequence;
+
+    // VMs of each PM (by PM ID), in order of sequence
+    private List<Entry>[] members = newMembers(0);
+
+    // [pm id * NUMBER_OF_RESOURCES + resource]
+    private float[] loads = new float[0];
+
+    // The load of the PM is added up again on the next read
+    private boolean[] stale = new boolean[0];
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param list List of Virtual Machines
+     */
+    ProtectedLoadIndex(VirtualMachineList list) {
+        this.list = list;
+    }
+
+    /* Methods */
+
+    /**
+     * @return <b>True</b>, if the VMs of the list can be indexed
+     */
+    boolean isUsable() {
+
+        sync();
+        return usable;
+    }
+
+    /**
+     * @param physicalMachine Physical Machine ID
+     * @return VMs of the list in the PM, in the order of the list
+     */
+    List<VirtualMachine> get(int physicalMachine) {
+
+        List<Entry> pmEntries = physicalMachine >= 0 && physicalMachine < members.length
+                ? members[physicalMachine] : null;
+        if (pmEntries == null) {
+            return new ArrayList<>();
+        }
+        List<VirtualMachine> vms = new ArrayList<>(pmEntries.size());
+        for (Entry entry : pmEntries) {
+            vms.add(entry.vm);
+        }
+        return vms;
+    }
+
+    /**
+     * @param physicalMachine Physical Machine ID
+     * @param resource        Resource index
+     * @return Protected load of the resource of the PM
+     */
+    float getLoad(int physicalMachine, int resource) {
+
+        if (physicalMachine < 0 || physicalMachine >= members.length) {
+            return 0F;
+        }
+        if (stale[physicalMachine]) {
+            sum(physicalMachine);
+        }
+        return loads[physicalMachine * NUMBER_OF_RESOURCES + resource];
+    }
+
+    /**
+     * A VM was added to the list
+     * @param vm   Virtual Machine
+     * @param last <b>True</b>, if the VM is the last one of the list
+     */
+    void added(VirtualMachine vm, boolean last) {
+
+        if (!built) {
+            return;
+        }
+        if (!usable || !last || vm.getTable() != table || entries.containsKey(vm)) {
+            built = false;
+            return;
+        }
+        Entry entry = new Entry(vm, nextSequence++);
+        entries.put(vm, entry);
+        insert(entry);
+    }
+
+    /**
+     * A VM was removed from the list
+     * @param vm Virtual Machine
+     */
+    void removed(VirtualMachine vm) {
+
+        if (!built) {
+            return;
+        }
+        Entry entry = usable ? entries.remove(vm) : null;
+        if (entry == null) {
+            built = false;
+            return;
+        }
+        remove(entry);
+    }
+
+    /**
+     * The list was modified, the index is rebuilt on the next call
+     */
+    void invalidate() {
+        built = false;
+    }
+
+    /**
+     * The list is no longer used, the table stops recording the changes for the index. The index
+     * is rebuilt on the next call
+     */
+    void release() {
+
+        invalidate();
+        untrack();
+    }
+
+    /**
+     * Bring the index up to date with the list and the table
+     */
+    private void sync() {
+
+        if (!built) {
+            build();
+            return;
+        }
+        if (!usable || table == null) {
+            return;
+        }
+        int[] handles = table.pollChanges(this);
+        if (handles == null) {
+            build();
+            return;
+        }
+        for (int handle : handles) {
+            VirtualMachine vm = table.getVirtualMachine(handle);
+            Entry entry = vm == null ? null : entries.get(vm);
+            if (entry != null) {
+                int physicalMachine = table.getPhysicalMachine(handle);
+                if (physicalMachine != entry.physicalMachine) {
+                    remove(entry);
+                    entry.physicalMachine = physicalMachine;
+                    entry.read();
+                    insert(entry);
+                } else if (entry.read()) {
+                    markStale(physicalMachine);
+                }
+            }
+        }
+    }
+
+    private void untrack() {
+
+        if (table != null) {
+            table.untrackChanges(this);
+            table = null;
+        }
+    }
+
+    private void build() {
+
+        untrack();
+        entries.clear();
+        members = newMembers(0);
+        loads = new float[0];
+        stale = new boolean[0];
+        nextSequence = 0;
+        built = true;
+        table = list.isEmpty() ? null : list.get(0).getTable();
+        usable = true;
+        for (VirtualMachine vm : list) {
+            if (vm.getTable() != table || entries.containsKey(vm)) {
+                usable = false;
+                break;
+            }
+            Entry entry = new Entry(vm, nextSequence++);
+            entries.put(vm, entry);
+            insert(entry);
+        }
+        if (!usable) {
+            entries.clear();
+            members = newMembers(0);
+            table = null;
+        } else if (table != null) {
+            table.trackChanges(this);
+        }
+    }
+
+    /**
+     * Add a VM to the VMs of its PM, in order of sequence
+     * @param entry VM
+     */
+    private void insert(Entry entry) {
+
+        int physicalMachine = entry.physicalMachine;
+        if (physicalMachine < 0) {
+            return;
+        }
+        if (physicalMachine >= members.length) {
+            int capacity = Math.max(physicalMachine + 1, members.length * 2);
+            members = Arrays.copyOf(members, capacity);
+            loads = Arrays.copyOf(loads, capacity * NUMBER_OF_RESOURCES);
+            stale = Arrays.copyOf(stale, capacity);
+        }
+        List<Entry> pmEntries = members[physicalMachine];
+        if (pmEntries == null) {
+            pmEntries = members[physicalMachine] = new ArrayList<>();
+        }
+        int position = pmEntries.size();
+        while (position > 0 && pmEntries.get(position - 1).sequence > entry.sequence) {
+            position--;
+        }
+        pmEntries.add(position, entry);
+        stale[physicalMachine] = true;
+    }
+
+    /**
+     * Remove a VM from the VMs of its PM
+     * @param entry VM
+     */
+    private void remove(Entry entry) {
+
+        int physicalMachine = entry.physicalMachine;
+        if (physicalMachine < 0 || physicalMachine >= members.length || members[physicalMachine] == null) {
+            return;
+        }
+        List<Entry> pmEntries = members[physicalMachine];
+        for (int i = pmEntries.size() - 1; i >= 0; i--) {
+            if (pmEntries.get(i) == entry) {
+                pmEntries.remove(i);
+                break;
+            }
+        }
+        stale[physicalMachine] = true;
+    }
+
+    private void markStale(int physicalMachine) {
+
+        if (physicalMachine >= 0 && physicalMachine < stale.length) {
+            stale[physicalMachine] = true;
+        }
+    }
+
+    /**
+     * Add up the protected load of a PM, in the order of the list
+     * @param physicalMachine Physical Machine ID
+     */
+    private void sum(int physicalMachine) {
+
+        List<Entry> pmEntries = members[physicalMachine];
+        for (int k = 0; k < NUMBER_OF_RESOURCES; k++) {
+            float load = 0;
+            if (pmEntries != null) {
+                for (Entry entry : pmEntries) {
+                    load += entry.loads[k];
+                }
+            }
+            loads[physicalMachine * NUMBER_OF_RESOURCES + k] = load;
+        }
+        stale[physicalMachine] = false;
+    }
+
+    private static List<Entry>[] newMembers(int capacity) {
+
+        @SuppressWarnings("unchecked")
+        List<Entry>[] members = (List<Entry>[]) new List<?>[capacity];
+        return members;
+    }
+
+    /**
+     * @param vmTable Table of the VM
+     * @param handle  VM handle
+     * @param resource Resource index
+     * @return Resource of the VM with the protection factor, as in
+     * {@link org.framework.Constraints#getProtectedDemand(VirtualMachine)}
+     */
+    static float protectedLoad(VmTable vmTable, int handle, int resource) {
+
+        float vmResource = vmTable.getResource(handle, resource);
+        float vmUtilization = vmTable.getUtilization(handle, resource);
+        return (vmResource * vmUtilization/100)
+                + (vmResource * (1- vmUtilization/100)*Parameter.PROTECTION_FACTOR.get(resource));
+    }
+
+    /**
+     * A VM of the list, with its PM and protected load as indexed
+     */
+    private static final class Entry {
+
+        private final VirtualMachine vm;
+
+        private final long sequence;
+
+        private int physicalMachine;
+
+        private final float[] loads = new float[NUMBER_OF_RESOURCES];
+
+        private Entry(VirtualMachine vm, long sequence) {
+
+            this.vm = vm;
+            this.sequence = sequence;
+            this.physicalMachine = vm.getTable().getPhysicalMachine(vm.getHandle());
+            read();
+        }
+
+        /**
+         * Read the protected load of the VM
+         * @return <b>True</b>, if the load changed
+         */
+        private boolean read() {
+
+            boolean changed = false;
+            for (int k = 0; k < NUMBER_OF_RESOURCES; k++) {
+                float load = protectedLoad(vm.getTable(), vm.getHandle(), k);
+                changed |= Float.compare(load, loads[k]) != 0;
+                loads[k] = load;
+            }
+            return changed;
+        }
+    }
+}
@@ -81,6 +81,24 @@ public class Resources {
         this.net = net;
     }
 
+    /**
+     * @param resource Resource index (0 CPU, 1 RAM, 2 NET)
+     * @return Value of the resource
+     */
+    public float get(int resource) {
+
+        switch (resource) {
+            case 0:
+                return cpu;
+            case 1:
+                return ram;
+            case 2:
+                return net;
+            default:
+                throw new IndexOutOfBoundsException("Resource: " + resource);
+        }
+    }
+
     /**
      * To String
      * @return String
@@ -67,6 +67,24 @@ public class Revenue {
 
     /* Methods */
 
+    /**
+     * @param resource Resource index (0 CPU, 1 RAM, 2 NET)
+     * @return Revenue of the resource
+     */
+    public float get(int resource) {
+
+        switch (resource) {
+            case 0:
+                return cpu;
+            case 1:
+                return ram;
+            case 2:
+                return net;
+            default:
+                throw new IndexOutOfBoundsException("Resource: " + resource);
+        }
+    }
+
     /**
      * Get the sum of the revenue per each resource
      * @return Total Revenue
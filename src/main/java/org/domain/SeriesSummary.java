@@ -0,0 +1,93 @@
+package org.domain;
+
+/**
+ * Streaming summary of a series of values
+ * <p>
+ *     Keeps the number of values, their sum, the min and the max as the values are added, so the
+ *     average of a series is read in O(1) without a second pass or a list of the values. The sum
+ *     is kept in float, in the order of the calls to {@link #add(float)}, as in
+ *     {@link org.framework.Utils#average(java.util.List)}.
+ * </p>
+ * @since 10/18/26.
+ */
+public class SeriesSummary {
+
+    private int count;
+
+    private float sum;
+
+    private float min;
+
+    private float max;
+
+    /* Getters and Setters */
+
+    /**
+     * @return Number of values
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Sum of the values
+     */
+    public float getSum() {
+        return sum;
+    }
+
+    /**
+     * @return Min value, zero if there are no values
+     */
+    public float getMin() {
+        return min;
+    }
+
+    /**
+     * @return Max value, zero if there are no values
+     */
+    public float getMax() {
+        return max;
+    }
+
+    /**
+     * @return Average of the values, zero if there are no values
+     */
+    public float getAverage() {
+        return count == 0 ? 0F : sum / count;
+    }
+
+    /* Methods */
+
+    /**
+     * Add a value to the summary
+     * @param value Value
+     */
+    public void add(float value) {
+
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            if (value > max) {
+                max = value;
+            }
+            if (value < min) {
+                min = value;
+            }
+        }
+        sum += value;
+        count++;
+    }
+
+    /**
+     * Remove every value
+     */
+    public void clear() {
+
+        count = 0;
+        sum = 0F;
+        min = 0F;
+        max = 0F;
+    }
+}
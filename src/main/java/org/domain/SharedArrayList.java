@@ -0,0 +1,375 @@
+package org.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Array list whose snapshots share the element array
+ * <p>
+ *     {@link #snapshot()} returns, in O(1), a list with the current elements. The array is shared
+ *     until one of the lists is modified, the first modification copies it (copy-on-write). Used
+ *     for the lists of the current placement, so the placement of each time unit is kept without
+ *     cloning it.
+ * </p>
+ * <p>
+ *     A list created with an ID function keeps an index from ID to element, so
+ *     {@link #getById(int)} returns in O(1) the first element with an ID. The index is built on the
+ *     first lookup and kept up to date by every modification, the ID of an element must not change
+ *     while it is in the list.
+ * </p>
+ * @param <E> Type of the elements
+ * @since 10/18/26.
+ */
+public class SharedArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 10;
+
+    private Object[] elements;
+
+    private int size;
+
+    // The element array is shared with a snapshot
+    private boolean shared;
+
+    private final ToIntFunction<? super E> idFunction;
+
+    // Index by ID, null until the next lookup
+    private IdIndex<E> index;
+
+    // Some ID has more than one element
+    private boolean duplicates;
+
+    /* Constructors */
+
+    /**
+     * Default Constructor
+     */
+    public SharedArrayList() {
+        this((ToIntFunction<? super E>) null);
+    }
+
+    /**
+     * Constructor
+     * @param idFunction ID of an element
+     */
+    public SharedArrayList(ToIntFunction<? super E> idFunction) {
+
+        this.elements = new Object[INITIAL_CAPACITY];
+        this.idFunction = idFunction;
+    }
+
+    /**
+     * Constructor
+     * @param collection Initial elements
+     */
+    public SharedArrayList(Collection<? extends E> collection) {
+        this(collection, null);
+    }
+
+    /**
+     * Constructor
+     * @param collection Initial elements
+     * @param idFunction ID of an element
+     */
+    public SharedArrayList(Collection<? extends E> collection, ToIntFunction<? super E> idFunction) {
+
+        this.elements = Arrays.copyOf(collection.toArray(), Math.max(collection.size(), INITIAL_CAPACITY),
+                Object[].class);
+        this.size = collection.size();
+        this.idFunction = idFunction;
+    }
+
+    private SharedArrayList(Object[] elements, int size, ToIntFunction<? super E> idFunction) {
+
+        this.elements = elements;
+        this.size = size;
+        this.shared = true;
+        this.idFunction = idFunction;
+    }
+
+    /* Methods */
+
+    /**
+     * @return List with the current elements, later modifications of either list are not seen by
+     * the other one
+     */
+    public SharedArrayList<E> snapshot() {
+
+        shared = true;
+        return new SharedArrayList<>(elements, size, idFunction);
+    }
+
+    /**
+     * @param id ID
+     * @return First element with the ID, <b>null</b> if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public E getById(int id) {
+
+        if (idFunction == null) {
+            throw new UnsupportedOperationException("The list has no ID function");
+        }
+        if (index == null) {
+            index = new IdIndex<>(size);
+            duplicates = false;
+            for (int i = 0; i < size; i++) {
+                E element = (E) elements[i];
+                if (!index.putIfAbsent(idFunction.applyAsInt(element), element)) {
+                    duplicates = true;
+                }
+            }
+        }
+        return index.get(id);
+    }
+
+    /**
+     * @return <b>True</b>, if some ID may have more than one element (always for a list without an
+     * ID function)
+     */
+    public boolean hasDuplicateIds() {
+
+        if (idFunction == null) {
+            return true;
+        }
+        if (index == null) {
+            // Build the index
+            getById(0);
+        }
+        return duplicates;
+    }
+
+    /**
+     * @return <b>True</b>, if the list has an ID function
+     */
+    public boolean isIndexed() {
+        return idFunction != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+
+        checkIndex(index);
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public E set(int index, E element) {
+
+        checkIndex(index);
+        own();
+        E previous = get(index);
+        elements[index] = element;
+        removed(previous);
+        added(element, index == size - 1);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size + (size >> 1) + 1);
+            shared = false;
+        } else {
+            own();
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = element;
+        size++;
+        modCount++;
+        added(element, index == size - 1);
+    }
+
+    @Override
+    public E remove(int index) {
+
+        E previous = get(index);
+        own();
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        removed(previous);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+
+        if (shared) {
+            elements = new Object[INITIAL_CAPACITY];
+            shared = false;
+        } else {
+            Arrays.fill(elements, 0, size, null);
+        }
+        size = 0;
+        modCount++;
+        cleared();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+
+        Objects.requireNonNull(filter);
+        int kept = 0;
+        while (kept < size && !filter.test((E) elements[kept])) {
+            kept++;
+        }
+        if (kept == size) {
+            return false;
+        }
+        own();
+        removed((E) elements[kept]);
+        for (int i = kept + 1; i < size; i++) {
+            E element = (E) elements[i];
+            if (!filter.test(element)) {
+                elements[kept++] = element;
+            } else {
+                removed(element);
+            }
+        }
+        Arrays.fill(elements, kept, size, null);
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> collection) {
+
+        Objects.requireNonNull(collection);
+        return removeIf(collection::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+
+        Objects.requireNonNull(collection);
+        return removeIf(element -> !collection.contains(element));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> comparator) {
+
+        own();
+        Arrays.sort((E[]) elements, 0, size, comparator);
+        modCount++;
+        reordered();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void removeRange(int fromIndex, int toIndex) {
+
+        own();
+        for (int i = fromIndex; i < toIndex; i++) {
+            removed((E) elements[i]);
+        }
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        Arrays.fill(elements, size - (toIndex - fromIndex), size, null);
+        size -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    /**
+     * Overwrite a range of the list with a permutation of its elements, without calling
+     * {@link #added(Object, boolean)} and {@link #removed(Object)}
+     * @param order     Elements of the list in the new order, only the range is read
+     * @param fromIndex First index of the range
+     * @param toIndex   Last index (exclusive) of the range
+     */
+    protected void permute(Object[] order, int fromIndex, int toIndex) {
+
+        own();
+        System.arraycopy(order, fromIndex, elements, fromIndex, toIndex - fromIndex);
+        modCount++;
+        if (duplicates) {
+            // The first element with the ID depends on the positions
+            index = null;
+        }
+    }
+
+    /**
+     * Called after an element is added
+     * @param element Element
+     * @param last    <b>True</b>, if the element is the last one of the list
+     */
+    protected void added(E element, boolean last) {
+
+        if (index != null && !index.putIfAbsent(idFunction.applyAsInt(element), element)) {
+            duplicates = true;
+            if (!last) {
+                // The first element with the ID depends on the positions
+                index = null;
+            }
+        }
+    }
+
+    /**
+     * Called after an element is removed
+     * @param element Element
+     */
+    protected void removed(E element) {
+
+        if (index != null) {
+            int id = idFunction.applyAsInt(element);
+            if (index.get(id) == element) {
+                index.remove(id);
+                if (duplicates) {
+                    index = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called after the elements are sorted
+     */
+    protected void reordered() {
+
+        if (duplicates) {
+            index = null;
+        }
+    }
+
+    /**
+     * Called after the list is cleared
+     */
+    protected void cleared() {
+        index = null;
+    }
+
+    /**
+     * Copy the element array if it is shared with a snapshot
+     */
+    private void own() {
+
+        if (shared) {
+            elements = Arrays.copyOf(elements, elements.length);
+            shared = false;
+        }
+    }
+
+    private void checkIndex(int index) {
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
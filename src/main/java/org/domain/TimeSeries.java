@@ -0,0 +1,171 @@
+package org.domain;
+
+import java.util.Arrays;
+
+/**
+ * Values of a metric by time unit
+ * <p>
+ *     Time units are dense integers from zero, so the values are kept in a growable float array
+ *     indexed by time unit, with a flag for the time units that have a value: a put or a get is
+ *     O(1) and without boxing. A time unit without a value reads as zero.
+ * </p>
+ * <p>
+ *     The series keeps a {@link SeriesSummary} of its values, normalized by an optional
+ *     {@link Normalizer}. Values are recorded in increasing order of time unit, so each new time
+ *     unit is added to the summary when it is put; if a time unit already put or before the last
+ *     one is written, the summary is computed again, in order of time unit, the next time it is
+ *     read.
+ * </p>
+ * @since 10/18/26.
+ */
+public class TimeSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Normalization of the values of the summary
+     */
+    public interface Normalizer {
+
+        /**
+         * @param timeUnit Time unit
+         * @param value    Value of the time unit
+         * @return Normalized value
+         */
+        float normalize(int timeUnit, float value);
+    }
+
+    private final Normalizer normalizer;
+
+    private float[] values = new float[INITIAL_CAPACITY];
+
+    private boolean[] present = new boolean[INITIAL_CAPACITY];
+
+    private int size;
+
+    private int lastTimeUnit = -1;
+
+    private final SeriesSummary summary = new SeriesSummary();
+
+    private boolean summaryStale;
+
+    /* Constructors */
+
+    /**
+     * Series whose summary is of the values as they are
+     */
+    public TimeSeries() {
+        this(null);
+    }
+
+    /**
+     * @param normalizer Normalization of the values of the summary
+     */
+    public TimeSeries(Normalizer normalizer) {
+        this.normalizer = normalizer;
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @param timeUnit Time unit
+     * @return Value of the time unit, zero if the time unit has no value
+     */
+    public float get(int timeUnit) {
+        return contains(timeUnit) ? values[timeUnit] : 0F;
+    }
+
+    /**
+     * @return Last time unit with a value, -1 if the series is empty
+     */
+    public int getLastTimeUnit() {
+        return lastTimeUnit;
+    }
+
+    /**
+     * @return Summary of the (normalized) values, in order of time unit
+     */
+    public SeriesSummary getSummary() {
+
+        if (summaryStale) {
+            summary.clear();
+            for (int timeUnit = 0; timeUnit <= lastTimeUnit; timeUnit++) {
+                if (present[timeUnit]) {
+                    summary.add(normalize(timeUnit, values[timeUnit]));
+                }
+            }
+            summaryStale = false;
+        }
+        return summary;
+    }
+
+    /* Methods */
+
+    /**
+     * @param timeUnit Time unit
+     * @return <b>True</b>, if the time unit has a value
+     */
+    public boolean contains(int timeUnit) {
+        return timeUnit >= 0 && timeUnit < present.length && present[timeUnit];
+    }
+
+    /**
+     * Set the value of a time unit
+     * @param timeUnit Time unit
+     * @param value    Value
+     */
+    public void put(int timeUnit, float value) {
+
+        if (timeUnit < 0) {
+            throw new IllegalArgumentException("Invalid time unit: " + timeUnit);
+        }
+        if (timeUnit >= values.length) {
+            int capacity = Math.max(timeUnit + 1, values.length * 2);
+            values = Arrays.copyOf(values, capacity);
+            present = Arrays.copyOf(present, capacity);
+        }
+        values[timeUnit] = value;
+        if (present[timeUnit] || timeUnit < lastTimeUnit) {
+            summaryStale = true;
+        } else if (!summaryStale) {
+            summary.add(normalize(timeUnit, value));
+        }
+        if (!present[timeUnit]) {
+            present[timeUnit] = true;
+            size++;
+        }
+        lastTimeUnit = Math.max(lastTimeUnit, timeUnit);
+    }
+
+    /**
+     * Add to the value of a time unit, a time unit without a value is set to the value
+     * @param timeUnit Time unit
+     * @param value    Value to add
+     */
+    public void add(int timeUnit, float value) {
+        put(timeUnit, contains(timeUnit) ? values[timeUnit] + value : value);
+    }
+
+    /**
+     * @return Number of time units with a value
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every value
+     */
+    public void clear() {
+
+        Arrays.fill(present, false);
+        size = 0;
+        lastTimeUnit = -1;
+        summary.clear();
+        summaryStale = false;
+    }
+
+    private float normalize(int timeUnit, float value) {
+        return normalizer == null ? value : normalizer.normalize(timeUnit, value);
+    }
+}
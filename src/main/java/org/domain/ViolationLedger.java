@@ -0,0 +1,199 @@
+package org.domain;
+
+import java.util.Arrays;
+
+/**
+ * Ledger of the SLA violations of the VMs
+ * <p>
+ *     Keeps the last violation of each VM, keyed by the packed (cloud service, VM ID), in
+ *     primitive arrays: time unit and violated resources. The number of the last violations of
+ *     each time unit is kept as a running count, so whether a time unit has violations is read in
+ *     O(1). The violation of a VM at a time unit is read in O(1) with
+ *     {@link #indexOf(int, int, int)}.
+ * </p>
+ * @since 10/18/26.
+ */
+public class ViolationLedger {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int NUMBER_OF_RESOURCES = 3;
+
+    // Open-addressing map: packed key -> entry + 1 (0 = free)
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    private int[] slots = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    // Last violation by entry
+    private int[] time = new int[INITIAL_CAPACITY];
+
+    // [entry * NUMBER_OF_RESOURCES + resource]
+    private float[] resourcesViolated = new float[INITIAL_CAPACITY * NUMBER_OF_RESOURCES];
+
+    // Running count of the last violations by time unit, from firstTimeUnit
+    private int firstTimeUnit;
+
+    private int[] violationsByTime = new int[0];
+
+    /* Methods */
+
+    /**
+     * Register the violation of a VM, it replaces the last violation of the VM
+     * @param cloudService Cloud Service
+     * @param vmId         Virtual Machine ID
+     * @param timeUnit     Time Violation
+     * @param cpu          CPU violated
+     * @param ram          RAM violated
+     * @param net          NET violated
+     */
+    public void put(int cloudService, int vmId, int timeUnit, float cpu, float ram, float net) {
+
+        int entry = entry(key(cloudService, vmId));
+        if (entry < 0) {
+            entry = add(key(cloudService, vmId));
+        } else {
+            addViolations(time[entry], -1);
+        }
+        time[entry] = timeUnit;
+        resourcesViolated[entry * NUMBER_OF_RESOURCES] = cpu;
+        resourcesViolated[entry * NUMBER_OF_RESOURCES + 1] = ram;
+        resourcesViolated[entry * NUMBER_OF_RESOURCES + 2] = net;
+        addViolations(timeUnit, 1);
+    }
+
+    /**
+     * @param timeUnit Time unit
+     * @return <b>True</b>, if there are last violations registered at the time unit
+     */
+    public boolean hasViolations(int timeUnit) {
+
+        int index = timeUnit - firstTimeUnit;
+        return index >= 0 && index < violationsByTime.length && violationsByTime[index] > 0;
+    }
+
+    /**
+     * @param cloudService Cloud Service
+     * @param vmId         Virtual Machine ID
+     * @param timeUnit     Time unit
+     * @return Entry of the violation of the VM, -1 if the last violation of the VM is not at the
+     * time unit
+     */
+    public int indexOf(int cloudService, int vmId, int timeUnit) {
+
+        int entry = entry(key(cloudService, vmId));
+        return entry >= 0 && time[entry] == timeUnit ? entry : -1;
+    }
+
+    /**
+     * @param entry    Entry of a violation (see {@link #indexOf(int, int, int)})
+     * @param resource Resource index
+     * @return Resource violated
+     */
+    public float getResourceViolated(int entry, int resource) {
+        return resourcesViolated[entry * NUMBER_OF_RESOURCES + resource];
+    }
+
+    /**
+     * @param cloudService Cloud Service
+     * @param vmId         Virtual Machine ID
+     * @param timeUnit     Time unit
+     * @param resource     Resource index
+     * @return Resource violated by the VM at the time unit, 0 if the last violation of the VM is
+     * not at the time unit
+     */
+    public float getResourceViolated(int cloudService, int vmId, int timeUnit, int resource) {
+
+        int entry = indexOf(cloudService, vmId, timeUnit);
+        return entry >= 0 ? getResourceViolated(entry, resource) : 0F;
+    }
+
+    /**
+     * Remove every violation
+     */
+    public void clear() {
+
+        Arrays.fill(slots, 0);
+        size = 0;
+        violationsByTime = new int[0];
+    }
+
+    private static long key(int cloudService, int vmId) {
+        return ((long) cloudService << 32) | (vmId & 0xFFFFFFFFL);
+    }
+
+    private int entry(long key) {
+
+        int mask = keys.length - 1;
+        for (int i = hash(key, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return slots[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private int add(long key) {
+
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        int entry = size++;
+        if (entry == time.length) {
+            time = Arrays.copyOf(time, entry * 2);
+            resourcesViolated = Arrays.copyOf(resourcesViolated, entry * 2 * NUMBER_OF_RESOURCES);
+        }
+        insert(key, entry);
+        return entry;
+    }
+
+    private void insert(long key, int entry) {
+
+        int mask = keys.length - 1;
+        int i = hash(key, mask);
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        slots[i] = entry + 1;
+    }
+
+    private void rehash(int capacity) {
+
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = new long[capacity];
+        slots = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                insert(oldKeys[i], oldSlots[i] - 1);
+            }
+        }
+    }
+
+    private void addViolations(int timeUnit, int violations) {
+
+        if (violationsByTime.length == 0) {
+            firstTimeUnit = timeUnit;
+            violationsByTime = new int[INITIAL_CAPACITY];
+        } else if (timeUnit < firstTimeUnit) {
+            int shift = firstTimeUnit - timeUnit;
+            int[] shifted = new int[violationsByTime.length + shift];
+            System.arraycopy(violationsByTime, 0, shifted, shift, violationsByTime.length);
+            violationsByTime = shifted;
+            firstTimeUnit = timeUnit;
+        }
+        int index = timeUnit - firstTimeUnit;
+        if (index >= violationsByTime.length) {
+            violationsByTime = Arrays.copyOf(violationsByTime, Math.max(index + 1, violationsByTime.length * 2));
+        }
+        violationsByTime[index] += violations;
+    }
+
+    private static int hash(long key, int mask) {
+
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -1,35 +1,45 @@
 package org.domain;
 
-import org.framework.Utils;
-
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.ToIntFunction;
 
 /**
  * Class that represent a Virtual Machine
+ * <p>
+ *     The attributes of the VM are stored in a handle of a {@link VmTable}, the VM is a view over
+ *     that handle.
+ * </p>
  * @author Saul Zalimben.
  * @since 8/14/16.
  */
 public class VirtualMachine implements Comparable<VirtualMachine> {
 
-    private Integer id;
-
-    private List<Float> resources;
+    /**
+     * ID of a VM, for the lists indexed by ID (see {@link SharedArrayList#getById(int)})
+     */
+    public static final ToIntFunction<VirtualMachine> ID_FUNCTION = vm -> vm.table.getId(vm.handle);
 
-    private Revenue revenue;
+    private static final int RESOURCES = 0;
 
-    private Integer tinit;
+    private static final int UTILIZATION = 1;
 
-    private Integer tend;
+    // Handle of the VM in the table
+    private VmTable table;
 
-    private List<Float> utilization;
+    private final int handle;
 
-    private Integer datacenter;
+    // Table where the VM was added, the VM keeps its handle when it is released
+    private final VmTable home;
 
-    private Integer cloudService;
+    private List<Float> resources;
 
-    private Integer physicalMachine;
+    private List<Float> utilization;
 
     /* Constructors */
 
@@ -40,15 +50,13 @@ public class VirtualMachine implements Comparable<VirtualMachine> {
      */
     public VirtualMachine( List<Float> resources,  List<Float> utilization) {
 
+        this(new VmTable(1));
         for (int i =0; i < 3; i++) {
             Float newResource = 0F;
             resources.add(newResource);
             Float newUtilization = 0F;
             utilization.add(newUtilization);
         }
-
-        this.resources = resources;
-        this.utilization = utilization;
     }
 
     /**
@@ -67,15 +75,9 @@ public class VirtualMachine implements Comparable<VirtualMachine> {
              Integer tinit,  Integer tend,  List<Float> utilization,  Integer datacenter,
              Integer cloudService,  Integer physicalMachine) {
 
-        this.id = id;
-        this.resources = Utils.getListClone(resources);
-        this.revenue = revenue;
-        this.utilization = Utils.getListClone(utilization);
-        this.datacenter = datacenter != null ? new Integer(datacenter) : null;
-        this.cloudService = new Integer(cloudService);
-        this.physicalMachine =  physicalMachine != null ? new Integer(physicalMachine) : null;
-        this.tinit = tinit;
-        this.tend = tend;
+        this(new VmTable(1), id, revenue, tinit, tend, datacenter, cloudService, physicalMachine);
+        this.setResources(resources);
+        this.setUtilization(utilization);
     }
 
     /**
@@ -94,107 +96,207 @@ public class VirtualMachine implements Comparable<VirtualMachine> {
                           Integer tinit,  Integer tend,  Resources utilization,  Integer datacenter,
                           Integer cloudService,  Integer physicalMachine) {
 
-        this.id = id;
-        this.resources = Arrays.asList(resources.getCpu(),resources.getRam(),resources.getNet());
-        this.revenue = revenue;
-        this.utilization = Arrays.asList(utilization.getCpu(),utilization.getRam(),utilization.getNet());
-        this.datacenter = datacenter != null ? new Integer(datacenter) : null;
-        this.cloudService = new Integer(cloudService);
-        this.physicalMachine =  physicalMachine != null ? new Integer(physicalMachine) : null;
-        this.tinit = tinit;
-        this.tend = tend;
+        this(new VmTable(1), id, resources, revenue, tinit, tend, utilization, datacenter, cloudService,
+                physicalMachine);
+    }
+
+    /**
+     * Constructor, the VM is added to a new handle of <b>table</b>
+     * @param table           VM Table
+     * @param id              Virtual Machine ID
+     * @param resources       Resources
+     * @param revenue         Revenue
+     * @param tinit           Time init
+     * @param tend            Time end
+     * @param utilization     Utilization
+     * @param datacenter      Datacenter
+     * @param cloudService    Cloud Service
+     * @param physicalMachine Physical Machine
+     */
+    public VirtualMachine(VmTable table, Integer id,  Resources resources,  Revenue revenue,
+                          Integer tinit,  Integer tend,  Resources utilization,  Integer datacenter,
+                          Integer cloudService,  Integer physicalMachine) {
+
+        this(table, id, revenue, tinit, tend, datacenter, cloudService, physicalMachine);
+        table.setResource(handle, 0, resources.getCpu());
+        table.setResource(handle, 1, resources.getRam());
+        table.setResource(handle, 2, resources.getNet());
+        table.setUtilization(handle, 0, utilization.getCpu());
+        table.setUtilization(handle, 1, utilization.getRam());
+        table.setUtilization(handle, 2, utilization.getNet());
+    }
+
+    /**
+     * Constructor, copy of <b>vm</b> in a new handle of <b>table</b>
+     * @param table VM Table
+     * @param vm    Virtual Machine
+     */
+    private VirtualMachine(VmTable table, VirtualMachine vm) {
+
+        this(table);
+        table.copyHandle(handle, vm.table, vm.handle);
+    }
+
+    private VirtualMachine(VmTable table, Integer id, Revenue revenue, Integer tinit, Integer tend,
+            Integer datacenter, Integer cloudService, Integer physicalMachine) {
+
+        this(table);
+        this.setId(id);
+        this.setRevenue(revenue);
+        this.setTinit(tinit);
+        this.setTend(tend);
+        this.setDatacenter(datacenter);
+        this.setCloudService(cloudService);
+        this.setPhysicalMachine(physicalMachine);
+    }
+
+    private VirtualMachine(VmTable table) {
+
+        this.table = table;
+        this.home = table;
+        this.handle = table.addHandle(this);
+    }
+
+    /**
+     * Constructor of a view over a handle already in use of <b>table</b>
+     * @param table  VM Table
+     * @param handle VM handle
+     */
+    VirtualMachine(VmTable table, int handle) {
+
+        this.table = table;
+        this.home = table;
+        this.handle = handle;
     }
 
     /* Getters and Setters */
 
     public List<Float> getResources() {
 
+        if (resources == null) {
+            resources = new ResourceView(RESOURCES);
+        }
         return resources;
     }
 
     public void setResources( List<Float> resources) {
 
-        this.resources = resources;
+        for (int k = 0; k < resources.size(); k++) {
+            table.setResource(handle, k, resources.get(k));
+        }
     }
 
     public Integer getTinit() {
 
-        return tinit;
+        return toInteger(table.getTinit(handle));
     }
 
     public void setTinit( Integer tinit) {
 
-        this.tinit = tinit;
+        table.setTinit(handle, toColumn(tinit));
     }
 
     public Integer getTend() {
 
-        return tend;
+        return toInteger(table.getTend(handle));
     }
 
     public void setTend( Integer tend) {
 
-        this.tend = tend;
+        table.setTend(handle, toColumn(tend));
     }
 
     public List<Float> getUtilization() {
 
+        if (utilization == null) {
+            utilization = new ResourceView(UTILIZATION);
+        }
         return utilization;
     }
 
     public void setUtilization( List<Float> utilization) {
 
-        this.utilization = utilization;
+        for (int k = 0; k < utilization.size(); k++) {
+            table.setUtilization(handle, k, utilization.get(k));
+        }
     }
 
     public Integer getPhysicalMachine() {
 
-        return physicalMachine;
+        return toInteger(table.getPhysicalMachine(handle));
     }
 
     public void setPhysicalMachine( Integer physicalMachine) {
 
-        this.physicalMachine = physicalMachine;
+        table.setPhysicalMachine(handle, toColumn(physicalMachine));
     }
 
     public Integer getId() {
 
-        return id;
+        return toInteger(table.getId(handle));
     }
 
     public void setId( Integer id) {
 
-        this.id = id;
+        table.setId(handle, toColumn(id));
     }
 
     public Integer getDatacenter() {
 
-        return datacenter;
+        return toInteger(table.getDatacenter(handle));
     }
 
     public void setDatacenter( Integer datacenter) {
 
-        this.datacenter = datacenter;
+        table.setDatacenter(handle, toColumn(datacenter));
     }
 
     public Integer getCloudService() {
 
-        return cloudService;
+        return toInteger(table.getCloudService(handle));
     }
 
     public void setCloudService( Integer cloudService) {
 
-        this.cloudService = cloudService;
+        table.setCloudService(handle, toColumn(cloudService));
     }
 
     public Revenue getRevenue() {
 
-        return revenue;
+        return new Revenue(getRevenue(0), getRevenue(1), getRevenue(2));
     }
 
     public void setRevenue(final Revenue revenue) {
 
-        this.revenue = revenue;
+        if (revenue != null) {
+            table.setRevenue(handle, 0, revenue.getCpu());
+            table.setRevenue(handle, 1, revenue.getRam());
+            table.setRevenue(handle, 2, revenue.getNet());
+        }
+    }
+
+    public VmTable getTable() {
+        return table;
+    }
+
+    public int getHandle() {
+        return handle;
+    }
+
+    VmTable getHome() {
+        return home;
+    }
+
+    public float getResource(int resource) {
+        return table.getResource(handle, resource);
+    }
+
+    public float getUtilization(int resource) {
+        return table.getUtilization(handle, resource);
+    }
+
+    public float getRevenue(int resource) {
+        return table.getRevenue(handle, resource);
     }
 
     /* Methods */
@@ -213,55 +315,135 @@ public class VirtualMachine implements Comparable<VirtualMachine> {
         VirtualMachine vm = (VirtualMachine) obj;
 
         return vm != null
-                && this.getCloudService().equals(vm.getCloudService())
-                && this.getDatacenter().equals(vm.getDatacenter())
-                && this.getId().equals(vm.getId());
+                && table.getCloudService(handle) == vm.table.getCloudService(vm.handle)
+                && table.getDatacenter(handle) == vm.table.getDatacenter(vm.handle)
+                && table.getId(handle) == vm.table.getId(vm.handle);
 
     }
 
     /**
      * Create a copy of a Virtual Machine
+     * @param cloneTable VM Table of the copy
      * @return Cloned VM
      */
-    private VirtualMachine cloneVM() {
+    private VirtualMachine cloneVM(VmTable cloneTable) {
 
-        return new VirtualMachine(this.getId(), this.getResources(), this.getRevenue(), this.getTinit(),
-                this.getTend(), this.getUtilization(),this.getDatacenter(), this.getCloudService(),
-                this.getPhysicalMachine());
+        return new VirtualMachine(cloneTable, this);
 
     }
 
     /**
-     * Create a copy of each VM in a list
+     * Create a copy of each VM in a list, the copies share a new {@link VmTable}
      * @param virtualMachines List of Virtual Machines
      * @return Copy of virtualMachines
      */
     public static List<VirtualMachine> cloneVMsList(final List<VirtualMachine> virtualMachines) {
 
-        List<VirtualMachine> cloneVM = new ArrayList<>();
+        List<VirtualMachine> cloneVM = new VirtualMachineList();
+        VmTable cloneTable = new VmTable(virtualMachines.size());
 
         virtualMachines.forEach(vm ->
-            cloneVM.add((VirtualMachine) vm.cloneVM()));
+            cloneVM.add(vm.cloneVM(cloneTable)));
 
         return cloneVM;
     }
 
     /**
-     * Get VM by Id
+     * Release the handle of each VM in a list, see {@link VmTable#release(VirtualMachine)}
+     * @param virtualMachines List of Virtual Machines
+     */
+    public static void releaseVMsList(final List<VirtualMachine> virtualMachines) {
+
+        virtualMachines.forEach(vm -> vm.table.release(vm));
+    }
+
+    /**
+     * Create a copy of each VM in a list in <b>table</b> and release the handles of the VMs
+     * @param virtualMachines List of Virtual Machines
+     * @param table           VM Table of the copies
+     * @return Copy of virtualMachines
+     */
+    public static List<VirtualMachine> moveVMsList(final List<VirtualMachine> virtualMachines, VmTable table) {
+
+        List<VirtualMachine> movedVM = new VirtualMachineList();
+
+        virtualMachines.forEach(vm ->
+            movedVM.add(vm.cloneVM(table)));
+        releaseVMsList(virtualMachines);
+
+        return movedVM;
+    }
+
+    /**
+     * Move the VM to a snapshot of its table, the handle is the same
+     * @param snapshot Snapshot of the VM Table
+     */
+    void moveTo(VmTable snapshot) {
+
+        this.table = snapshot;
+    }
+
+    /**
+     * Get VM by Id, in O(1) for a list indexed by ID
      * @param vmId            Virtual Machine Id
      * @param virtualMachines List of VMs
      * @return Virtual Machine
      */
     public static VirtualMachine getById(Integer vmId, List<VirtualMachine> virtualMachines) {
 
+        if (vmId == null) {
+            return null;
+        }
+        int id = vmId;
+        if (virtualMachines instanceof SharedArrayList
+                && ((SharedArrayList<VirtualMachine>) virtualMachines).isIndexed()) {
+            return ((SharedArrayList<VirtualMachine>) virtualMachines).getById(id);
+        }
         for (VirtualMachine vm : virtualMachines) {
-            if (vm.getId().equals(vmId)) {
+            if (vm.table.getId(vm.handle) == id) {
                 return vm;
             }
         }
         return null;
     }
 
+    /**
+     * VMs of a list with time end less or equal to the time unit, in the order of the list. Only the
+     * expired VMs are visited for a {@link VirtualMachineList}
+     * @param virtualMachines List of VMs
+     * @param timeUnit        Time unit
+     * @return List of Virtual Machines
+     */
+    public static List<VirtualMachine> getExpiredVMs(List<VirtualMachine> virtualMachines, int timeUnit) {
+
+        if (virtualMachines instanceof VirtualMachineList) {
+            return ((VirtualMachineList) virtualMachines).getExpired(timeUnit);
+        }
+        List<VirtualMachine> expiredVMs = new ArrayList<>();
+        for (VirtualMachine vm : virtualMachines) {
+            if (vm.table.getTend(vm.handle) <= timeUnit) {
+                expiredVMs.add(vm);
+            }
+        }
+        return expiredVMs;
+    }
+
+    /**
+     * Remove from a list the VMs of another list, the VMs are compared by reference and the list is
+     * compacted in one pass
+     * @param virtualMachines List of VMs
+     * @param toRemoveVMs     VMs to remove
+     */
+    public static void removeVMsList(List<VirtualMachine> virtualMachines, List<VirtualMachine> toRemoveVMs) {
+
+        if (toRemoveVMs.isEmpty()) {
+            return;
+        }
+        Set<VirtualMachine> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        removed.addAll(toRemoveVMs);
+        virtualMachines.removeIf(removed::contains);
+    }
+
     @Override
     public int compareTo(VirtualMachine o) {
 
@@ -283,7 +465,59 @@ public class VirtualMachine implements Comparable<VirtualMachine> {
      */
     public Float getTotalRevenue() {
 
-        return this.getRevenue().totalRevenue();
+        return table.getRevenue(handle, 0) + table.getRevenue(handle, 1) + table.getRevenue(handle, 2);
+
+    }
+
+    private static Integer toInteger(int value) {
+        return value == VmTable.NULL ? null : value;
+    }
+
+    private static int toColumn(Integer value) {
+        return value == null ? VmTable.NULL : value;
+    }
+
+    /**
+     * Write-through {@link List} view of the resources or utilization of the VM in the {@link VmTable}
+     */
+    private class ResourceView extends AbstractList<Float> implements RandomAccess {
+
+        private final int attribute;
+
+        private ResourceView(int attribute) {
+            this.attribute = attribute;
+        }
+
+        @Override
+        public Float get(int resource) {
 
+            checkIndex(resource);
+            return attribute == RESOURCES ? table.getResource(handle, resource)
+                    : table.getUtilization(handle, resource);
+        }
+
+        @Override
+        public Float set(int resource, Float value) {
+
+            Float previous = get(resource);
+            if (attribute == RESOURCES) {
+                table.setResource(handle, resource, value);
+            } else {
+                table.setUtilization(handle, resource, value);
+            }
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return VmTable.NUMBER_OF_RESOURCES;
+        }
+
+        private void checkIndex(int resource) {
+
+            if (resource < 0 || resource >= VmTable.NUMBER_OF_RESOURCES) {
+                throw new IndexOutOfBoundsException("Index: " + resource + ", Size: " + size());
+            }
+        }
     }
 }
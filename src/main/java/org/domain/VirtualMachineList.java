@@ -0,0 +1,344 @@
+package org.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * List of Virtual Machines indexed by ID, by time end and by cloud service
+ * <p>
+ *     Besides the index by ID of {@link SharedArrayList}, the list keeps a min-heap of its VMs keyed
+ *     on the time end, so {@link #getExpired(int)} only touches the VMs whose lifetime expired. The
+ *     heap is built on the first call and kept up to date by the appends and removals, it is
+ *     rebuilt on the next call after an insertion in the middle, a sort or a removal of a VM that
+ *     is more than once in the list.
+ * </p>
+ * <p>
+ *     A {@link CloudServiceIndex} keeps the number of VMs by cloud service and PM, for the fault
+ *     tolerance checks, a {@link ProtectedLoadIndex} keeps the VMs and the protected load of each
+ *     PM, for the overload checks, and a {@link LeasingRevenue} keeps the resources * revenue of the
+ *     VMs, for the revenue of the derived VMs.
+ * </p>
+ * @since 10/18/26.
+ */
+public class VirtualMachineList extends SharedArrayList<VirtualMachine> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // The heap is up to date with the list
+    private boolean built;
+
+    // Min-heap on (time end, sequence), the sequence follows the order of the list
+    private int[] heapTend = new int[INITIAL_CAPACITY];
+
+    private long[] heapSequence = new long[INITIAL_CAPACITY];
+
+    private VirtualMachine[] heapVm = new VirtualMachine[INITIAL_CAPACITY];
+
+    private int heapSize;
+
+    private long nextSequence;
+
+    // Sequence of each VM in the list
+    private final Map<VirtualMachine, Long> sequences = new IdentityHashMap<>();
+
+    // A VM is more than once in the list, the heap is rebuilt when one of them is removed
+    private boolean duplicates;
+
+    // VMs returned by the last call to getExpired, they go back to the heap if they are still in the list
+    private final List<VirtualMachine> expired = new ArrayList<>();
+
+    private final CloudServiceIndex cloudServiceIndex = new CloudServiceIndex(this);
+
+    private final ProtectedLoadIndex protectedLoadIndex = new ProtectedLoadIndex(this);
+
+    private final LeasingRevenue leasingRevenue = new LeasingRevenue(this);
+
+    /* Constructors */
+
+    /**
+     * Default Constructor
+     */
+    public VirtualMachineList() {
+        super(VirtualMachine.ID_FUNCTION);
+    }
+
+    /**
+     * Constructor
+     * @param virtualMachines Initial Virtual Machines
+     */
+    public VirtualMachineList(Collection<VirtualMachine> virtualMachines) {
+        super(virtualMachines, VirtualMachine.ID_FUNCTION);
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @return Leasing revenue of the VMs of the list, maintained incrementally
+     */
+    public LeasingRevenue getLeasingRevenue() {
+        return leasingRevenue;
+    }
+
+    /* Methods */
+
+    /**
+     * VMs of the list with time end less or equal to the time unit, in the order of the list
+     * @param timeUnit Time unit
+     * @return List of Virtual Machines
+     */
+    public List<VirtualMachine> getExpired(int timeUnit) {
+
+        if (!built) {
+            build();
+        } else {
+            for (VirtualMachine vm : expired) {
+                Long sequence = sequences.get(vm);
+                if (sequence != null) {
+                    push(vm, sequence);
+                }
+            }
+        }
+        expired.clear();
+
+        while (heapSize > 0 && heapTend[0] <= timeUnit) {
+            VirtualMachine vm = heapVm[0];
+            long sequence = heapSequence[0];
+            pop();
+            // Skip the entries of removed VMs
+            Long current = sequences.get(vm);
+            if (current != null && current == sequence) {
+                expired.add(vm);
+            }
+        }
+        expired.sort(Comparator.comparingLong(sequences::get));
+
+        return new ArrayList<>(expired);
+    }
+
+    /**
+     * Check if a VM of the list of a cloud service is in a PM
+     * @param cloudService    Cloud Service ID
+     * @param physicalMachine Physical Machine ID
+     * @return <b>True</b>, if a VM of the cloud service is in the PM
+     */
+    public boolean hasCloudService(int cloudService, int physicalMachine) {
+
+        if (cloudServiceIndex.isUsable()) {
+            return cloudServiceIndex.contains(cloudService, physicalMachine);
+        }
+        for (VirtualMachine vm : this) {
+            if (vm.getTable().getCloudService(vm.getHandle()) == cloudService
+                    && vm.getTable().getPhysicalMachine(vm.getHandle()) == physicalMachine) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param cloudService Cloud Service ID
+     * @return Number of VMs of the list of the cloud service
+     */
+    public int countCloudService(int cloudService) {
+
+        if (cloudServiceIndex.isUsable()) {
+            return cloudServiceIndex.count(cloudService);
+        }
+        int count = 0;
+        for (VirtualMachine vm : this) {
+            if (vm.getTable().getCloudService(vm.getHandle()) == cloudService) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * VMs of the list in a PM
+     * @param physicalMachine Physical Machine ID
+     * @return List of Virtual Machines, in the order of the list
+     */
+    public List<VirtualMachine> getByPhysicalMachine(int physicalMachine) {
+
+        if (protectedLoadIndex.isUsable()) {
+            return protectedLoadIndex.get(physicalMachine);
+        }
+        List<VirtualMachine> vms = new ArrayList<>();
+        for (VirtualMachine vm : this) {
+            if (vm.getTable().getPhysicalMachine(vm.getHandle()) == physicalMachine) {
+                vms.add(vm);
+            }
+        }
+        return vms;
+    }
+
+    /**
+     * Protected load of a PM: the sum of a resource of the VMs of the list in the PM with the
+     * protection factor, in the order of the list
+     * @param physicalMachine Physical Machine ID
+     * @param resource        Resource index
+     * @return Protected load
+     */
+    public float getProtectedLoad(int physicalMachine, int resource) {
+
+        if (protectedLoadIndex.isUsable()) {
+            return protectedLoadIndex.getLoad(physicalMachine, resource);
+        }
+        float load = 0;
+        for (VirtualMachine vm : this) {
+            if (vm.getTable().getPhysicalMachine(vm.getHandle()) == physicalMachine) {
+                load += ProtectedLoadIndex.protectedLoad(vm.getTable(), vm.getHandle(), resource);
+            }
+        }
+        return load;
+    }
+
+    @Override
+    protected void added(VirtualMachine vm, boolean last) {
+
+        super.added(vm, last);
+        cloudServiceIndex.added(vm);
+        protectedLoadIndex.added(vm, last);
+        leasingRevenue.added(vm);
+        if (built) {
+            if (last && !sequences.containsKey(vm)) {
+                long sequence = nextSequence++;
+                sequences.put(vm, sequence);
+                push(vm, sequence);
+            } else {
+                built = false;
+            }
+        }
+    }
+
+    @Override
+    protected void removed(VirtualMachine vm) {
+
+        super.removed(vm);
+        cloudServiceIndex.removed(vm);
+        protectedLoadIndex.removed(vm);
+        leasingRevenue.removed(vm);
+        if (built) {
+            if (duplicates) {
+                built = false;
+            } else {
+                sequences.remove(vm);
+            }
+        }
+    }
+
+    @Override
+    protected void reordered() {
+
+        super.reordered();
+        protectedLoadIndex.invalidate();
+        built = false;
+    }
+
+    @Override
+    protected void cleared() {
+
+        super.cleared();
+        cloudServiceIndex.invalidate();
+        protectedLoadIndex.invalidate();
+        leasingRevenue.invalidate();
+        built = false;
+    }
+
+    /**
+     * The list is replaced by another list: its indexes stop following the writes into the table
+     * of the VMs, and are rebuilt if the list is used again
+     */
+    public void release() {
+
+        cloudServiceIndex.release();
+        protectedLoadIndex.release();
+        leasingRevenue.release();
+    }
+
+    /**
+     * Build the heap with the VMs of the list
+     */
+    private void build() {
+
+        sequences.clear();
+        expired.clear();
+        Arrays.fill(heapVm, 0, heapSize, null);
+        heapSize = 0;
+        nextSequence = 0;
+        duplicates = false;
+        for (VirtualMachine vm : this) {
+            long sequence = nextSequence++;
+            duplicates |= sequences.put(vm, sequence) != null;
+            push(vm, sequence);
+        }
+        built = true;
+    }
+
+    private void push(VirtualMachine vm, long sequence) {
+
+        if (heapSize == heapTend.length) {
+            int length = heapSize * 2;
+            heapTend = Arrays.copyOf(heapTend, length);
+            heapSequence = Arrays.copyOf(heapSequence, length);
+            heapVm = Arrays.copyOf(heapVm, length);
+        }
+        int tend = vm.getTable().getTend(vm.getHandle());
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(tend, sequence, heapTend[parent], heapSequence[parent])) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        heapTend[i] = tend;
+        heapSequence[i] = sequence;
+        heapVm[i] = vm;
+    }
+
+    private void pop() {
+
+        int last = --heapSize;
+        int tend = heapTend[last];
+        long sequence = heapSequence[last];
+        VirtualMachine vm = heapVm[last];
+        heapVm[last] = null;
+        if (last == 0) {
+            return;
+        }
+        int i = 0;
+        int child;
+        while ((child = 2 * i + 1) < last) {
+            if (child + 1 < last && less(heapTend[child + 1], heapSequence[child + 1], heapTend[child],
+                    heapSequence[child])) {
+                child++;
+            }
+            if (!less(heapTend[child], heapSequence[child], tend, sequence)) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        heapTend[i] = tend;
+        heapSequence[i] = sequence;
+        heapVm[i] = vm;
+    }
+
+    private void move(int from, int to) {
+
+        heapTend[to] = heapTend[from];
+        heapSequence[to] = heapSequence[from];
+        heapVm[to] = heapVm[from];
+    }
+
+    private static boolean less(int tend, long sequence, int otherTend, long otherSequence) {
+        return tend < otherTend || (tend == otherTend && sequence < otherSequence);
+    }
+}
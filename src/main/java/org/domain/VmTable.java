@@ -0,0 +1,468 @@
+package org.domain;
+
+import java.util.Arrays;
+
+/**
+ * Table of Virtual Machines stored as primitive columns
+ * <p>
+ *     Every attribute of a VM is stored in a primitive column indexed by a dense int handle. The
+ *     columns are split in pages of {@value #PAGE_SIZE} handles, resources, utilization and revenue
+ *     are stored row-major (CPU, RAM, NET). A {@link VirtualMachine} is a view over one handle of a
+ *     table.
+ * </p>
+ * <p>
+ *     {@link #snapshot()} returns a copy of the table in O(1): the pages are shared and each table
+ *     copies a page the first time it writes into it (copy-on-write).
+ * </p>
+ * <p>
+ *     Handles of released VMs are kept in a free-list and reused by the next VMs added, so a table
+ *     only grows with the number of live VMs. A released VM is moved to a snapshot of the table at
+ *     the same handle, so any reference to it still reads its last values.
+ * </p>
+ * <p>
+ *     The handles whose cloud service, physical machine, resources, utilization or revenue are
+ *     written can be recorded for trackers (see {@link #trackChanges(Object)}), so an index over the VMs only
+ *     updates the VMs that changed.
+ * </p>
+ * @since 10/18/26.
+ */
+public class VmTable {
+
+    /**
+     * Number of resources by VM
+     */
+    public static final int NUMBER_OF_RESOURCES = 3;
+
+    /**
+     * Value of a column for a <b>null</b> attribute
+     */
+    static final int NULL = Integer.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int PAGE_SHIFT = 6;
+
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    // Handles in use (live or free)
+    private int size;
+
+    private int live;
+
+    private int[] freeHandles;
+
+    private int freeCount;
+
+    private Page[] pages;
+
+    // The page array is shared with a snapshot
+    private boolean pagesShared;
+
+    // Pages owned by this token can be written in place
+    private Object owner = new Object();
+
+    // Snapshot of the released VMs, valid until the next page is copied
+    private VmTable releaseSnapshot;
+
+    private VirtualMachine[] virtualMachines;
+
+    // Handles written since the last pollChanges of each tracker
+    private final ChangeLog changes = new ChangeLog();
+
+    /* Constructors */
+
+    /**
+     * Default Constructor
+     */
+    public VmTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param capacity Initial number of handles
+     */
+    public VmTable(int capacity) {
+
+        this.freeHandles = new int[0];
+        if (capacity <= PAGE_SIZE) {
+            this.pages = new Page[]{new Page(owner, Math.max(capacity, 1))};
+        } else {
+            this.pages = new Page[(capacity + PAGE_MASK) >>> PAGE_SHIFT];
+            for (int i = 0; i < pages.length; i++) {
+                pages[i] = new Page(owner, PAGE_SIZE);
+            }
+        }
+        this.virtualMachines = new VirtualMachine[capacity()];
+    }
+
+    /**
+     * Constructor of a snapshot, the pages are shared with <b>table</b>
+     * @param table VM Table
+     */
+    private VmTable(VmTable table) {
+
+        this.size = table.size;
+        this.live = table.live;
+        this.freeHandles = new int[0];
+        this.pages = table.pages;
+        this.pagesShared = true;
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @return Number of live VMs
+     */
+    public int size() {
+        return live;
+    }
+
+    public int getId(int handle) {
+        return pages[handle >>> PAGE_SHIFT].id[handle & PAGE_MASK];
+    }
+
+    public void setId(int handle, int value) {
+        writablePage(handle).id[handle & PAGE_MASK] = value;
+    }
+
+    public int getCloudService(int handle) {
+        return pages[handle >>> PAGE_SHIFT].cloudService[handle & PAGE_MASK];
+    }
+
+    public void setCloudService(int handle, int value) {
+        writablePage(handle).cloudService[handle & PAGE_MASK] = value;
+        touch(handle);
+    }
+
+    public int getDatacenter(int handle) {
+        return pages[handle >>> PAGE_SHIFT].datacenter[handle & PAGE_MASK];
+    }
+
+    public void setDatacenter(int handle, int value) {
+        writablePage(handle).datacenter[handle & PAGE_MASK] = value;
+    }
+
+    public int getPhysicalMachine(int handle) {
+        return pages[handle >>> PAGE_SHIFT].physicalMachine[handle & PAGE_MASK];
+    }
+
+    public void setPhysicalMachine(int handle, int value) {
+        writablePage(handle).physicalMachine[handle & PAGE_MASK] = value;
+        touch(handle);
+    }
+
+    public int getTinit(int handle) {
+        return pages[handle >>> PAGE_SHIFT].tinit[handle & PAGE_MASK];
+    }
+
+    public void setTinit(int handle, int value) {
+        writablePage(handle).tinit[handle & PAGE_MASK] = value;
+    }
+
+    public int getTend(int handle) {
+        return pages[handle >>> PAGE_SHIFT].tend[handle & PAGE_MASK];
+    }
+
+    public void setTend(int handle, int value) {
+        writablePage(handle).tend[handle & PAGE_MASK] = value;
+    }
+
+    public float getResource(int handle, int resource) {
+        return pages[handle >>> PAGE_SHIFT].resources[index(handle, resource)];
+    }
+
+    public void setResource(int handle, int resource, float value) {
+        writablePage(handle).resources[index(handle, resource)] = value;
+        touch(handle);
+    }
+
+    public float getUtilization(int handle, int resource) {
+        return pages[handle >>> PAGE_SHIFT].utilization[index(handle, resource)];
+    }
+
+    public void setUtilization(int handle, int resource, float value) {
+        writablePage(handle).utilization[index(handle, resource)] = value;
+        touch(handle);
+    }
+
+    public float getRevenue(int handle, int resource) {
+        return pages[handle >>> PAGE_SHIFT].revenue[index(handle, resource)];
+    }
+
+    public void setRevenue(int handle, int resource, float value) {
+        writablePage(handle).revenue[index(handle, resource)] = value;
+        touch(handle);
+    }
+
+    /**
+     * @param handle VM handle
+     * @return Virtual Machine (view) added to the handle, <b>null</b> for the handles of a snapshot
+     */
+    public VirtualMachine getVirtualMachine(int handle) {
+        return virtualMachines == null ? null : virtualMachines[handle];
+    }
+
+    /* Methods */
+
+    /**
+     * Copy of the table in O(1), the pages are copied when they are written
+     * @return VM Table
+     */
+    public VmTable snapshot() {
+
+        VmTable snapshot = new VmTable(this);
+        this.pagesShared = true;
+        this.owner = new Object();
+        return snapshot;
+    }
+
+    /**
+     * Used resources (resources * utilization / 100) of a VM
+     * @param handle   VM handle
+     * @param resource Resource index
+     * @return Used resources
+     */
+    public float getUsedResource(int handle, int resource) {
+
+        Page page = pages[handle >>> PAGE_SHIFT];
+        int index = index(handle, resource);
+        return page.resources[index] * page.utilization[index] / 100;
+    }
+
+    /**
+     * Copy the resources, utilization and revenue of a VM
+     * @param handle       Destination handle
+     * @param source       Source table
+     * @param sourceHandle Source handle
+     */
+    public void copyResources(int handle, VmTable source, int sourceHandle) {
+
+        Page page = writablePage(handle);
+        Page sourcePage = source.pages[sourceHandle >>> PAGE_SHIFT];
+        int index = index(handle, 0);
+        int sourceIndex = index(sourceHandle, 0);
+        System.arraycopy(sourcePage.resources, sourceIndex, page.resources, index, NUMBER_OF_RESOURCES);
+        System.arraycopy(sourcePage.utilization, sourceIndex, page.utilization, index, NUMBER_OF_RESOURCES);
+        System.arraycopy(sourcePage.revenue, sourceIndex, page.revenue, index, NUMBER_OF_RESOURCES);
+        touch(handle);
+    }
+
+    /**
+     * Release the handle of a VM, the handle is reused by the next VM added
+     * <p>
+     *     The VM is moved to a snapshot of the table, it keeps its values. The VMs released between
+     *     two writes share the same snapshot.
+     * </p>
+     * @param vm Virtual Machine of this table
+     */
+    public void release(VirtualMachine vm) {
+
+        int handle = vm.getHandle();
+        if (vm.getTable() != this || virtualMachines == null || virtualMachines[handle] != vm) {
+            return;
+        }
+        if (releaseSnapshot == null) {
+            releaseSnapshot = snapshot();
+        }
+        vm.moveTo(releaseSnapshot);
+
+        virtualMachines[handle] = null;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, Math.max(INITIAL_CAPACITY, freeCount * 2));
+        }
+        freeHandles[freeCount++] = handle;
+        live--;
+    }
+
+    /**
+     * Take a handle for a new VM, a released handle if there is one
+     * @param vm Virtual Machine (view) of the handle
+     * @return Handle
+     */
+    int addHandle(VirtualMachine vm) {
+
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (size == capacity()) {
+                grow();
+            }
+            handle = size++;
+        }
+        if (virtualMachines == null || handle >= virtualMachines.length) {
+            virtualMachines = Arrays.copyOf(virtualMachines == null ? new VirtualMachine[0] : virtualMachines,
+                    capacity());
+        }
+        virtualMachines[handle] = vm;
+        live++;
+        return handle;
+    }
+
+    /**
+     * Copy every attribute of a VM of another table
+     * @param handle       Destination handle
+     * @param source       Source table
+     * @param sourceHandle Source handle
+     */
+    void copyHandle(int handle, VmTable source, int sourceHandle) {
+
+        Page page = writablePage(handle);
+        Page sourcePage = source.pages[sourceHandle >>> PAGE_SHIFT];
+        int row = handle & PAGE_MASK;
+        int sourceRow = sourceHandle & PAGE_MASK;
+        page.id[row] = sourcePage.id[sourceRow];
+        page.cloudService[row] = sourcePage.cloudService[sourceRow];
+        page.datacenter[row] = sourcePage.datacenter[sourceRow];
+        page.physicalMachine[row] = sourcePage.physicalMachine[sourceRow];
+        page.tinit[row] = sourcePage.tinit[sourceRow];
+        page.tend[row] = sourcePage.tend[sourceRow];
+        copyResources(handle, source, sourceHandle);
+        touch(handle);
+    }
+
+    /**
+     * Record the handles whose cloud service, physical machine, resources, utilization or revenue
+     * are written from now on for <b>tracker</b>, until {@link #untrackChanges(Object)} or until the
+     * tracker is no longer referenced
+     * @param tracker Tracker
+     */
+    void trackChanges(Object tracker) {
+        changes.track(tracker, capacity());
+    }
+
+    /**
+     * Stop recording the handles written for <b>tracker</b>
+     * @param tracker Tracker
+     */
+    void untrackChanges(Object tracker) {
+        changes.untrack(tracker);
+    }
+
+    /**
+     * Handles whose cloud service, physical machine, resources, utilization or revenue were written
+     * since the last call, each handle is returned once
+     * @param tracker Tracker
+     * @return Handles written, <b>null</b> if the handles are not recorded for <b>tracker</b>
+     */
+    int[] pollChanges(Object tracker) {
+        return changes.poll(tracker);
+    }
+
+    /**
+     * Record a written handle for the trackers
+     * @param handle VM handle
+     */
+    private void touch(int handle) {
+        changes.touch(handle, capacity());
+    }
+
+    /**
+     * Page of a handle that can be written, the page is copied if it is shared with a snapshot
+     * @param handle VM handle
+     * @return Page
+     */
+    private Page writablePage(int handle) {
+
+        int pageIndex = handle >>> PAGE_SHIFT;
+        Page page = pages[pageIndex];
+        if (page.owner != owner) {
+            page = new Page(owner, page, page.length);
+            ownPages()[pageIndex] = page;
+            releaseSnapshot = null;
+        }
+        return page;
+    }
+
+    private Page[] ownPages() {
+
+        if (pagesShared) {
+            pages = pages.clone();
+            pagesShared = false;
+        }
+        return pages;
+    }
+
+    private int capacity() {
+        return pages.length == 1 ? pages[0].length : pages.length * PAGE_SIZE;
+    }
+
+    private void grow() {
+
+        Page first = pages[0];
+        if (pages.length == 1 && first.length < PAGE_SIZE) {
+            ownPages()[0] = new Page(owner, first,
+                    Math.min(PAGE_SIZE, first.length + (first.length >> 1) + 1));
+        } else {
+            pages = Arrays.copyOf(pages, pages.length + 1);
+            pagesShared = false;
+            pages[pages.length - 1] = new Page(owner, PAGE_SIZE);
+        }
+        releaseSnapshot = null;
+    }
+
+    private static int index(int handle, int resource) {
+        return (handle & PAGE_MASK) * NUMBER_OF_RESOURCES + resource;
+    }
+
+    /**
+     * Columns of {@value #PAGE_SIZE} handles (fewer for the first page of a small table)
+     */
+    private static final class Page {
+
+        private final Object owner;
+
+        private final int length;
+
+        private final int[] id;
+
+        private final int[] cloudService;
+
+        private final int[] datacenter;
+
+        private final int[] physicalMachine;
+
+        private final int[] tinit;
+
+        private final int[] tend;
+
+        // [handle * NUMBER_OF_RESOURCES + resource]
+        private final float[] resources;
+
+        private final float[] utilization;
+
+        private final float[] revenue;
+
+        private Page(Object owner, int length) {
+
+            this.owner = owner;
+            this.length = length;
+            this.id = new int[length];
+            this.cloudService = new int[length];
+            this.datacenter = new int[length];
+            this.physicalMachine = new int[length];
+            this.tinit = new int[length];
+            this.tend = new int[length];
+            this.resources = new float[length * NUMBER_OF_RESOURCES];
+            this.utilization = new float[length * NUMBER_OF_RESOURCES];
+            this.revenue = new float[length * NUMBER_OF_RESOURCES];
+        }
+
+        private Page(Object owner, Page page, int length) {
+
+            this(owner, length);
+            System.arraycopy(page.id, 0, id, 0, page.length);
+            System.arraycopy(page.cloudService, 0, cloudService, 0, page.length);
+            System.arraycopy(page.datacenter, 0, datacenter, 0, page.length);
+            System.arraycopy(page.physicalMachine, 0, physicalMachine, 0, page.length);
+            System.arraycopy(page.tinit, 0, tinit, 0, page.length);
+            System.arraycopy(page.tend, 0, tend, 0, page.length);
+            System.arraycopy(page.resources, 0, resources, 0, page.length * NUMBER_OF_RESOURCES);
+            System.arraycopy(page.utilization, 0, utilization, 0, page.length * NUMBER_OF_RESOURCES);
+            System.arraycopy(page.revenue, 0, revenue, 0, page.length * NUMBER_OF_RESOURCES);
+        }
+    }
+}
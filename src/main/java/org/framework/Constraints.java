@@ -2,11 +2,11 @@ package org.framework;
 
 import org.domain.PhysicalMachine;
 import org.domain.VirtualMachine;
+import org.domain.VirtualMachineList;
+import org.domain.VmTable;
 import org.framework.reconfigurationAlgorithm.configuration.ExperimentConf;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Predicate;
 
 /**
  * Created by Leonardo Benitez.
@@ -35,45 +35,104 @@ public class Constraints {
             List<VirtualMachine> vms, Boolean isUpdate) {
 
         // If oldVM is not null, is an update
+        Boolean flag = checkResource(pm, deprecatedVM, vm, 0) && checkResource(pm, deprecatedVM, vm, 1)
+                && checkResource(pm, deprecatedVM, vm, 2);
 
-        VirtualMachine oldVm;
-        if(deprecatedVM == null) {
-            oldVm = new VirtualMachine(new ArrayList<>(), new ArrayList<>());
-        } else {
-            oldVm = deprecatedVM;
+        if (!isUpdate && flag) {
+            return checkFaultTolerance(pm, vm, vms);
         }
 
-        Boolean checkCPU = pm.getResourcesRequested().get(0)
-                - (oldVm.getResources().get(0) * oldVm.getUtilization().get(0)/100 )
-                + (vm.getResources().get(0) * vm.getUtilization().get(0)/100)
-                + (vm.getResources().get(0) * (1- vm.getUtilization().get(0)/100)*Parameter.PROTECTION_FACTOR.get(0))
-                < pm.getResources().get(0);
-
-        Boolean checkRAM = pm.getResourcesRequested().get(1)
-                - (oldVm.getResources().get(1) * oldVm.getUtilization().get(1)/100 )
-                + (vm.getResources().get(1) * vm.getUtilization().get(1)/100)
-                + (vm.getResources().get(1) * (1- vm.getUtilization().get(1)/100)*Parameter.PROTECTION_FACTOR.get(1))
-                < pm.getResources().get(1);
-
-        Boolean checkNET = pm.getResourcesRequested().get(2)
-                - (oldVm.getResources().get(2) * oldVm.getUtilization().get(2)/100 )
-                + (vm.getResources().get(2) * vm.getUtilization().get(2)/100)
-                + (vm.getResources().get(2) * (1- vm.getUtilization().get(2)/100)*Parameter.PROTECTION_FACTOR.get(2))
-                < pm.getResources().get(2);
-
-        Boolean flag = checkCPU && checkRAM && checkNET;
-
-        if (!isUpdate && flag && Parameter.FAULT_TOLERANCE) {
-            for (VirtualMachine vmTmp : vms) {
-
-                if (vmTmp.getCloudService().equals(vm.getCloudService()) &&
-                        vmTmp.getPhysicalMachine().equals(pm.getId())) {
-                    return false;
-                }
+        return flag;
+    }
+
+    /**
+     * Check the fault tolerance of a new VM in a PM
+     * <p>
+     *     With FAULT_TOLERANCE active, two VMs of the same cloud service can not be in the same PM.
+     * </p>
+     * @param pm  Physical Machine
+     * @param vm  Virtual Machine
+     * @param vms Virtual Machines
+     * @return <b>True</b>, if no VM of the cloud service of <b>vm</b> is in the PM (or the fault
+     * tolerance is not active)
+     */
+    public static boolean checkFaultTolerance(PhysicalMachine pm, VirtualMachine vm, List<VirtualMachine> vms) {
+
+        if (!Parameter.FAULT_TOLERANCE) {
+            return true;
+        }
+        int cloudService = vm.getTable().getCloudService(vm.getHandle());
+        int pmId = pm.getId();
+        if (vms instanceof VirtualMachineList) {
+            return !((VirtualMachineList) vms).hasCloudService(cloudService, pmId);
+        }
+        for (VirtualMachine vmTmp : vms) {
+
+            if (vmTmp.getTable().getCloudService(vmTmp.getHandle()) == cloudService &&
+                    vmTmp.getTable().getPhysicalMachine(vmTmp.getHandle()) == pmId) {
+                return false;
             }
         }
+        return true;
+    }
 
-        return flag;
+    /**
+     * Resources requested by a VM with the protection factor, by resource
+     * <p>
+     *     A PM can hold a new VM only if its free resources (capacity - requested) are above the
+     *     demand, see {@link #checkResources(PhysicalMachine, VirtualMachine, VirtualMachine, List, Boolean)}.
+     * </p>
+     * @param vm Virtual Machine
+     * @return Demand by resource
+     */
+    public static float[] getProtectedDemand(VirtualMachine vm) {
+
+        float[] demand = new float[VmTable.NUMBER_OF_RESOURCES];
+        for (int k = 0; k < demand.length; k++) {
+            float vmResource = vm.getResource(k);
+            float vmUtilization = vm.getUtilization(k);
+            demand[k] = (vmResource * vmUtilization/100)
+                    + (vmResource * (1- vmUtilization/100)*Parameter.PROTECTION_FACTOR.get(k));
+        }
+        return demand;
+    }
+
+    /**
+     * Check if a resource of the PM can hold the VM (with the protection factor)
+     * @param pm       Physical Machine
+     * @param oldVm    Virtual Machine (previous version of the VM), <b>null</b> for a new VM
+     * @param vm       Virtual Machine
+     * @param resource Resource index
+     * @return <b>True</b>, if the PM can hold the resource of the VM
+     */
+    private static boolean checkResource(PhysicalMachine pm, VirtualMachine oldVm, VirtualMachine vm,
+            int resource) {
+
+        // A new VM frees nothing, subtracting zero leaves the requested resources unchanged
+        float oldUsed = oldVm == null ? 0F : oldVm.getTable().getUsedResource(oldVm.getHandle(), resource);
+
+        return checkResource(pm, oldUsed, vm.getResource(resource), vm.getUtilization(resource), resource);
+    }
+
+    /**
+     * Check if a resource of the PM can hold a new version of a VM (with the protection factor)
+     * @param pm            Physical Machine
+     * @param oldUsed       Used resource of the previous version of the VM, zero for a new VM
+     * @param vmResource    Resource of the VM
+     * @param vmUtilization Utilization of the resource
+     * @param resource      Resource index
+     * @return <b>True</b>, if the PM can hold the resource of the VM
+     */
+    public static boolean checkResource(PhysicalMachine pm, float oldUsed, float vmResource, float vmUtilization,
+            int resource) {
+
+        float protectionFactor = Parameter.PROTECTION_FACTOR.get(resource);
+
+        return pm.getResourceRequested(resource)
+                - oldUsed
+                + (vmResource * vmUtilization/100)
+                + (vmResource * (1- vmUtilization/100)*protectionFactor)
+                < pm.getResource(resource);
     }
 
 
@@ -112,14 +171,45 @@ public class Constraints {
                 || sumNetResource > pm.getResources().get(2);
     }
 
+    /**
+     * Check if a PM is overloaded by the VMs of a list hosted by it, see
+     * {@link #checkPMOverloaded(PhysicalMachine, List, List)} with {@link Parameter#PROTECTION_FACTOR}
+     * <p>
+     *     For a {@link VirtualMachineList} the protected load of the PM is read from its index.
+     * </p>
+     * @param pm              Physical Machine
+     * @param virtualMachines List of Virtual Machines
+     * @return <b>True</b>, if the PM is overloaded.
+     */
+    public static boolean isProtectedLoadOverloaded(PhysicalMachine pm, List<VirtualMachine> virtualMachines) {
+
+        if (virtualMachines instanceof VirtualMachineList) {
+            VirtualMachineList vms = (VirtualMachineList) virtualMachines;
+            int pmId = pm.getId();
+            return vms.getProtectedLoad(pmId, 0) > pm.getResource(0)
+                    || vms.getProtectedLoad(pmId, 1) > pm.getResource(1)
+                    || vms.getProtectedLoad(pmId, 2) > pm.getResource(2);
+        }
+        return checkPMOverloaded(pm, Utils.filterVMsByPM(virtualMachines, pm.getId()), Parameter.PROTECTION_FACTOR);
+    }
+
     /**
      * @param virtualMachineList List of Virtual Machine
      * @param cloudServiceId     Cloud Service ID
      * @return <b>True</b>, is Fault to Tolerance is Active <br> <b>False</b>, otherwise
      */
     public static Boolean isFaultToleranceViolated(List<VirtualMachine> virtualMachineList, int cloudServiceId){
-        Predicate<VirtualMachine> vmFilter = vm -> vm.getCloudService() == cloudServiceId;
-        return virtualMachineList.stream().filter(vmFilter).count() > 1L;
+
+        if (virtualMachineList instanceof VirtualMachineList) {
+            return ((VirtualMachineList) virtualMachineList).countCloudService(cloudServiceId) > 1;
+        }
+        int count = 0;
+        for (VirtualMachine vm : virtualMachineList) {
+            if (vm.getTable().getCloudService(vm.getHandle()) == cloudServiceId && ++count > 1) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -129,9 +219,9 @@ public class Constraints {
      */
     public static Boolean isPMOverloaded(PhysicalMachine pm){
 
-        return pm.getUtilization().get(0)> ExperimentConf.OVERLOAD_PM_THRESHOLD ||
-                pm.getUtilization().get(1)> ExperimentConf.OVERLOAD_PM_THRESHOLD ||
-                pm.getUtilization().get(2)> ExperimentConf.OVERLOAD_PM_THRESHOLD;
+        return pm.getUtilization(0)> ExperimentConf.OVERLOAD_PM_THRESHOLD ||
+                pm.getUtilization(1)> ExperimentConf.OVERLOAD_PM_THRESHOLD ||
+                pm.getUtilization(2)> ExperimentConf.OVERLOAD_PM_THRESHOLD;
     }
 
     /**
@@ -141,9 +231,9 @@ public class Constraints {
      */
     public static Boolean isPMUnderloaded(PhysicalMachine pm){
 
-        return pm.getUtilization().get(0)< ExperimentConf.UNDERLOAD_PM_THRESHOLD ||
-                pm.getUtilization().get(1)< ExperimentConf.UNDERLOAD_PM_THRESHOLD ||
-                pm.getUtilization().get(2)< ExperimentConf.UNDERLOAD_PM_THRESHOLD;
+        return pm.getUtilization(0)< ExperimentConf.UNDERLOAD_PM_THRESHOLD ||
+                pm.getUtilization(1)< ExperimentConf.UNDERLOAD_PM_THRESHOLD ||
+                pm.getUtilization(2)< ExperimentConf.UNDERLOAD_PM_THRESHOLD;
     }
 
 }
@@ -15,6 +15,7 @@ import org.framework.algorithm.periodicMigration.PeriodicMigration;
 import org.framework.algorithm.stateOfArt.StateOfArt;
 import org.framework.algorithm.thresholdBasedApproach.ThresholdBasedApproach;
 import org.framework.iterativeAlgorithm.Heuristics;
+import org.framework.workload.WorkloadCursor;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -33,10 +34,10 @@ public class DynamicVMP {
      */
     @FunctionalInterface
     interface Algorithm {
-        void useAlgorithm(List<Scenario> workload, List<PhysicalMachine> physicalMachines,
+        void useAlgorithm(WorkloadCursor workload, List<PhysicalMachine> physicalMachines,
                 List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs,
-                Map<Integer, Float> revenueByTime, List<Resources> wastedResources,  Map<Integer, Float> wastedResourcesRatioByTime,
-                Map<Integer, Float> powerByTime, Map<Integer, Placement> placements, Integer code, Integer timeUnit,
+                TimeSeries revenueByTime, List<Resources> wastedResources,  TimeSeries wastedResourcesRatioByTime,
+                TimeSeries powerByTime, PlacementHistory placements, Integer code, Integer timeUnit,
                 Integer[] requestsProcess, Float maxPower, String scenarioFile)
                 throws IOException, InterruptedException, ExecutionException;
     }
@@ -72,27 +73,20 @@ public class DynamicVMP {
     /**
      * Apriori values lists by time
      */
-    static Map<Integer, Float> revenueAprioriTime = new HashMap<>();
-    static Map<Integer, Float> migratedMemoryAprioriTime = new HashMap<>();
-    private static Map<Integer, Float> economicalPenaltiesAprioriTime = new HashMap<>();
+    static TimeSeries revenueAprioriTime = new TimeSeries();
+    static TimeSeries migratedMemoryAprioriTime = new TimeSeries();
+    private static TimeSeries economicalPenaltiesAprioriTime = new TimeSeries();
     private static List<Float> leasingCostsApriori = new ArrayList<>();
 
     /**
-     *  Map {VM_ID, Violation} = Violation per VM, per Time, per Resources
-     *  Track resources violation per VM, per Time and per resources <br>
-     *  <pre>
-     *  violation {
-     *      { virtualMachineId = 1,
-     *        { time = 1,
-     *          { cpuViolation = X,
-     *            ramViolation = X,
-     *            netViolation = x }
-     *          }
-     *        }
-     *      }
-     * </pre>
+     * Last violation of each VM (per cloud service and VM ID) and the total penalty per time
      */
-    public static Map<String, Violation> unsatisfiedResources = new HashMap<>();
+    public static ViolationLedger violationLedger = new ViolationLedger();
+
+    /**
+     * Table of the VMs requested to the datacenter, released handles are reused by new VMs
+     */
+    public static VmTable virtualMachineTable = new VmTable();
 
     private DynamicVMP () {
         // Default Constructor
@@ -122,20 +116,9 @@ public class DynamicVMP {
             List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs, Integer[] requests,
             Boolean isMigrationActive) {
 
-        // By default Physical Machine is null
-        VirtualMachine vm = new VirtualMachine(s.getVirtualMachineID(), s.getResources(), s.getRevenue(),
-                s.getTinit(), s.getTend(), s.getUtilization(),
-                s.getDatacenterID(), s.getCloudServiceID(), null);
-
         // If current_time is equals to VM tinit, allocated VM
-        if (s.getTime() <= s.getTinit()) {
-            if (Heuristics.getHeuristics()[code]
-                    .useHeuristic(vm, physicalMachines, virtualMachines, derivedVMs)) {
-                requests[0]++;
-            } else {
-                // Derive Virtual Machine
-                requests[1]++;
-            }
+        if (isArrival(s)) {
+            admitVM(s, Heuristics.getHeuristics()[code], physicalMachines, virtualMachines, derivedVMs, requests);
         } else {
             // Update VM resources
             if (s.getTime() <= s.getTend()) {
@@ -152,38 +135,104 @@ public class DynamicVMP {
     }
 
     /**
-     * @param code             Heuristic Code
-     * @param physicalMachines List of Physical Machines
-     * @param virtualMachines  List of allocated Virtual Machines
-     * @param derivedVMs       List of derived Virtual Machines
-     * @param vmToMigrate      List of VM to migrate
+     * @param s One request of Workload Scenario
+     * @return <b>True</b>, if the request is the arrival of a new VM (current time less or equal to VM tinit)
      */
-    public static void runHeuristics (Integer code, List<PhysicalMachine> physicalMachines,
-            List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs,
-            List<VirtualMachine> vmToMigrate) {
+    public static boolean isArrival(Scenario s) {
+        return s.getTime() <= s.getTinit();
+    }
 
-        Collections.sort(vmToMigrate);
-        PhysicalMachine hostPm;
+    /**
+     * Admission of a run of new VMs
+     * <p>
+     *     The arrivals collected by a manager since the last update request of the time unit are
+     *     allocated in order, with the same result as calling
+     *     {@link #runHeuristics(Scenario, Integer, List, List, List, Integer[], Boolean)} for each one.
+     *     For First Fit (and First Fit Decreasing) with a {@link PhysicalMachineList} the whole run is
+     *     packed in one pass over its capacity index (see
+     *     {@link Heuristics#firstFitAll(List, List, List, List)}). Best/Worst Fit sort the PMs again
+     *     after each placement, so their arrivals are placed one by one, over the capacity index,
+     *     and the new order of the PMs is written into the list once. The list of arrivals is cleared.
+     * </p>
+     * @param arrivals         Arrivals of new VMs, in order
+     * @param code             Heuristics Code
+     * @param physicalMachines List of Physical Machine
+     * @param virtualMachines  List of Virtual Machine
+     * @param derivedVMs       List of Derived Virtual Machine
+     * @param requests         Requests (see {@link #runHeuristics(Scenario, Integer, List, List, List, Integer[], Boolean)})
+     */
+    public static void admitArrivals(List<Scenario> arrivals, Integer code, List<PhysicalMachine> physicalMachines,
+            List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs, Integer[] requests) {
 
-        for (VirtualMachine vm : vmToMigrate) {
-            hostPm = PhysicalMachine.getById(vm.getPhysicalMachine(), physicalMachines);
+        if (arrivals.isEmpty()) {
+            return;
+        }
+        if (Heuristics.isFirstFit(code)) {
+            List<VirtualMachine> vms = new ArrayList<>(arrivals.size());
+            for (Scenario s : arrivals) {
+                vms.add(newVirtualMachine(s));
+            }
+            int allocated = Heuristics.firstFitAll(vms, physicalMachines, virtualMachines, derivedVMs);
+            requests[0] += allocated;
+            // Derived Virtual Machines
+            requests[1] += vms.size() - allocated;
+            arrivals.clear();
+            return;
+        }
 
-            for (PhysicalMachine pm : physicalMachines) {
+        Heuristics.Algorithm heuristic = Heuristics.getHeuristics()[code];
+        PhysicalMachineList batchPMs = physicalMachines instanceof PhysicalMachineList
+                ? (PhysicalMachineList) physicalMachines : null;
 
-                if(hostPm != null && !pm.getId().equals(hostPm.getId())
-                    && Constraints.checkResources(pm, null, vm, virtualMachines, true)
-                    && Heuristics.getHeuristics()[code]
-                        .useHeuristic(vm, physicalMachines, virtualMachines, derivedVMs)) {
+        if (batchPMs != null) {
+            batchPMs.beginBatch();
+        }
+        try {
+            for (Scenario s : arrivals) {
+                admitVM(s, heuristic, physicalMachines, virtualMachines, derivedVMs, requests);
+            }
+        } finally {
+            if (batchPMs != null) {
+                batchPMs.endBatch();
+            }
+        }
+        arrivals.clear();
+    }
 
-                    virtualMachines.remove(vm);
-                    hostPm.updatePMResources(vm, Utils.SUB);
-                    break;
+    /**
+     * Allocate (or derive) the new VM of an arrival
+     * @param s                Arrival of a new VM
+     * @param heuristic        Heuristic
+     * @param physicalMachines List of Physical Machine
+     * @param virtualMachines  List of Virtual Machine
+     * @param derivedVMs       List of Derived Virtual Machine
+     * @param requests         Requests
+     */
+    private static void admitVM(Scenario s, Heuristics.Algorithm heuristic, List<PhysicalMachine> physicalMachines,
+            List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs, Integer[] requests) {
 
-                }
-            }
+        VirtualMachine vm = newVirtualMachine(s);
+
+        if (heuristic.useHeuristic(vm, physicalMachines, virtualMachines, derivedVMs)) {
+            requests[0]++;
+        } else {
+            // Derive Virtual Machine
+            requests[1]++;
         }
     }
 
+    /**
+     * @param s Arrival of a new VM
+     * @return New VM of the arrival, without Physical Machine
+     */
+    private static VirtualMachine newVirtualMachine(Scenario s) {
+
+        // By default Physical Machine is null
+        return new VirtualMachine(virtualMachineTable, s.getVirtualMachineID(), s.getResources(),
+                s.getRevenue(), s.getTinit(), s.getTend(), s.getUtilization(),
+                s.getDatacenterID(), s.getCloudServiceID(), null);
+    }
+
     /**
      * Updates Placement After Reconfiguration
      * @param workload            Workload Trace
@@ -192,20 +241,31 @@ public class DynamicVMP {
      * @param startTimeMemeticAlg Start time of Memetic Algorithm
      * @param endTimeMemeticAlg   End time of Memetic Algorithm
      * @return Placement after Reconfiguration and with all missed request
+     * @throws IOException Error managing files
      */
-    public static Placement updatePlacementAfterReconf (List<Scenario> workload, String heuristicCode, Placement placement,
-            Integer startTimeMemeticAlg, Integer endTimeMemeticAlg) {
+    public static Placement updatePlacementAfterReconf (WorkloadCursor workload, String heuristicCode, Placement placement,
+            Integer startTimeMemeticAlg, Integer endTimeMemeticAlg) throws IOException {
 
         Integer code = Constant.HEURISTIC_MAP.get(heuristicCode);
         Integer[] requestsProcessAfterReconf = initRequestProcess();
 
         // List of missed requests by Memetic Algorithm order by Revenue (excepts removed VM)
-        List<Scenario> cloneScenario = Scenario.cloneScneario(workload, startTimeMemeticAlg, endTimeMemeticAlg);
+        List<Scenario> cloneScenario = Scenario.cloneScneario(workload.window(startTimeMemeticAlg, endTimeMemeticAlg),
+                startTimeMemeticAlg, endTimeMemeticAlg);
 
-        cloneScenario.forEach(request ->
-            runHeuristics(request, code, placement.getPhysicalMachines(), placement.getVirtualMachineList(),
-                    placement.getDerivedVMs(), requestsProcessAfterReconf, false)
-        );
+        List<Scenario> arrivals = new ArrayList<>();
+        for (Scenario request : cloneScenario) {
+            if (isArrival(request)) {
+                arrivals.add(request);
+            } else {
+                admitArrivals(arrivals, code, placement.getPhysicalMachines(), placement.getVirtualMachineList(),
+                        placement.getDerivedVMs(), requestsProcessAfterReconf);
+                runHeuristics(request, code, placement.getPhysicalMachines(), placement.getVirtualMachineList(),
+                        placement.getDerivedVMs(), requestsProcessAfterReconf, false);
+            }
+        }
+        admitArrivals(arrivals, code, placement.getPhysicalMachines(), placement.getVirtualMachineList(),
+                placement.getDerivedVMs(), requestsProcessAfterReconf);
 
         return placement;
     }
@@ -310,6 +370,10 @@ public class DynamicVMP {
      *      FORECAST_SIZE = Forecast Size
      *  </li>
      *  <li>
+     *      PLACEMENT_RETENTION = Number of last placements kept in memory (optional, 1 by default),
+     *      ALL keeps the placement of every time unit
+     *  </li>
+     *  <li>
      *      SCALARIZATION_METHOD = Scalarization Method
      *      <ul>
      *          <li>- ED = Euclidean Distance </li>
@@ -397,10 +461,11 @@ public class DynamicVMP {
     private static void launchExperiments(String heuristicCode, String pmConfig, String scenarioFile)
             throws IOException, InterruptedException, ExecutionException {
         // VARIABLES
-        List<PhysicalMachine> physicalMachines = new ArrayList<>();
-        List<Scenario> scenarios = new ArrayList<>();
-        List<VirtualMachine> virtualMachines = new ArrayList<>();
-        List<VirtualMachine> derivedVMs = new ArrayList<>();
+        List<PhysicalMachine> physicalMachines = new PhysicalMachineList();
+        List<VirtualMachine> virtualMachines = new VirtualMachineList();
+        List<VirtualMachine> derivedVMs = new VirtualMachineList();
+        virtualMachineTable = new VmTable();
+        violationLedger.clear();
 
         Integer[] requestsProcess = initRequestProcess();
         Float[] realRevenue = new Float[]{0F};
@@ -410,13 +475,15 @@ public class DynamicVMP {
 
         // LIST
         List<Resources> wastedResources = new ArrayList<>();
-        Map<Integer, Float> wastedResourcesRatioByTime = new HashMap<>();
-        Map<Integer, Float> powerByTime = new HashMap<>();
-        Map<Integer, Float> revenueByTime = new HashMap<>();
-        Map<Integer, Placement> placements = new HashMap<>();
-
-        maxPower = Utils.loadDatacenter(pmConfig, scenarioFile, physicalMachines, scenarios);
-        timeSimulated = scenarios.get(scenarios.size() - 1).getTime();
+        // The summaries of the series are the averages printed at the end of the experiment
+        TimeSeries wastedResourcesRatioByTime = new TimeSeries();
+        TimeSeries powerByTime = new TimeSeries((t, power) ->
+                Utils.normalizeValue(power, ObjectivesFunctions.MIN_POWER, maxPower));
+        // The a priori revenue of a time unit grows with the violations after the revenue is recorded
+        TimeSeries revenueByTime = new TimeSeries();
+        PlacementHistory placements = new PlacementHistory(Parameter.PLACEMENT_RETENTION);
+
+        maxPower = Utils.loadPhysicalMachines(pmConfig, physicalMachines);
         Integer code = Constant.HEURISTIC_MAP.get(heuristicCode);
 
         // Check if the algorithm is valid!
@@ -425,20 +492,26 @@ public class DynamicVMP {
             return;
         }
 
-        Integer timeUnit = scenarios.get(0).getTime();
-        initialTimeUnit = timeUnit;
+        // First pass over the workload trace: a priori values and simulated time
+        Integer timeUnit;
+        try (WorkloadCursor workload = Utils.openWorkload(scenarioFile, false)) {
+            if (!workload.hasNext()) {
+                logger.log(Level.SEVERE, "The workload trace is empty: " + scenarioFile);
+                return;
+            }
+            timeUnit = workload.nextTimeUnit();
+            initialTimeUnit = timeUnit;
+            loadAprioriValuesByTime(workload);
+            timeSimulated = workload.getCurrentTimeUnit();
+        }
         timeAdjustment(wastedResources, wastedResourcesRatioByTime, powerByTime, revenueByTime, scenarioFile);
 
-        loadAprioriValuesByTime(scenarios);
-
         // Prepare scenario for Decreasing Algorithms (Sort by Total Revenue)
-        if (Constant.BFD.equals(heuristicCode) || Constant.FFD.equals(heuristicCode)) {
-            Collections.sort(scenarios);
-        }
+        Boolean isDecreasing = Constant.BFD.equals(heuristicCode) || Constant.FFD.equals(heuristicCode);
 
-        try{
+        try (WorkloadCursor workload = Utils.openWorkload(scenarioFile, isDecreasing)) {
             getAlgorithms()[Parameter.ALGORITHM]
-                    .useAlgorithm(scenarios, physicalMachines, virtualMachines, derivedVMs,
+                    .useAlgorithm(workload, physicalMachines, virtualMachines, derivedVMs,
                             revenueByTime, wastedResources, wastedResourcesRatioByTime, powerByTime,
                             placements, code, timeUnit, requestsProcess, maxPower, scenarioFile);
         } catch (ArrayIndexOutOfBoundsException e) {
@@ -465,8 +538,8 @@ public class DynamicVMP {
      * @param revenueByTime              Economical Revenue per time yt
      */
     private static void timeAdjustment(List<Resources> wastedResources,
-            Map<Integer, Float> wastedResourcesRatioByTime, Map<Integer, Float> powerByTime,
-            Map<Integer, Float> revenueByTime, String scenarioFile) throws IOException {
+            TimeSeries wastedResourcesRatioByTime, TimeSeries powerByTime,
+            TimeSeries revenueByTime, String scenarioFile) throws IOException {
 
         Integer timeAdjust = 0;
         if(initialTimeUnit != 0 ) {
@@ -484,12 +557,13 @@ public class DynamicVMP {
 
     /**
      * Load the objective function's  a priori values from the scenario
-     * @param workload List of Scenarios
+     * @param workload Workload Trace
+     * @throws IOException Error managing files
      */
-    public static void loadAprioriValuesByTime(List<Scenario> workload) {
+    public static void loadAprioriValuesByTime(WorkloadCursor workload) throws IOException {
 
-        Map<Integer, Float> revenueAPrioriByTime = new HashMap<>();
-        Map<Integer, Float> migratedMemoryAPrioriByTime = new HashMap<>();
+        TimeSeries revenueAPrioriByTime = new TimeSeries();
+        TimeSeries migratedMemoryAPrioriByTime = new TimeSeries();
         Integer numberUniqueVm = 0;
         Float revenueAPriori=0F;
         Float migratedMemoryAPriori = 0F;
@@ -503,9 +577,9 @@ public class DynamicVMP {
             }
         }
 
-        for( int iteratroScenario=0; iteratroScenario<workload.size(); iteratroScenario++){
+        while (workload.hasNext()) {
 
-            Scenario request = workload.get(iteratroScenario);
+            Scenario request = workload.next();
             revenueAPriori += request.getRevenue().getCpu() * request.getResources().getCpu() *  Parameter.DERIVE_COST;
             revenueAPriori += request.getRevenue().getRam() * request.getResources().getRam() *  Parameter.DERIVE_COST;
             revenueAPriori += request.getRevenue().getNet() * request.getResources().getNet() *  Parameter.DERIVE_COST;
@@ -516,7 +590,7 @@ public class DynamicVMP {
                 numberUniqueVm++;
             }
 
-            if((iteratroScenario + 1) == workload.size() || !request.getTime().equals(workload.get(iteratroScenario + 1).getTime())){
+            if(workload.isEndOfTimeUnit()){
                 revenueAPrioriByTime.put(request.getTime(), revenueAPriori);
                 maxRevenueLost += revenueAPriori;
                 migratedMemoryAPrioriByTime.put(request.getTime(), migratedMemoryAPriori);
@@ -586,23 +660,15 @@ public class DynamicVMP {
 		return false;
     }
 
-    public static void updateEconomicalPenalties(VirtualMachine vm, Resources resourcesViolated, Integer timeViolation) {
+    public static void updateEconomicalPenalties(Revenue revenue, Resources resourcesViolated, Integer timeViolation) {
 
         Float violationRevenue = 0F;
-        violationRevenue += resourcesViolated.getCpu() * vm.getRevenue().getCpu() * Parameter.PENALTY_FACTOR.get(0);
-        violationRevenue += resourcesViolated.getRam() * vm.getRevenue().getRam() * Parameter.PENALTY_FACTOR.get(1);
-        violationRevenue += resourcesViolated.getNet() * vm.getRevenue().getNet() * Parameter.PENALTY_FACTOR.get(2);
-
-        Float currentRevenue = DynamicVMP.revenueAprioriTime.get(timeViolation);
-        Float newAPrioriRevenue = currentRevenue + violationRevenue;
-        DynamicVMP.revenueAprioriTime.put(timeViolation, newAPrioriRevenue);
-
-        if(economicalPenaltiesAprioriTime.get(timeViolation)==null){
-            economicalPenaltiesAprioriTime.put(timeViolation, violationRevenue);
-        }else{
-            Float old = economicalPenaltiesAprioriTime.get(timeViolation);
-            economicalPenaltiesAprioriTime.put(timeViolation, old+violationRevenue);
-        }
+        violationRevenue += resourcesViolated.getCpu() * revenue.get(0) * Parameter.PENALTY_FACTOR.get(0);
+        violationRevenue += resourcesViolated.getRam() * revenue.get(1) * Parameter.PENALTY_FACTOR.get(1);
+        violationRevenue += resourcesViolated.getNet() * revenue.get(2) * Parameter.PENALTY_FACTOR.get(2);
+
+        DynamicVMP.revenueAprioriTime.add(timeViolation, violationRevenue);
+        economicalPenaltiesAprioriTime.add(timeViolation, violationRevenue);
         economicalPenalties += violationRevenue;
     }
 
@@ -610,9 +676,9 @@ public class DynamicVMP {
 
         Float leasingCostRevenue = 0F;
         for (VirtualMachine dvm : derivedVMs) {
-            leasingCostRevenue += dvm.getResources().get(0) * dvm.getRevenue().getCpu() * Parameter.DERIVE_COST;
-            leasingCostRevenue += dvm.getResources().get(1) * dvm.getRevenue().getRam() * Parameter.DERIVE_COST;
-            leasingCostRevenue += dvm.getResources().get(2) * dvm.getRevenue().getNet() * Parameter.DERIVE_COST;
+            leasingCostRevenue += dvm.getResource(0) * dvm.getRevenue(0) * Parameter.DERIVE_COST;
+            leasingCostRevenue += dvm.getResource(1) * dvm.getRevenue(1) * Parameter.DERIVE_COST;
+            leasingCostRevenue += dvm.getResource(2) * dvm.getRevenue(2) * Parameter.DERIVE_COST;
         }
 
         leasingCostsApriori.add(leasingCostRevenue);
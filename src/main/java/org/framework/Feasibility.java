@@ -0,0 +1,68 @@
+package org.framework;
+
+import org.domain.DatacenterState;
+import org.domain.PhysicalMachine;
+import org.domain.VirtualMachine;
+import org.domain.VmTable;
+
+import java.util.List;
+
+/**
+ * Feasibility of one VM against the PMs of a datacenter
+ * <p>
+ *     The demand of the VM (used resources and protected headroom, by resource) is computed once.
+ *     The first PM tested triggers a scan of every slot of its {@link DatacenterState} with
+ *     {@link DatacenterState#feasibleSlots(float[], float[])}, the following PMs of the same state
+ *     are answered from the bitmap. The result is the same as
+ *     {@link Constraints#checkResources(PhysicalMachine, VirtualMachine, VirtualMachine, List, Boolean)}
+ *     for a new VM, without the fault tolerance check.
+ * </p>
+ * <p>
+ *     The bitmap is computed from the requested resources at the time of the scan, so a new
+ *     instance is needed after the PMs or the VM are modified.
+ * </p>
+ * @since 10/18/26.
+ */
+public class Feasibility {
+
+    private final float[] used = new float[VmTable.NUMBER_OF_RESOURCES];
+
+    private final float[] headroom = new float[VmTable.NUMBER_OF_RESOURCES];
+
+    private DatacenterState state;
+
+    private long[] feasibleSlots;
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param vm Virtual Machine
+     */
+    public Feasibility(VirtualMachine vm) {
+
+        for (int k = 0; k < VmTable.NUMBER_OF_RESOURCES; k++) {
+            float vmResource = vm.getResource(k);
+            float vmUtilization = vm.getUtilization(k);
+            float protectionFactor = Parameter.PROTECTION_FACTOR.get(k);
+            used[k] = vmResource * vmUtilization/100;
+            headroom[k] = vmResource * (1- vmUtilization/100)*protectionFactor;
+        }
+    }
+
+    /* Methods */
+
+    /**
+     * @param pm Physical Machine
+     * @return <b>True</b>, if the resources of the PM can hold the VM (with the protection factor)
+     */
+    public boolean test(PhysicalMachine pm) {
+
+        if (pm.getState() != state) {
+            state = pm.getState();
+            feasibleSlots = state.feasibleSlots(used, headroom);
+        }
+        int slot = pm.getSlot();
+        return (feasibleSlots[slot >>> 6] & (1L << slot)) != 0;
+    }
+}
@@ -0,0 +1,116 @@
+package org.framework;
+
+/**
+ * Memory migrated between pairs of Physical Machines
+ * <p>
+ *     Sparse accumulator keyed by (PM of origin, PM of destination): only the pairs of the VMs
+ *     that moved have an entry, so {@link #getMax()} costs O(moved VMs) instead of a scan of a
+ *     P x P matrix. The entries are cleared in O(entries), an instance is reused across
+ *     evaluations without allocation once its table has grown.
+ * </p>
+ * <p>
+ *     The memory of each pair is added up in float in the order of the calls to
+ *     {@link #add(int, int, float)}, as in a cell of {@link Utils#getMigratedMemoryByPM(java.util.List,
+ *     java.util.List, int)}.
+ * </p>
+ * @since 10/18/26.
+ */
+public class MigratedMemory {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    private float[] memory = new float[INITIAL_CAPACITY];
+
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+
+    // Positions of the table in use, in order of insertion
+    private int[] entries = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    private int mask = INITIAL_CAPACITY - 1;
+
+    /* Methods */
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+
+        for (int i = 0; i < size; i++) {
+            used[entries[i]] = false;
+        }
+        size = 0;
+    }
+
+    /**
+     * Add memory migrated from a PM to another
+     * @param source Physical Machine ID of origin
+     * @param target Physical Machine ID of destination
+     * @param value  Memory migrated
+     */
+    public void add(int source, int target, float value) {
+
+        long key = ((long) source << 32) | (target & 0xFFFFFFFFL);
+        int i = hash(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                memory[i] += value;
+                return;
+            }
+        }
+        used[i] = true;
+        keys[i] = key;
+        // Same sum as a cell of the matrix, that starts at zero
+        memory[i] = 0F + value;
+        entries[size++] = i;
+        if (size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * @return Max memory migrated between two PMs, zero if there are no entries
+     */
+    public float getMax() {
+
+        float maxMigratedMemory = 0F;
+        for (int i = 0; i < size; i++) {
+            if (memory[entries[i]] > maxMigratedMemory) {
+                maxMigratedMemory = memory[entries[i]];
+            }
+        }
+        return maxMigratedMemory;
+    }
+
+    private void rehash(int capacity) {
+
+        long[] oldKeys = keys;
+        float[] oldMemory = memory;
+        int[] oldEntries = entries;
+        keys = new long[capacity];
+        memory = new float[capacity];
+        used = new boolean[capacity];
+        entries = new int[capacity];
+        mask = capacity - 1;
+        for (int n = 0; n < size; n++) {
+            int old = oldEntries[n];
+            int i = hash(oldKeys[old]);
+            while (used[i]) {
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = oldKeys[old];
+            memory[i] = oldMemory[old];
+            entries[n] = i;
+        }
+    }
+
+    private int hash(long key) {
+
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,119 @@
+package org.framework;
+
+import org.domain.APrioriValue;
+import org.framework.reconfigurationAlgorithm.enums.ScalarizationMethodEnum;
+
+import java.util.List;
+
+/**
+ * Score of a placement from the values of its objective functions
+ * <p>
+ *     Each value is normalized with the bounds of its {@link APrioriValue} (see
+ *     {@link Utils#normalizeValue(Float, Float, Float)}) and the normalized values are combined with
+ *     the {@link Parameter#SCALARIZATION_METHOD}. The method and the bounds are resolved once, in
+ *     the constructor, so a score is computed without allocation. An instance is not thread safe.
+ * </p>
+ * @since 10/18/26.
+ */
+public class ObjectiveScore {
+
+    private final List<APrioriValue> aPrioriValues;
+
+    private final ScalarizationMethodEnum method;
+
+    private final float weight;
+
+    private final int numberOfObjFunctions;
+
+    private final float[] minValues;
+
+    // maxValue - minValue
+    private final float[] ranges;
+
+    // The bounds are equal, the normalized value is zero
+    private final boolean[] degenerate;
+
+    // The max value is unknown, the value is normalized with Utils.normalizeValue
+    private final boolean[] unbounded;
+
+    private final float[] normalizedValues;
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param aPrioriValues        A priori values of the objective functions
+     * @param numberOfObjFunctions Number of objective functions of the score
+     * @param weight               Weight of each objective function (Weighted Sum)
+     */
+    public ObjectiveScore(List<APrioriValue> aPrioriValues, int numberOfObjFunctions, Float weight) {
+
+        this.aPrioriValues = aPrioriValues;
+        this.method = ScalarizationMethodEnum.getByCode(Parameter.SCALARIZATION_METHOD);
+        this.weight = weight;
+        this.numberOfObjFunctions = numberOfObjFunctions;
+        this.minValues = new float[numberOfObjFunctions];
+        this.ranges = new float[numberOfObjFunctions];
+        this.degenerate = new boolean[numberOfObjFunctions];
+        this.unbounded = new boolean[numberOfObjFunctions];
+        this.normalizedValues = new float[numberOfObjFunctions];
+
+        for (int i = 0; i < numberOfObjFunctions; i++) {
+            APrioriValue aPrioriValue = aPrioriValues.get(i);
+            Float minValue = aPrioriValue.getMinValue();
+            Float maxValue = aPrioriValue.getMaxValue();
+            unbounded[i] = maxValue == null;
+            if (!unbounded[i]) {
+                minValues[i] = minValue;
+                ranges[i] = maxValue - minValue;
+                degenerate[i] = maxValue.equals(minValue);
+            }
+        }
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @param aPrioriValues        A priori values of the objective functions
+     * @param numberOfObjFunctions Number of objective functions of the score
+     * @return <b>True</b>, if the score was built for the same a priori values
+     */
+    public boolean isFor(List<APrioriValue> aPrioriValues, int numberOfObjFunctions) {
+        return this.aPrioriValues == aPrioriValues && this.numberOfObjFunctions == numberOfObjFunctions;
+    }
+
+    /* Methods */
+
+    /**
+     * @param objectiveFunctions Values of the objective functions
+     * @return Placement Score
+     */
+    public float getScore(Float[] objectiveFunctions) {
+
+        for (int i = 0; i < numberOfObjFunctions; i++) {
+            normalizedValues[i] = objectiveFunctions[i];
+        }
+        return getScore(normalizedValues);
+    }
+
+    /**
+     * @param objectiveFunctions Values of the objective functions
+     * @return Placement Score
+     */
+    public float getScore(float[] objectiveFunctions) {
+
+        for (int i = 0; i < numberOfObjFunctions; i++) {
+            float value = objectiveFunctions[i];
+            if (unbounded[i]) {
+                APrioriValue aPrioriValue = aPrioriValues.get(i);
+                normalizedValues[i] = Utils.normalizeValue(value, aPrioriValue.getMinValue(),
+                        aPrioriValue.getMaxValue());
+            } else if (value == 0 || degenerate[i]) {
+                normalizedValues[i] = 0F;
+            } else {
+                normalizedValues[i] = (value - minValues[i]) / ranges[i];
+            }
+        }
+        return method.scalarize(normalizedValues, numberOfObjFunctions, weight);
+    }
+}
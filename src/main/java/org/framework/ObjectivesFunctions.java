@@ -11,10 +11,10 @@ package org.framework;
 
 import org.domain.*;
 import org.framework.iterativeAlgorithm.Heuristics;
+import org.framework.reconfigurationAlgorithm.enums.ResourcesEnum;
+import org.framework.reconfigurationAlgorithm.enums.ScalarizationMethodEnum;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author Saul Zalimben.
@@ -50,19 +50,33 @@ public class ObjectivesFunctions {
 
     /**
      * OF: Power Consumption
+     * <p>
+     *     For a {@link PhysicalMachineList} the value is read from its {@link ObjectiveAccumulator}.
+     * </p>
      * @param physicalMachines List of Physical Machines
      * @return Power Consumption at time t
      */
     public static Float powerConsumption(List<PhysicalMachine> physicalMachines) {
 
-        Float utilidad;
-        Float powerConsumption = 0F;
+        ObjectiveAccumulator objectives = getObjectives(physicalMachines);
+        if (objectives != null) {
+            return objectives.getPowerConsumption();
+        }
 
+        float utilidad;
+        float powerConsumption = 0F;
+        float minPowerPercentage = MIN_POWER_PERCENTAGE;
+
+        // PMs are visited in list order, over the primitive state of each PM
         for (PhysicalMachine pm : physicalMachines) {
-            if (pm.getResourcesRequested().get(0) > 0.0001) {
-                utilidad = pm.getResourcesRequested().get(0) / pm.getResources().get(0);
-                powerConsumption += (pm.getPowerMax() - pm.getPowerMax() * MIN_POWER_PERCENTAGE)
-                        * utilidad + pm.getPowerMax() * MIN_POWER_PERCENTAGE;
+            DatacenterState state = pm.getState();
+            int slot = pm.getSlot();
+            float requestedCPU = state.getRequested(0, slot);
+            if (requestedCPU > 0.0001) {
+                int powerMax = state.getPowerMax(slot);
+                utilidad = requestedCPU / state.getCapacity(0, slot);
+                powerConsumption += (powerMax - powerMax * minPowerPercentage)
+                        * utilidad + powerMax * minPowerPercentage;
             }
         }
 
@@ -71,6 +85,10 @@ public class ObjectivesFunctions {
 
     /**
      * OF: Economical Revenue
+     * <p>
+     *     For a {@link VirtualMachineList} of derived VMs the leasing revenue is read from its
+     *     {@link LeasingRevenue}.
+     * </p>
      * @param virtualMachines    List of Virtual Machines
      * @param derivedVMs         List of Derived Virtual Machines
      * @param timeUnit           Time Unit
@@ -80,32 +98,38 @@ public class ObjectivesFunctions {
             derivedVMs, Integer timeUnit) {
 
         Float totalRevenue = 0F;
-        Float violationRevenue = 0F;
-
-        Violation violation;
-        Resources resources;
-
-        for (VirtualMachine vm : virtualMachines) {
-
-            // Get violation per VM per time (if exists)
-            violation = DynamicVMP.unsatisfiedResources.get(vm.getCloudService()+"_"+vm.getId());
-            if (violation != null && timeUnit != null) {
-                resources = violation.getResourcesViolated().get(timeUnit);
-                // Get Violated Resources
-                if(resources != null) {
-                    violationRevenue += resources.getCpu() * vm.getRevenue().getCpu() * Parameter.PENALTY_FACTOR.get(0);
-                    violationRevenue += resources.getRam() * vm.getRevenue().getRam() * Parameter.PENALTY_FACTOR.get(1);
-                    violationRevenue += resources.getNet() * vm.getRevenue().getNet() * Parameter.PENALTY_FACTOR.get(2);
+        float violationRevenue;
+        int violation;
+
+        // Penalties of the VMs of the list with a violation at time t, at their current revenue
+        if (timeUnit != null && DynamicVMP.violationLedger.hasViolations(timeUnit)) {
+            for (VirtualMachine vm : virtualMachines) {
+                violation = DynamicVMP.violationLedger.indexOf(vm.getCloudService(), vm.getId(), timeUnit);
+                if (violation >= 0) {
+                    violationRevenue = 0F;
+                    violationRevenue += DynamicVMP.violationLedger.getResourceViolated(violation, 0)
+                            * vm.getRevenue(0) * Parameter.PENALTY_FACTOR.get(0);
+                    violationRevenue += DynamicVMP.violationLedger.getResourceViolated(violation, 1)
+                            * vm.getRevenue(1) * Parameter.PENALTY_FACTOR.get(1);
+                    violationRevenue += DynamicVMP.violationLedger.getResourceViolated(violation, 2)
+                            * vm.getRevenue(2) * Parameter.PENALTY_FACTOR.get(2);
+                    totalRevenue += violationRevenue;
                 }
-                totalRevenue += violationRevenue;
-                violationRevenue = 0F;
             }
         }
 
+        LeasingRevenue leasingRevenue = getLeasingRevenue(derivedVMs);
+        if (leasingRevenue != null) {
+            totalRevenue += leasingRevenue.getLeased(0) * Parameter.DERIVE_COST;
+            totalRevenue += leasingRevenue.getLeased(1) * Parameter.DERIVE_COST;
+            totalRevenue += leasingRevenue.getLeased(2) * Parameter.DERIVE_COST;
+            return totalRevenue;
+        }
+
         for (VirtualMachine dvm : derivedVMs) {
-            totalRevenue += dvm.getResources().get(0) * dvm.getRevenue().getCpu() * Parameter.DERIVE_COST;
-            totalRevenue += dvm.getResources().get(1) * dvm.getRevenue().getRam() * Parameter.DERIVE_COST;
-            totalRevenue += dvm.getResources().get(2) * dvm.getRevenue().getNet() * Parameter.DERIVE_COST;
+            totalRevenue += dvm.getResource(0) * dvm.getRevenue(0) * Parameter.DERIVE_COST;
+            totalRevenue += dvm.getResource(1) * dvm.getRevenue(1) * Parameter.DERIVE_COST;
+            totalRevenue += dvm.getResource(2) * dvm.getRevenue(2) * Parameter.DERIVE_COST;
         }
 
         return totalRevenue;
@@ -113,6 +137,10 @@ public class ObjectivesFunctions {
 
     /**
      * OF: Wasted Resources
+     * <p>
+     *     For a {@link PhysicalMachineList} the wasted resources of the working PMs are read from its
+     *     {@link ObjectiveAccumulator}.
+     * </p>
      * @param physicalMachines List of Physical Machines
      * @param wastedResources  List of Wasted Resources
      * @return wastedResourcesRatio
@@ -135,35 +163,49 @@ public class ObjectivesFunctions {
 
         int workingPms = 0;
 
-        for (PhysicalMachine pm : physicalMachines) {
-
-            if (pm.getResourcesRequested().get(0) > 0.0001
-                    || pm.getResourcesRequested().get(1) > 0.0001
-                    || pm.getResourcesRequested().get(2) > 0.0001) {
-
-                workingPms++;
-                float wcpu = 1 - pm.getResourcesRequested().get(0) / pm.getResources().get(0);
-                float wram = 1 - pm.getResourcesRequested().get(1) / pm.getResources().get(1);
-                float wnet = 1 - pm.getResourcesRequested().get(2) / pm.getResources().get(2);
-
-                if(wcpu > 0) {
-                    wastedCPU += wcpu;
-                } else {
-                    wastedCPU += 0;
-                }
-
-                if(wram > 0) {
-                    wastedRAM += wram;
-                } else {
-                    wastedRAM += 0;
-                }
+        ObjectiveAccumulator objectives = getObjectives(physicalMachines);
+        if (objectives != null) {
+            workingPms = objectives.getWorkingPMs();
+            wastedCPU = objectives.getWastedResources(0);
+            wastedRAM = objectives.getWastedResources(1);
+            wastedNET = objectives.getWastedResources(2);
+        } else {
+            for (PhysicalMachine pm : physicalMachines) {
+
+                DatacenterState state = pm.getState();
+                int slot = pm.getSlot();
+                float requestedCPU = state.getRequested(0, slot);
+                float requestedRAM = state.getRequested(1, slot);
+                float requestedNET = state.getRequested(2, slot);
+
+                if (requestedCPU > 0.0001
+                        || requestedRAM > 0.0001
+                        || requestedNET > 0.0001) {
+
+                    workingPms++;
+                    float wcpu = 1 - requestedCPU / state.getCapacity(0, slot);
+                    float wram = 1 - requestedRAM / state.getCapacity(1, slot);
+                    float wnet = 1 - requestedNET / state.getCapacity(2, slot);
+
+                    if(wcpu > 0) {
+                        wastedCPU += wcpu;
+                    } else {
+                        wastedCPU += 0;
+                    }
+
+                    if(wram > 0) {
+                        wastedRAM += wram;
+                    } else {
+                        wastedRAM += 0;
+                    }
+
+                    if(wnet > 0) {
+                        wastedNET += wnet;
+                    } else {
+                        wastedNET += 0;
+                    }
 
-                if(wnet > 0) {
-                    wastedNET += wnet;
-                } else {
-                    wastedNET += 0;
                 }
-
             }
         }
 
@@ -192,6 +234,36 @@ public class ObjectivesFunctions {
         return wastedResourcesRatio;
     }
 
+    /**
+     * @param physicalMachines List of Physical Machines
+     * @return Objective functions maintained by the list, <b>null</b> if the list does not keep them
+     */
+    private static ObjectiveAccumulator getObjectives(List<PhysicalMachine> physicalMachines) {
+
+        if (physicalMachines instanceof PhysicalMachineList) {
+            ObjectiveAccumulator objectives = ((PhysicalMachineList) physicalMachines).getObjectives();
+            if (objectives.isUsable()) {
+                return objectives;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param virtualMachines List of Virtual Machines
+     * @return Leasing revenue maintained by the list, <b>null</b> if the list does not keep it
+     */
+    private static LeasingRevenue getLeasingRevenue(List<VirtualMachine> virtualMachines) {
+
+        if (virtualMachines instanceof VirtualMachineList) {
+            LeasingRevenue leasingRevenue = ((VirtualMachineList) virtualMachines).getLeasingRevenue();
+            if (leasingRevenue.isUsable()) {
+                return leasingRevenue;
+            }
+        }
+        return null;
+    }
+
     /**
      * OF: Migration Count
      * @param oldVirtualMachineList List of Virtual Machines (before Migration)
@@ -246,19 +318,34 @@ public class ObjectivesFunctions {
      */
     public static Float migratedMemoryBtwPM(List<VirtualMachine> oldVirtualMachineList, List<VirtualMachine> newVirtualMachineList, Integer numberOfPMs){
 
-        //get the memory migrated between physical machines
-        Float[][] migrationMatrix  = Utils.getMigratedMemoryByPM(oldVirtualMachineList,newVirtualMachineList,numberOfPMs);
-        //set the max memory migrated
-        Float maxMigratedMemory = 0F;
-        for(int iteratorRow=0;iteratorRow<numberOfPMs;iteratorRow++){
-            for(int iteratorColumn=0;iteratorColumn<numberOfPMs;iteratorColumn++){
-                //check  migrated memory between two physical machines
-                if(migrationMatrix[iteratorRow][iteratorColumn] > maxMigratedMemory){
-                    maxMigratedMemory = migrationMatrix[iteratorRow][iteratorColumn];
-                }
+        return migratedMemoryBtwPM(oldVirtualMachineList, newVirtualMachineList, new MigratedMemory());
+    }
+
+    /**
+     * OF: Max Migrated memory between Physical Machines
+     * <p>
+     *     Only the VMs that moved are added up, by pair of PMs, in <b>migratedMemory</b>.
+     * </p>
+     * @param oldVirtualMachineList List of VMs (before migration)
+     * @param newVirtualMachineList List of VMs (after migration)
+     * @param migratedMemory        Accumulator reused across evaluations, cleared first
+     * @return max migrated memory between two physical machines
+     */
+    public static Float migratedMemoryBtwPM(List<VirtualMachine> oldVirtualMachineList,
+            List<VirtualMachine> newVirtualMachineList, MigratedMemory migratedMemory) {
+
+        int ramIndex = ResourcesEnum.RAM.getIndex();
+        migratedMemory.clear();
+        for (int iteratorVM = 0; iteratorVM < oldVirtualMachineList.size(); iteratorVM++) {
+            VirtualMachine vm = oldVirtualMachineList.get(iteratorVM);
+            int oldVMPosition = vm.getPhysicalMachine();
+            int newVMPosition = newVirtualMachineList.get(iteratorVM).getPhysicalMachine();
+            if (oldVMPosition != newVMPosition && newVMPosition != 0) {
+                migratedMemory.add(oldVMPosition, newVMPosition,
+                        vm.getResources().get(ramIndex) * (vm.getUtilization().get(ramIndex)/100));
             }
         }
-        return maxMigratedMemory;
+        return migratedMemory.getMax();
     }
 
     /**
@@ -269,54 +356,12 @@ public class ObjectivesFunctions {
      */
     public static Float getScalarizationMethod(List<Float> objFunctValues, Float weight){
 
-        if("ED".equals(Parameter.SCALARIZATION_METHOD)) {
-            return getEuclideanDistance(objFunctValues);
-        } else if("CD".equals(Parameter.SCALARIZATION_METHOD)) {
-            return getChebyshevDistance(objFunctValues);
-        } else if("MD".equals(Parameter.SCALARIZATION_METHOD)) {
-            return getManhattanDistance(objFunctValues);
-        } else {
-            return getWeightedSum(objFunctValues, weight);
-        }
-
-    }
-
-    private static Float getEuclideanDistance(final List<Float> objFunctValues) {
-
-        float tempSum = 0;
-        for (Float objFunctValue : objFunctValues) {
-            //sum the square of each objective function
-            tempSum += Math.pow(objFunctValue,2);
-        }
-        Double distance = Math.sqrt(tempSum);
-        return distance.floatValue();
-    }
-
-    private static Float getChebyshevDistance(final List<Float> objFunctValues) {
-
-        return objFunctValues.stream().max(Float::compareTo).get();
-
-    }
-
-    private static Float getManhattanDistance(final List<Float> objFunctValues) {
-
-        Double d = objFunctValues.stream().mapToDouble(Float::doubleValue).sum();
-
-        return d.floatValue();
-
-    }
-
-    private static Float getWeightedSum(final List<Float> objFunctValues, Float weight) {
-
-        float tempSum = 0F;
-
-        for (Float objFunctValue : objFunctValues) {
-            //sum the square of each objective function
-            tempSum += weight * objFunctValue;
+        float[] values = new float[objFunctValues.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = objFunctValues.get(i);
         }
-
-        return tempSum;
-
+        return ScalarizationMethodEnum.getByCode(Parameter.SCALARIZATION_METHOD)
+                .scalarize(values, values.length, weight);
     }
 
     /**
@@ -333,8 +378,8 @@ public class ObjectivesFunctions {
      */
     public static void getObjectiveFunctionsByTime(List<PhysicalMachine> physicalMachines,
             List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs,
-            List<Resources> wastedResources,  Map<Integer, Float> wastedResourcesRatioByTime,
-            Map<Integer, Float> powerByTime,  Map<Integer, Float> revenueByTime,
+            List<Resources> wastedResources,  TimeSeries wastedResourcesRatioByTime,
+            TimeSeries powerByTime,  TimeSeries revenueByTime,
             Integer timeUnit, Integer currentTimeUnit ) {
 
         // Remove VM from previous t
@@ -364,8 +409,8 @@ public class ObjectivesFunctions {
      * @param revenueByTime              Revenue per time t
      * @return Distance to origen in time t
      */
-    public static Float getDistanceOrigenByTime (Integer timeUnit, Float maxPower,  Map<Integer, Float> powerByTime,
-            Map<Integer, Float> revenueByTime,  Map<Integer, Float> wastedResourcesRatioByTime) {
+    public static Float getDistanceOrigenByTime (Integer timeUnit, Float maxPower,  TimeSeries powerByTime,
+            TimeSeries revenueByTime,  TimeSeries wastedResourcesRatioByTime) {
 
         // Sum of all results at each time t. (Normalized)
         Float powerConsumptionResult = 0F;
@@ -374,7 +419,7 @@ public class ObjectivesFunctions {
         Float normalizedPowerConsumption;
         Float normalizedRevenue;
 
-        if (powerByTime.get(timeUnit) == null ) {
+        if (!powerByTime.contains(timeUnit)) {
             powerByTime.put(timeUnit, 0F);
             revenueByTime.put(timeUnit, 0F);
             wastedResourcesRatioByTime.put(timeUnit, 0F);
@@ -383,7 +428,7 @@ public class ObjectivesFunctions {
         normalizedPowerConsumption = Utils.normalizeValue(powerByTime.get(timeUnit), MIN_POWER, maxPower);
 
         // Revenue
-        if(revenueByTime.get(timeUnit) != null && revenueByTime.get(timeUnit) > 0) {
+        if(revenueByTime.contains(timeUnit) && revenueByTime.get(timeUnit) > 0) {
             normalizedRevenue = Utils.normalizeValue(revenueByTime.get(timeUnit), MIN_REVENUE,
                     DynamicVMP.revenueAprioriTime.get(timeUnit));
 
@@ -395,12 +440,10 @@ public class ObjectivesFunctions {
         revenueResult += normalizedRevenue;
         wastedResourcesResult += wastedResourcesRatioByTime.get(timeUnit);
 
-        List<Float> objectiveFunctionsResult = new ArrayList<>();
-        objectiveFunctionsResult.add(powerConsumptionResult);
-        objectiveFunctionsResult.add(revenueResult);
-        objectiveFunctionsResult.add(wastedResourcesResult);
+        float[] objectiveFunctionsResult = {powerConsumptionResult, revenueResult, wastedResourcesResult};
 
-        return ObjectivesFunctions.getScalarizationMethod(objectiveFunctionsResult, Constant.WEIGHT_ONLINE);
+        return ScalarizationMethodEnum.getByCode(Parameter.SCALARIZATION_METHOD)
+                .scalarize(objectiveFunctionsResult, objectiveFunctionsResult.length, Constant.WEIGHT_ONLINE);
     }
 
     /**
@@ -425,24 +468,22 @@ public class ObjectivesFunctions {
     /**
      * Get Scenario Score
      * @param revenueByTime Revenue By Time
-     * @param placements List of Placement per time T
+     * @param placements Placement History
      * @param realRevenue Real revenue lost
      * @return Scenario score
      */
-    public static Float getScenarioScore( Map<Integer, Float> revenueByTime, Map<Integer, Placement> placements,
+    public static Float getScenarioScore( TimeSeries revenueByTime, PlacementHistory placements,
             final Float[] realRevenue) {
 
         // Calculates total revenue lost
-        for (Map.Entry<Integer, Float> entry : revenueByTime.entrySet()) {
-            realRevenue[0] += entry.getValue();
+        for (int t = 0; t <= revenueByTime.getLastTimeUnit(); t++) {
+            if (revenueByTime.contains(t)) {
+                realRevenue[0] += revenueByTime.get(t);
+            }
         }
 
         // Calculates scenario score
-        Float scenarioScored = 0F;
-        for (Map.Entry<Integer, Placement> entry : placements.entrySet()) {
-            scenarioScored += entry.getValue().getPlacementScore();
-        }
-        return scenarioScored;
+        return placements.getTotalScore();
     }
 }
 
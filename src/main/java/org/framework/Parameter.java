@@ -113,6 +113,12 @@ public class Parameter {
      */
     public static Integer FORECAST_SIZE;
 
+    /**
+     * Number of last placements kept in memory, besides the ones needed by a reconfiguration
+     * ({@link org.domain.PlacementHistory#RETAIN_ALL} = ALL)
+     */
+    public static Integer PLACEMENT_RETENTION = 1;
+
     /**
      * Map of the Scalarization Method
      * ED = Euclidean Distance
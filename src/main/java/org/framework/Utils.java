@@ -14,9 +14,16 @@ import org.framework.comparator.MemoryComparator;
 import org.framework.reconfigurationAlgorithm.acoAlgorithm.AcoSettings;
 import org.framework.reconfigurationAlgorithm.enums.ResourcesEnum;
 import org.framework.reconfigurationAlgorithm.memeticAlgorithm.MASettings;
+import org.framework.workload.BinaryTrace;
+import org.framework.workload.MappedTraceReader;
+import org.framework.workload.WorkloadCursor;
+import org.framework.workload.WorkloadReader;
+import org.framework.workload.WorkloadTrace;
+import org.framework.workload.WorkloadTraceReader;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
@@ -69,6 +76,8 @@ public class Utils {
             Stream<String> stream) {
 
         Float[] maxPower = new Float[1];
+        // CPU, RAM and NET of every PM
+        DatacenterState state = new DatacenterState(3);
 
         maxPower[0] = 0F;
         stream.forEach(line -> {
@@ -86,7 +95,7 @@ public class Utils {
             resources.add(r2);
             resources.add(r3);
 
-            PhysicalMachine pm = new PhysicalMachine(physicalMachines.size(), pmax, resources);
+            PhysicalMachine pm = new PhysicalMachine(state, physicalMachines.size(), pmax, resources);
             physicalMachines.add(pm);
             maxPower[0] += pm.getPowerMax();
         });
@@ -96,74 +105,19 @@ public class Utils {
 
     /**
      * Load the workloadtrace
-     * @param scenarios Workload trace
-     * @param stream    InputStream
-     */
-    private static void loadScenario(List<Scenario> scenarios,
-            Stream<String> stream) {
-
-        stream.forEach(line -> {
-
-            Resources resources = new Resources();
-            Resources utilization = new Resources();
-            Revenue revenue = new Revenue();
-
-            String[] splitLine = line.split("\t");
-            Integer time = Integer.parseInt(splitLine[0]);
-            Integer service = Integer.parseInt(splitLine[1]);
-            Integer datacenter = Integer.parseInt(splitLine[2]);
-            Integer virtualMachine = Integer.parseInt(splitLine[3]);
-            loadResources(resources, splitLine);
-            loadUtilization(utilization, splitLine);
-            loadRevenue(revenue,splitLine);
-            Integer tinit = Integer.parseInt(splitLine[13]);
-            Integer tend = Integer.parseInt(splitLine[14]);
-            Scenario scenario = new Scenario(time, service, datacenter, virtualMachine, resources,
-                    utilization, revenue, tinit, tend );
-
-            scenarios.add(scenario);
-        });
-    }
-
-    /**
-     * @param utilization Utilization
-     * @param splitLine   String file
-     */
-    private static void loadUtilization(Resources utilization, String[] splitLine) {
-
-        Float u1 = Float.parseFloat(splitLine[7]);
-        Float u2 = Float.parseFloat(splitLine[8]);
-        Float u3 = Float.parseFloat(splitLine[9]);
-
-        utilization.setCpu(u1);
-        utilization.setRam(u2);
-        utilization.setNet(u3);
-    }
-
-    /**
-     * @param resources Resources
-     * @param splitLine String file
+     * <p>
+     *     A {@link BinaryTrace} file is loaded with a single bulk read, a text file is memory-mapped
+     *     and parsed into primitive columns by {@link MappedTraceReader}.
+     * </p>
+     * @param scenarios    Workload trace
+     * @param scenarioFile Workload trace file
+     * @throws IOException Error managing files
      */
-    private static void loadResources(Resources resources, String[] splitLine) {
-
-        Float r1 = Float.parseFloat(splitLine[4]);
-        Float r2 = Float.parseFloat(splitLine[5]);
-        Float r3 = Float.parseFloat(splitLine[6]);
+    private static void loadScenario(List<Scenario> scenarios, Path scenarioFile) throws IOException {
 
-        resources.setCpu(r1);
-        resources.setRam(r2);
-        resources.setNet(r3);
-    }
-
-    private  static void loadRevenue(Revenue revenue, String[] splitLine){
-
-        Float r1 = Float.parseFloat(splitLine[10]);
-        Float r2 = Float.parseFloat(splitLine[11]);
-        Float r3 = Float.parseFloat(splitLine[12]);
-
-        revenue.setCpu(r1);
-        revenue.setRam(r2);
-        revenue.setNet(r3);
+        WorkloadTrace trace = BinaryTrace.isBinaryTrace(scenarioFile) ? BinaryTrace.read(scenarioFile)
+                : MappedTraceReader.readAll(scenarioFile);
+        trace.toScenarios(scenarios);
     }
 
     public static int getRandomInt(int min, int max){
@@ -201,11 +155,17 @@ public class Utils {
 
     /**
      * List of Virtual per PM
+     * <p>
+     *     For a {@link VirtualMachineList} the VMs are read from its index by PM.
+     * </p>
      * @param virtualMachineList List of Virtual Machines
      * @param physicalMachineId Physical Machine ID
      * @return List of Virtual per PM
      */
     public static List<VirtualMachine> filterVMsByPM(List<VirtualMachine> virtualMachineList, Integer physicalMachineId){
+        if (virtualMachineList instanceof VirtualMachineList) {
+            return ((VirtualMachineList) virtualMachineList).getByPhysicalMachine(physicalMachineId);
+        }
         Predicate<VirtualMachine> vmFilter =  vm -> vm.getPhysicalMachine().equals(physicalMachineId);
         return virtualMachineList.stream().filter(vmFilter).collect(Collectors.toList());
     }
@@ -257,26 +217,60 @@ public class Utils {
     public static Float loadDatacenter(String pmConfig, String scenarioFile, List<PhysicalMachine> physicalMachines,
             List<Scenario> scenarios) throws IOException {
 
-        Float maxPower;
+        Float maxPower = loadPhysicalMachines(pmConfig, physicalMachines);
+
+        try {
+            Utils.loadScenario(scenarios, Paths.get(INPUT + scenarioFile));
+        } catch (IOException e) {
+            Logger.getLogger(DynamicVMP.DYNAMIC_VMP).log(Level.SEVERE, "Error trying to load Scenario: " +
+                    scenarioFile);
+            throw e;
+        }
+
+        return  maxPower;
+    }
+
+
+    /**
+     * Load the Physical Machine Configuration
+     * @param pmConfig         CPU Load Configuration
+     * @param physicalMachines List of Physical Machines
+     * @return MaxPower DC
+     * @throws IOException Error managing files
+     */
+    public static Float loadPhysicalMachines(String pmConfig, List<PhysicalMachine> physicalMachines)
+            throws IOException {
+
         try (Stream<String> stream = lines(Paths.get(INPUT + pmConfig))) {
-            maxPower = Utils.loadPhysicalMachines(physicalMachines, stream);
+            return Utils.loadPhysicalMachines(physicalMachines, stream);
         } catch (IOException e) {
             Logger.getLogger(DynamicVMP.DYNAMIC_VMP).log(Level.SEVERE, "Error trying to load PM Configuration!");
             throw e;
         }
+    }
+
+    /**
+     * Open a streaming cursor over the workload trace (text or {@link BinaryTrace} format)
+     * @param scenarioFile   Scenario File
+     * @param sortByTimeUnit Sort the requests of each time unit (Decreasing Algorithms)
+     * @return Workload Trace cursor
+     * @throws IOException Error managing files
+     */
+    public static WorkloadCursor openWorkload(String scenarioFile, Boolean sortByTimeUnit) throws IOException {
 
-        try (Stream<String> stream = lines(Paths.get(INPUT + scenarioFile))) {
-            Utils.loadScenario(scenarios, stream);
+        Path path = Paths.get(INPUT + scenarioFile);
+        try {
+            WorkloadReader reader = BinaryTrace.isBinaryTrace(path)
+                    ? new WorkloadTraceReader(BinaryTrace.read(path))
+                    : new MappedTraceReader(path);
+            return new WorkloadCursor(reader, sortByTimeUnit);
         } catch (IOException e) {
             Logger.getLogger(DynamicVMP.DYNAMIC_VMP).log(Level.SEVERE, "Error trying to load Scenario: " +
                     scenarioFile);
             throw e;
         }
-
-        return  maxPower;
     }
 
-
     /**
      * Print to File
      *
@@ -439,32 +433,21 @@ public class Utils {
     public static void removeDeadVMsFromPlacement(Placement placement, Integer currentTimeUnit, Integer numberOfResources) {
 
 		Integer iteratorResource;
-		List<VirtualMachine> toRemoveVMs = new ArrayList<>();
+		List<VirtualMachine> toRemoveVMs;
 		List<PhysicalMachine> physicalMachineList = placement.getPhysicalMachines();
 		PhysicalMachine pm;
 		Float resourceUpdate;
 
-		//collect the vm to remove from the placement.VirtualMachine
-		for (VirtualMachine vm : placement.getVirtualMachineList()){
-			//if the vm is dead
-			if (vm.getTend() <= currentTimeUnit) {
-				toRemoveVMs.add(vm);
-				pm = PhysicalMachine.getById(vm.getPhysicalMachine(),physicalMachineList);
-				for(iteratorResource=0;iteratorResource<numberOfResources;iteratorResource++){
-					resourceUpdate = vm.getResources().get(iteratorResource)*(vm.getUtilization().get(iteratorResource)/100);
-					updatePMResRequested(pm,iteratorResource,resourceUpdate,false);
-				}
-
+		//collect the dead vms of the placement.VirtualMachine
+		toRemoveVMs = VirtualMachine.getExpiredVMs(placement.getVirtualMachineList(), currentTimeUnit);
+		for (VirtualMachine vm : toRemoveVMs){
+			pm = PhysicalMachine.getById(vm.getPhysicalMachine(),physicalMachineList);
+			for(iteratorResource=0;iteratorResource<numberOfResources;iteratorResource++){
+				resourceUpdate = vm.getResources().get(iteratorResource)*(vm.getUtilization().get(iteratorResource)/100);
+				updatePMResRequested(pm,iteratorResource,resourceUpdate,false);
 			}
 		}
-		placement.getVirtualMachineList().removeAll(toRemoveVMs);
-		toRemoveVMs.clear();
-        //collect the vm to remove from the placement.DerivedVirtualMachine
-        placement.getDerivedVMs().forEach(dvm -> {
-            if (dvm.getTend() <= currentTimeUnit) {
-                toRemoveVMs.add(dvm);
-            }
-        });
+		VirtualMachine.removeVMsList(placement.getVirtualMachineList(), toRemoveVMs);
 	}
 
     /**
@@ -474,14 +457,8 @@ public class Utils {
      * @param currentTimeUnit Current time
      */
     public static void removeDeadVMsMigrated(List<VirtualMachine> vmsToMigrate,Integer currentTimeUnit){
-		List<VirtualMachine> toRemoveVMs = new ArrayList<>();
-		vmsToMigrate.forEach(mvm -> {
-            //if the vm is dead
-            if (mvm.getTend() <= currentTimeUnit) {
-                toRemoveVMs.add(mvm);
-            }
-        });
-		vmsToMigrate.removeAll(toRemoveVMs);
+		List<VirtualMachine> toRemoveVMs = VirtualMachine.getExpiredVMs(vmsToMigrate, currentTimeUnit);
+		VirtualMachine.removeVMsList(vmsToMigrate, toRemoveVMs);
 	}
 
     /**
@@ -513,7 +490,7 @@ public class Utils {
         int iterator;
         int oldPosition;
         int newPosition;
-        List<VirtualMachine> vmsToMigrate = new ArrayList<>();
+        List<VirtualMachine> vmsToMigrate = new VirtualMachineList();
         for(iterator=0;iterator<oldVirtualMachineList.size();iterator++){
             oldPosition = oldVirtualMachineList.get(iterator).getPhysicalMachine();
             newPosition = newVirtualMachineList.get(iterator).getPhysicalMachine();
@@ -532,17 +509,19 @@ public class Utils {
 	 * @return Placement Score
 	 */
 	public static Float calcPlacemenScore(Float[] objectiveFuntions, List<APrioriValue> aPrioriValuesList){
-		Float normalizedValue;
-		APrioriValue aPrioriValue;
-		List<Float> normalizedValues = new ArrayList<>();
-		int iteratorObjFuncts;
-		for(iteratorObjFuncts = 0; iteratorObjFuncts < Constant.NUM_OBJ_FUNCT_COMP; iteratorObjFuncts++){
-			aPrioriValue = aPrioriValuesList.get(iteratorObjFuncts);
-			normalizedValue = Utils.normalizeValue(objectiveFuntions[iteratorObjFuncts],aPrioriValue.getMinValue()
-					,aPrioriValue.getMaxValue());
-			normalizedValues.add(normalizedValue);
-		}
-		return ObjectivesFunctions.getScalarizationMethod(normalizedValues, Constant.WEIGHT_OFFLINE);
+		return new ObjectiveScore(aPrioriValuesList, Constant.NUM_OBJ_FUNCT_COMP, Constant.WEIGHT_OFFLINE)
+				.getScore(objectiveFuntions);
+	}
+
+	/***
+	 *
+	 * @param objectiveFuntions Objective Functions []
+	 * @param aPrioriValuesList Apriori Values
+	 * @return Placement Score
+	 */
+	public static Float calcPlacemenScore(float[] objectiveFuntions, List<APrioriValue> aPrioriValuesList){
+		return new ObjectiveScore(aPrioriValuesList, Constant.NUM_OBJ_FUNCT_COMP, Constant.WEIGHT_OFFLINE)
+				.getScore(objectiveFuntions);
 	}
 
 
@@ -699,6 +678,12 @@ public class Utils {
         Parameter.FORECAST_SIZE =Integer.parseInt( (String)  parameterMap.get("FORECAST_SIZE"));
         Parameter.SCALARIZATION_METHOD = (String) parameterMap.get("SCALARIZATION_METHOD");
 
+        if(parameterMap.get("PLACEMENT_RETENTION")!=null) {
+            String retention = (String) parameterMap.get("PLACEMENT_RETENTION");
+            Parameter.PLACEMENT_RETENTION = "ALL".equals(retention) ? PlacementHistory.RETAIN_ALL
+                    : Integer.parseInt(retention);
+        }
+
         if(parameterMap.get("MAX_PHEROMONE")!=null) {
             Parameter.MAX_PHEROMONE = new Float((String) parameterMap.get("MAX_PHEROMONE"));
         }
@@ -844,42 +829,46 @@ public class Utils {
 
 	/**
 	 *
-	 * @param pwConsumptionByTime Power Consumption By Time
+	 * @param pwConsumptionByTime Power Consumption By Time, normalized by its summary
 	 * @return Average Power Consumption By Time
 	 */
-	public static Float getAvgPwConsumptionNormalized(Map<Integer,Float>  pwConsumptionByTime){
-        List<Float> pwConsumptionNormalizedList = pwConsumptionByTime.entrySet().stream().map(pw->{
-	        Float revenue = pw.getValue();
-	        return normalizeValue(revenue,ObjectivesFunctions.MIN_POWER,DynamicVMP.maxPower);
-        }).collect(Collectors.toList());
-
-		return average(pwConsumptionNormalizedList);
+	public static Float getAvgPwConsumptionNormalized(TimeSeries pwConsumptionByTime){
+		return pwConsumptionByTime.getSummary().getAverage();
 	}
 
 	/**
 	 *
-	 * @param revenueByTime Map of Revenue By Time
-	 * @return Average Revenue By Time
+	 * @param revenueByTime Revenue By Time
+	 * @return Average Revenue By Time, normalized with the a priori revenue of each time unit
 	 */
-	public static Float getAvgRevenueNormalized(Map<Integer,Float> revenueByTime){
-		List<Float> revenueNormalizedList = revenueByTime.entrySet().stream().map(r->{
-			Integer timeUnit = r.getKey();
-			Float revenue = r.getValue();
-			Float maxRevenueValue = DynamicVMP.revenueAprioriTime.get(timeUnit);
-			return normalizeValue(revenue,ObjectivesFunctions.MIN_REVENUE,maxRevenueValue);
-		}).collect(Collectors.toList());
-		return average(revenueNormalizedList);
+	public static Float getAvgRevenueNormalized(TimeSeries revenueByTime){
 
+		SeriesSummary normalized = new SeriesSummary();
+		for (int t = 0; t <= revenueByTime.getLastTimeUnit(); t++) {
+			if (revenueByTime.contains(t)) {
+				normalized.add(normalizeValue(revenueByTime.get(t), ObjectivesFunctions.MIN_REVENUE,
+						DynamicVMP.revenueAprioriTime.get(t)));
+			}
+		}
+		return normalized.getAverage();
 	}
 
-	public static Float getAvgPenaltyNormalized(Map<Integer, Float> penaltyByTime){
-	    List<Float> penaltyByTimeList = penaltyByTime.entrySet().stream().map(r->{
-	        Float value = r.getValue();
-            return value;
-	    }).collect(Collectors.toList());
+	/**
+	 *
+	 * @param penaltyByTime Penalty By Time
+	 * @return Average Penalty By Time, normalized between the min and max penalty
+	 */
+	public static Float getAvgPenaltyNormalized(TimeSeries penaltyByTime){
 
-        return getAvgNormalized(penaltyByTimeList);
-    }
+		SeriesSummary penalties = penaltyByTime.getSummary();
+		SeriesSummary normalized = new SeriesSummary();
+		for (int t = 0; t <= penaltyByTime.getLastTimeUnit(); t++) {
+			if (penaltyByTime.contains(t)) {
+				normalized.add(normalizeValue(penaltyByTime.get(t), penalties.getMin(), penalties.getMax()));
+			}
+		}
+		return normalized.getAverage();
+	}
 
 
     public static Float getAvgNormalized(List<Float> list) {
@@ -910,14 +899,11 @@ public class Utils {
 
 	/**
 	 *
-	 * @param wastedResourcesByTime Map of Wasted Resources By Time
+	 * @param wastedResourcesByTime Wasted Resources By Time
 	 * @return Average Wasted Resources By Time
 	 */
-	public static Float getAvgResourcesWNormalized(Map<Integer,Float> wastedResourcesByTime){
-		List<Float> wastedResourcesList = wastedResourcesByTime.entrySet().stream()
-                                                               .map(Map.Entry::getValue)
-                                                               .collect(Collectors.toList());
-		return average(wastedResourcesList);
+	public static Float getAvgResourcesWNormalized(TimeSeries wastedResourcesByTime){
+		return wastedResourcesByTime.getSummary().getAverage();
 	}
 
     /***
@@ -929,8 +915,8 @@ public class Utils {
      */
     public static List<VirtualMachine> getVMsToMigrate(PhysicalMachine pm, List<VirtualMachine> vmsInPM) {
 
-        PhysicalMachine pmCopy = new PhysicalMachine(pm.getId(),pm.getPowerMax(),pm.getResources(),pm.getResourcesRequested(),
-                pm.getUtilization());
+        // What-if on the PM, undone at the end instead of a copy of the PM
+        PlacementTransaction transaction = new PlacementTransaction();
         List<VirtualMachine> vmsToMigrate = new ArrayList<>();
         MemoryComparator comparator =  new MemoryComparator();
         VirtualMachine vm;
@@ -938,11 +924,16 @@ public class Utils {
 
         Collections.sort(vmsInPM, comparator);
 
-        while (!Constraints.isPMOverloaded(pmCopy) || vmIterator.equals(vmsInPM.size())){
-            vm = vmsInPM.get(vmIterator);
-            vmsToMigrate.add(vm);
-            pmCopy.updatePMResources(vm,Utils.SUB);
-            vmIterator++;
+        transaction.begin();
+        try {
+            while (!Constraints.isPMOverloaded(pm) || vmIterator.equals(vmsInPM.size())){
+                vm = vmsInPM.get(vmIterator);
+                vmsToMigrate.add(vm);
+                transaction.releaseVM(vm, pm);
+                vmIterator++;
+            }
+        } finally {
+            transaction.rollback();
         }
 
         return vmsToMigrate;
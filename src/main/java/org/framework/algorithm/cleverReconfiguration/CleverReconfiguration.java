@@ -6,11 +6,11 @@ import org.framework.algorithm.stateOfArt.StateOfArtUtils;
 import org.framework.reconfigurationAlgorithm.acoAlgorithm.AcoCall;
 import org.framework.reconfigurationAlgorithm.concurrent.StaticReconfMemeCall;
 import org.framework.reconfigurationAlgorithm.memeticAlgorithm.MASettings;
+import org.framework.workload.WorkloadCursor;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -46,7 +46,7 @@ public class CleverReconfiguration {
      * @param wastedResources            WastedResources by time
      * @param wastedResourcesRatioByTime WastedResourcesRatio per time
      * @param powerByTime                Power Consumption by time
-     * @param placements                 List of Placement by time
+     * @param placements                 Placement History
      * @param code                       Heuristics Algorithm Code
      * @param timeUnit                   Time init
      * @param requestsProcess            Type of Process
@@ -65,16 +65,17 @@ public class CleverReconfiguration {
      * @throws InterruptedException Multi-thread error
      * @throws ExecutionException   Multi-thread error
      */
-    public static void cleverReconfigurationgManager(List<Scenario> workload, List<PhysicalMachine> physicalMachines,
+    public static void cleverReconfigurationgManager(WorkloadCursor workload, List<PhysicalMachine> physicalMachines,
             List<VirtualMachine>
             virtualMachines, List<VirtualMachine> derivedVMs,
-            Map<Integer, Float> revenueByTime, List<Resources> wastedResources,  Map<Integer, Float> wastedResourcesRatioByTime,
-            Map<Integer, Float> powerByTime, Map<Integer, Placement> placements, Integer code, Integer timeUnit,
+            TimeSeries revenueByTime, List<Resources> wastedResources,  TimeSeries wastedResourcesRatioByTime,
+            TimeSeries powerByTime, PlacementHistory placements, Integer code, Integer timeUnit,
             Integer[] requestsProcess, Float maxPower, String scenarioFile)
             throws IOException, InterruptedException, ExecutionException {
 
         List<APrioriValue> aPrioriValuesList = new ArrayList<>();
         List<VirtualMachine> vmsToMigrate = new ArrayList<>();
+        List<Scenario> arrivals = new ArrayList<>();
         List<Integer> vmsMigrationEndTimes = new ArrayList<>();
         List<Float> valuesSelectedForecast = new ArrayList<>();
 
@@ -98,11 +99,11 @@ public class CleverReconfiguration {
 
         Integer vmEndTimeMigration = 0;
 
-        for (int iterator = 0; iterator < workload.size(); ++iterator) {
-            Scenario request = workload.get(iterator);
+        while (workload.hasNext()) {
+            Scenario request = workload.next();
             actualTimeUnit = request.getTime();
             //check if is the last request, assign -1 to nextTimeUnit if so.
-            nextTimeUnit = iterator + 1 == workload.size() ? -1 : workload.get(iterator + 1).getTime();
+            nextTimeUnit = workload.nextTimeUnit();
 
             if (nextTimeUnit!= -1 && isMigrationActive && DynamicVMP.isVmBeingMigrated(request.getVirtualMachineID(),
                     vmsToMigrate)){
@@ -115,10 +116,19 @@ public class CleverReconfiguration {
                 isUpdateVmUtilization = actualTimeUnit <= vmEndTimeMigration;
             }
 
-            DynamicVMP.runHeuristics(request, code, physicalMachines, virtualMachines, derivedVMs, requestsProcess, isUpdateVmUtilization);
+            if (DynamicVMP.isArrival(request)) {
+                // New VMs are admitted together, before the next update or at the end of the time unit
+                arrivals.add(request);
+            } else {
+                DynamicVMP.admitArrivals(arrivals, code, physicalMachines, virtualMachines, derivedVMs,
+                        requestsProcess);
+                DynamicVMP.runHeuristics(request, code, physicalMachines, virtualMachines, derivedVMs,
+                        requestsProcess, isUpdateVmUtilization);
+            }
 
             // Check if its the last request or a variation of time unit will occurs.
             if (nextTimeUnit == -1 || !actualTimeUnit.equals(nextTimeUnit)) {
+                DynamicVMP.admitArrivals(arrivals, code, physicalMachines, virtualMachines, derivedVMs, requestsProcess);
 
                 ObjectivesFunctions.getObjectiveFunctionsByTime(physicalMachines,
                         virtualMachines, derivedVMs, wastedResources,
@@ -134,9 +144,7 @@ public class CleverReconfiguration {
 
                 timeUnit = actualTimeUnit;
 
-                Placement heuristicPlacement = new Placement(PhysicalMachine.clonePMsList(physicalMachines),
-                        VirtualMachine.cloneVMsList(virtualMachines),
-                        VirtualMachine.cloneVMsList(derivedVMs), placementScore);
+                Placement heuristicPlacement = Placement.snapshot(physicalMachines, virtualMachines, derivedVMs, placementScore);
                 placements.put(actualTimeUnit, heuristicPlacement);
 
                 // Check the historical information
@@ -147,8 +155,8 @@ public class CleverReconfiguration {
                     valuesSelectedForecast.clear();
                     for(int timeIterator = nextTimeUnit - Parameter.HISTORICAL_DATA_SIZE; timeIterator<=actualTimeUnit;
                             timeIterator++){
-                        if(placements.get(timeIterator)!=null){
-                            valuesSelectedForecast.add(placements.get(timeIterator).getPlacementScore());
+                        if(placements.containsScore(timeIterator)){
+                            valuesSelectedForecast.add(placements.getPlacementScore(timeIterator));
                         }else{
                             valuesSelectedForecast.add(0F);
                         }
@@ -175,15 +183,17 @@ public class CleverReconfiguration {
                     }else {
 
                         memeticTimeInit = nextTimeUnit;
+                        // Keep the requests needed to update the placement after the migration
+                        workload.retainFrom(memeticTimeInit);
                         if (!virtualMachines.isEmpty()) {
 
                             // Get the list of a priori values
                             aPrioriValuesList = Utils.getAprioriValuesList(actualTimeUnit);
 
-                            // Clone the current placement
-                            Placement memeticPlacement = new Placement(PhysicalMachine.clonePMsList(physicalMachines),
-                                    VirtualMachine.cloneVMsList(virtualMachines),
-                                    VirtualMachine.cloneVMsList(derivedVMs));
+                            // Snapshot of the current placement
+                            Placement memeticPlacement = Placement.snapshot(physicalMachines, virtualMachines, derivedVMs);
+                            // Keep the placement before the reconfiguration until the migration
+                            placements.pin(memeticTimeInit - 1);
 
 
                             // Get the VMPr algorithm task
@@ -221,6 +231,7 @@ public class CleverReconfiguration {
                             //get vms to migrate
                             vmsToMigrate  = Utils.getVMsToMigrate(reconfgPlacementResult.getVirtualMachineList(),
                                     placements.get(memeticTimeInit - 1).getVirtualMachineList());
+                            placements.unpin(memeticTimeInit - 1);
                             //update de virtual machine list of the placement for the migration operation
                             Utils.removeDeadVMsFromPlacement(reconfgPlacementResult,actualTimeUnit,memeConfig.getNumberOfResources());
                             //update de virtual machines migrated
@@ -256,14 +267,30 @@ public class CleverReconfiguration {
                             reconfgPlacementResult,
                             memeticTimeInit,
                             migrationTimeEnd);
+                    workload.releaseRetained();
 
                     // Update the placement score after filtering dead  virtual machines.
                     reconfgPlacementResult.updatePlacementScore(aPrioriValuesList);
 
                     if(DynamicVMP.isMememeticPlacementBetter(placements.get(actualTimeUnit), memeticPlacement)) {
-                        physicalMachines = new ArrayList<>(memeticPlacement.getPhysicalMachines());
-                        virtualMachines = new ArrayList<>(memeticPlacement.getVirtualMachineList());
-                        derivedVMs = new ArrayList<>(memeticPlacement.getDerivedVMs());
+                        // The replaced lists stop following the writes into the PM state and the VM table
+                        if (physicalMachines instanceof PhysicalMachineList) {
+                            ((PhysicalMachineList) physicalMachines).release();
+                        }
+                        if (virtualMachines instanceof VirtualMachineList) {
+                            ((VirtualMachineList) virtualMachines).release();
+                        }
+                        if (derivedVMs instanceof VirtualMachineList) {
+                            ((VirtualMachineList) derivedVMs).release();
+                        }
+                        physicalMachines = new PhysicalMachineList(memeticPlacement.getPhysicalMachines());
+                        // Release the handles of the replaced VMs and move the new ones to the VM table
+                        VirtualMachine.releaseVMsList(virtualMachines);
+                        VirtualMachine.releaseVMsList(derivedVMs);
+                        virtualMachines = VirtualMachine.moveVMsList(memeticPlacement.getVirtualMachineList(),
+                                DynamicVMP.virtualMachineTable);
+                        derivedVMs = VirtualMachine.moveVMsList(memeticPlacement.getDerivedVMs(),
+                                DynamicVMP.virtualMachineTable);
                     }
                 }
             }
@@ -1,7 +1,9 @@
 package org.framework.algorithm.stateOfArt;
 
 import org.domain.Scenario;
+import org.framework.workload.WorkloadCursor;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -15,11 +17,13 @@ public class StateOfArtUtils {
      * @param memeticTimeInit Memetic Time init
      * @param memeticTimeEnd  Memetic Time end
      * @return <b>True</b>, if a VM is requested during migration <br> <b>False</b>, otherwise
+     * @throws IOException Error managing files
      */
-    public static boolean newVmDuringMemeticExecution(List<Scenario> workload, Integer memeticTimeInit,
-            Integer memeticTimeEnd) {
+    public static boolean newVmDuringMemeticExecution(WorkloadCursor workload, Integer memeticTimeInit,
+            Integer memeticTimeEnd) throws IOException {
 
-        List<Scenario> cloneScenario = Scenario.cloneScneario(workload, memeticTimeInit, memeticTimeEnd);
+        List<Scenario> cloneScenario = Scenario.cloneScneario(workload.window(memeticTimeInit, memeticTimeEnd),
+                memeticTimeInit, memeticTimeEnd);
 
         for (Scenario request : cloneScenario) {
             if (request.getTime() <= request.getTinit()) {
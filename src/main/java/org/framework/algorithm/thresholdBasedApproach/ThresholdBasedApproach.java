@@ -2,11 +2,12 @@ package org.framework.algorithm.thresholdBasedApproach;
 
 import org.domain.*;
 import org.framework.*;
+import org.framework.iterativeAlgorithm.Reallocation;
+import org.framework.workload.WorkloadCursor;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,7 +40,7 @@ public class ThresholdBasedApproach {
      * @param wastedResources            WastedResources by time
      * @param wastedResourcesRatioByTime WastedResourcesRatio per time
      * @param powerByTime                Power Consumption by time
-     * @param placements                 List of Placement by time
+     * @param placements                 Placement History
      * @param code                       Heuristics Algorithm Code
      * @param timeUnit                   Time init
      * @param requestsProcess            Type of Process
@@ -58,16 +59,17 @@ public class ThresholdBasedApproach {
      * @throws InterruptedException Multi-thread error
      * @throws ExecutionException   Multi-thread error
      */
-    public static void thresholdBasedApproachManager(List<Scenario> workload, List<PhysicalMachine> physicalMachines,
+    public static void thresholdBasedApproachManager(WorkloadCursor workload, List<PhysicalMachine> physicalMachines,
             List<VirtualMachine>
             virtualMachines, List<VirtualMachine> derivedVMs,
-            Map<Integer, Float> revenueByTime, List<Resources> wastedResources,  Map<Integer, Float> wastedResourcesRatioByTime,
-            Map<Integer, Float> powerByTime, Map<Integer, Placement> placements, Integer code, Integer timeUnit,
+            TimeSeries revenueByTime, List<Resources> wastedResources,  TimeSeries wastedResourcesRatioByTime,
+            TimeSeries powerByTime, PlacementHistory placements, Integer code, Integer timeUnit,
             Integer[] requestsProcess, Float maxPower, String scenarioFile)
             throws IOException, InterruptedException, ExecutionException {
 
         List<VirtualMachine> vmsToMigrateFromPM = new ArrayList<>();
         List<VirtualMachine> vmsToMigrate = new ArrayList<>();
+        List<Scenario> arrivals = new ArrayList<>();
         List<Integer> vmsMigrationEndTimes = new ArrayList<>();
         ExecutorService executorService = Executors.newSingleThreadExecutor();
 
@@ -80,11 +82,11 @@ public class ThresholdBasedApproach {
 
         Integer heuristicCode = Constant.HEURISTIC_MAP.get(Constant.FFD);
 
-        for (int iterator = 0; iterator < workload.size(); ++iterator) {
-            Scenario request = workload.get(iterator);
+        while (workload.hasNext()) {
+            Scenario request = workload.next();
             actualTimeUnit = request.getTime();
             //check if is the last request, assign -1 to nextTimeUnit if so.
-            nextTimeUnit = iterator + 1 == workload.size() ? -1 : workload.get(iterator + 1).getTime();
+            nextTimeUnit = workload.nextTimeUnit();
 
             //check if the request corresponds to a vm that is being migrated
             if (nextTimeUnit!= -1 && isMigrationActive && DynamicVMP.isVmBeingMigrated(request.getVirtualMachineID(),
@@ -101,11 +103,19 @@ public class ThresholdBasedApproach {
                 isUpdateVmUtilization = actualTimeUnit <= vmEndTimeMigration;
             }
 
-            DynamicVMP.runHeuristics(request, code, physicalMachines, virtualMachines, derivedVMs, requestsProcess,
-                     isUpdateVmUtilization);
+            if (DynamicVMP.isArrival(request)) {
+                // New VMs are admitted together, before the next update or at the end of the time unit
+                arrivals.add(request);
+            } else {
+                DynamicVMP.admitArrivals(arrivals, code, physicalMachines, virtualMachines, derivedVMs,
+                        requestsProcess);
+                DynamicVMP.runHeuristics(request, code, physicalMachines, virtualMachines, derivedVMs,
+                        requestsProcess, isUpdateVmUtilization);
+            }
 
             // check if it's the last request or will occur a variation of time unit.
             if (nextTimeUnit == -1 || !actualTimeUnit.equals(nextTimeUnit)) {
+                DynamicVMP.admitArrivals(arrivals, code, physicalMachines, virtualMachines, derivedVMs, requestsProcess);
                 ObjectivesFunctions.getObjectiveFunctionsByTime(physicalMachines,
                         virtualMachines, derivedVMs, wastedResources,
                         wastedResourcesRatioByTime, powerByTime, revenueByTime, timeUnit, actualTimeUnit);
@@ -118,9 +128,7 @@ public class ThresholdBasedApproach {
 
                 timeUnit = actualTimeUnit;
 
-                Placement heuristicPlacement = new Placement(PhysicalMachine.clonePMsList(physicalMachines),
-                        VirtualMachine.cloneVMsList(virtualMachines),
-                        VirtualMachine.cloneVMsList(derivedVMs), placementScore);
+                Placement heuristicPlacement = Placement.snapshot(physicalMachines, virtualMachines, derivedVMs, placementScore);
                 placements.put(actualTimeUnit, heuristicPlacement);
 
                 //if an operation of virtual machines migration is not active, then
@@ -131,25 +139,30 @@ public class ThresholdBasedApproach {
                     List<VirtualMachine> vmsInPM;
 
                     for (PhysicalMachine pm : physicalMachines) {
-                        vmsInPM = Utils.filterVMsByPM(virtualMachines, pm.getId());
+                        // The state of the PM is checked on its utilization, the VMs of the PMs out of
+                        // the thresholds are read from the index by PM of the VM list
                         if (Constraints.isPMOverloaded(pm)) {
+                            vmsInPM = Utils.filterVMsByPM(virtualMachines, pm.getId());
                             vmsToMigrateFromPM.clear();
                             //the physical machine is overloaded, select the vms to migrate from this pm
                             vmsToMigrateFromPM = Utils.getVMsToMigrate(pm,vmsInPM);
                             //move virtual machines selected
-                            DynamicVMP.runHeuristics(heuristicCode,physicalMachines,virtualMachines,derivedVMs,
-                                     vmsToMigrateFromPM);
-                            //add virtual machines selected to a list of migration
-                            vmsToMigrate.addAll(vmsToMigrateFromPM);
-                        } else if (Constraints.isPMUnderloaded(pm) && !vmsInPM.isEmpty()) {
-                            vmsToMigrateFromPM.clear();
-                            //the physical machine is underloaded, move all the virtual machine from this pm
-                            vmsToMigrateFromPM.addAll(vmsInPM);
-                            //move virtual machines
-                            DynamicVMP.runHeuristics(heuristicCode,physicalMachines,virtualMachines,
-                                    derivedVMs,vmsToMigrateFromPM);
-                            //add virtual machines to a list of migration
-                            vmsToMigrate.addAll(vmsToMigrateFromPM);
+                            MigrationPlan plan = Reallocation.reallocateVMs(heuristicCode, physicalMachines,
+                                    virtualMachines, vmsToMigrateFromPM);
+                            //add virtual machines moved to a list of migration
+                            vmsToMigrate.addAll(plan.getVirtualMachines());
+                        } else if (Constraints.isPMUnderloaded(pm)) {
+                            vmsInPM = Utils.filterVMsByPM(virtualMachines, pm.getId());
+                            if (!vmsInPM.isEmpty()) {
+                                vmsToMigrateFromPM.clear();
+                                //the physical machine is underloaded, move all the virtual machine from this pm
+                                vmsToMigrateFromPM.addAll(vmsInPM);
+                                //move virtual machines
+                                MigrationPlan plan = Reallocation.reallocateVMs(heuristicCode, physicalMachines,
+                                        virtualMachines, vmsToMigrateFromPM);
+                                //add virtual machines moved to a list of migration
+                                vmsToMigrate.addAll(plan.getVirtualMachines());
+                            }
                         }
                     }
 
@@ -11,16 +11,17 @@ package org.framework.iterativeAlgorithm;
 
 import org.domain.*;
 import org.framework.Constraints;
+import org.framework.Feasibility;
 import org.framework.DynamicVMP;
 import org.framework.Parameter;
-import org.framework.Utils;
 import org.framework.comparator.BestComparator;
 import org.framework.comparator.WorstComparator;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.domain.VirtualMachine.getById;
 
@@ -54,6 +55,18 @@ public class Heuristics {
             Heuristics::bestFit,   // Worst Fit Decreasing
     };
 
+    /**
+     * Order of the PMs of each heuristic, by weight: ascending (Best Fit), descending (Worst Fit)
+     * or <b>null</b> to keep the order of the list (First Fit)
+     */
+    private static Boolean[] ascendingWeights = new Boolean[] {
+            null,
+            true,
+            false,
+            null,   // First Fit Decreasing
+            true,   // Best Fit Decreasing
+    };
+
     /**
      *
      * @return Array of Pointers to Function
@@ -79,57 +92,120 @@ public class Heuristics {
     public static Boolean updateVM(Scenario s, List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs,
             List<PhysicalMachine> physicalMachines, Boolean isMigrationActive) {
 
-        Boolean success = false;
-        PhysicalMachine physicalMachine;
-        Resources utilization;
-
-        // If Migration is active we add an MIGRATION_FACTOR_LOAD
-        if(isMigrationActive) {
-            utilization = new Resources(
-                    s.getUtilization().getCpu() + Parameter.MIGRATION_FACTOR_LOAD,
-                    s.getUtilization().getRam(),
-                    s.getUtilization().getNet());
-        } else {
-            utilization = s.getUtilization();
-        }
-
-        // Instance a VM (updateVM)
-        VirtualMachine updatedVM = new VirtualMachine(s.getVirtualMachineID(), s.getResources(), s.getRevenue(),
-                s.getTinit(), s.getTend(), utilization, s.getDatacenterID(), s.getCloudServiceID(), null);
-
         // Search allocated VM
-        VirtualMachine vm = getById(updatedVM.getId(), virtualMachines);
+        VirtualMachine vm = getRequestedVM(s, virtualMachines);
 
         // Check if VM was allocated
         if(vm != null) {
             // Get PM host
-            physicalMachine = PhysicalMachine.getById(vm.getPhysicalMachine(), physicalMachines);
+            PhysicalMachine physicalMachine = PhysicalMachine.getById(vm.getPhysicalMachine(), physicalMachines);
+            VmTable table = vm.getTable();
+            int handle = vm.getHandle();
             // Check resources
-            if (Constraints.checkResources(physicalMachine, vm, updatedVM, virtualMachines,true)) {
+            boolean fits = true;
+            for (int k = 0; fits && k < VmTable.NUMBER_OF_RESOURCES; k++) {
+                fits = Constraints.checkResource(physicalMachine, table.getUsedResource(handle, k),
+                        s.getResources().get(k), getUtilization(s, k, isMigrationActive), k);
+            }
+            if (fits) {
                 // Update allocated VM
-                for (int k = 0; k < physicalMachine.getResources().size(); k++) {
-                    physicalMachine.updateResource(k, vm.getResources().get(k) * vm.getUtilization().get(k)/100,
-                            Utils.SUB);
+                for (int k = 0; k < physicalMachine.getNumberOfResources(); k++) {
+                    physicalMachine.getState().subRequested(k, physicalMachine.getSlot(),
+                            table.getUsedResource(handle, k));
                 }
-                updateVmResources(virtualMachines, updatedVM);
-                allocateVMToPM(updatedVM, physicalMachine);
+                updateVmResources(vm, s, isMigrationActive);
+                allocateVMToPM(vm, physicalMachine);
                 return true;
             } else {
-                getViolation(s.getTime(), vm, updatedVM, physicalMachine);
+                getViolation(s, vm, physicalMachine, isMigrationActive);
                 return false;
             }
         }
 
-        // If VM is not allocated
-        for(VirtualMachine derivedVM : derivedVMs){
-            if(updatedVM.equals(derivedVM)) {
-                updateVmResources(derivedVMs, updatedVM);
-                success=true;
+        // If VM is not allocated, update every derived VM of the request
+        if (!hasDuplicateIds(derivedVMs)) {
+            VirtualMachine derivedVM = getRequestedVM(s, derivedVMs);
+            if (derivedVM == null) {
+                return false;
+            }
+            updateVmResources(derivedVM, s, isMigrationActive);
+            return true;
+        }
+        boolean success = false;
+        for (VirtualMachine dvm : derivedVMs) {
+            if (isRequestedVM(s, dvm)) {
+                updateVmResources(dvm, s, isMigrationActive);
+                success = true;
             }
         }
         return success;
     }
 
+    /**
+     * First VM of a list that is the VM of the request (see {@link #isRequestedVM(Scenario, VirtualMachine)})
+     * <p>
+     *     IDs can repeat across cloud services, so the VM found by ID is only taken if the list has no
+     *     other VM with the ID, otherwise the list is scanned.
+     * </p>
+     * @param s               Scenario
+     * @param virtualMachines List of Virtual Machines
+     * @return Virtual Machine, <b>null</b> if no VM of the list is the VM of the request
+     */
+    private static VirtualMachine getRequestedVM(Scenario s, List<VirtualMachine> virtualMachines) {
+
+        if (!hasDuplicateIds(virtualMachines)) {
+            // Only VM with the ID
+            VirtualMachine vm = getById(s.getVirtualMachineID(), virtualMachines);
+            return vm != null && isRequestedVM(s, vm) ? vm : null;
+        }
+        for (VirtualMachine vm : virtualMachines) {
+            if (isRequestedVM(s, vm)) {
+                return vm;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param virtualMachines List of Virtual Machines
+     * @return <b>True</b>, if some ID may have more than one VM in the list (always for a list
+     * without an index by ID)
+     */
+    private static boolean hasDuplicateIds(List<VirtualMachine> virtualMachines) {
+
+        return !(virtualMachines instanceof SharedArrayList)
+                || ((SharedArrayList<VirtualMachine>) virtualMachines).hasDuplicateIds();
+    }
+
+    /**
+     * Same VM as {@link VirtualMachine#equals(Object)}: cloud service, datacenter and ID
+     * @param s  Scenario
+     * @param vm Virtual Machine
+     * @return <b>True</b>, if the VM is the VM of the request
+     */
+    private static boolean isRequestedVM(Scenario s, VirtualMachine vm) {
+
+        return s.getCloudServiceID().equals(vm.getCloudService())
+                && s.getDatacenterID().equals(vm.getDatacenter())
+                && s.getVirtualMachineID().equals(vm.getId());
+    }
+
+    /**
+     * Utilization of a resource in an update request
+     * @param s                 Scenario
+     * @param resource          Resource index
+     * @param isMigrationActive Is Migration active
+     * @return Utilization
+     */
+    private static float getUtilization(Scenario s, int resource, boolean isMigrationActive) {
+
+        // If Migration is active we add an MIGRATION_FACTOR_LOAD
+        if (isMigrationActive && resource == 0) {
+            return s.getUtilization().getCpu() + Parameter.MIGRATION_FACTOR_LOAD;
+        }
+        return s.getUtilization().get(resource);
+    }
+
     /**
      * Allocate VM to PM
      * <p>
@@ -140,11 +216,15 @@ public class Heuristics {
      */
     public static void allocateVMToPM(VirtualMachine vm, PhysicalMachine pm) {
 
-        pm.updateResource(0, vm.getResources().get(0) * vm.getUtilization().get(0) / 100, Utils.SUM);
-        pm.updateResource(1, vm.getResources().get(1) * vm.getUtilization().get(1) / 100, Utils.SUM);
-        pm.updateResource(2, vm.getResources().get(2) * vm.getUtilization().get(2) / 100, Utils.SUM);
+        DatacenterState state = pm.getState();
+        int slot = pm.getSlot();
+        VmTable table = vm.getTable();
+        int handle = vm.getHandle();
 
-        pm.updateUtilization();
+        for (int k = 0; k < state.getNumberOfResources(); k++) {
+            state.addRequested(k, slot, table.getUsedResource(handle, k));
+        }
+        state.updateUtilization(slot);
     }
 
     /**
@@ -153,66 +233,66 @@ public class Heuristics {
      *     Register the VM, time and what resource was violated
      * </p>
      *
-     * @param timeViolation Time Violation
-     * @param oldVm         Virtual Machine (previous version of Virtual Machine)
-     * @param vm            Virtual Machine (new version of Virtual Machine)
-     * @param pm            Physical Machine
+     * @param s                 Scenario (new version of Virtual Machine)
+     * @param oldVm             Virtual Machine (previous version of Virtual Machine)
+     * @param pm                Physical Machine
+     * @param isMigrationActive Is Migration active
      */
-    public static void getViolation(Integer timeViolation, VirtualMachine oldVm, VirtualMachine vm,
-            PhysicalMachine pm) {
-
-        Float cpuViolation = 0F;
-        Float ramViolation = 0F;
-        Float netViolation = 0F;
+    public static void getViolation(Scenario s, VirtualMachine oldVm, PhysicalMachine pm,
+            Boolean isMigrationActive) {
 
-        Float cpu = pm.getResourcesRequested().get(0)
-                - (oldVm.getResources().get(0) * oldVm.getUtilization().get(0)/100 )
-                + (vm.getResources().get(0) * vm.getUtilization().get(0)/100);
-
-        Float ram = pm.getResourcesRequested().get(1)
-                - (oldVm.getResources().get(1) * oldVm.getUtilization().get(1)/100 )
-                + (vm.getResources().get(1) * vm.getUtilization().get(1)/100);
+        float cpuViolation = getViolation(s, oldVm, pm, 0, isMigrationActive);
+        float ramViolation = getViolation(s, oldVm, pm, 1, isMigrationActive);
+        float netViolation = getViolation(s, oldVm, pm, 2, isMigrationActive);
 
+        Resources res = new Resources(cpuViolation, ramViolation, netViolation);
 
-        Float net = pm.getResourcesRequested().get(2)
-                - (oldVm.getResources().get(2) * oldVm.getUtilization().get(2)/100 )
-                + (vm.getResources().get(2) * vm.getUtilization().get(2)/100);
+        DynamicVMP.updateEconomicalPenalties(s.getRevenue() == null ? new Revenue() : s.getRevenue(), res,
+                s.getTime());
+        DynamicVMP.violationLedger.put(s.getCloudServiceID(), s.getVirtualMachineID(), s.getTime(), cpuViolation,
+                ramViolation, netViolation);
+    }
 
-        if(pm.getResources().get(0) <= cpu) {
-            cpuViolation = cpu - pm.getResources().get(0);
-        }
+    /**
+     * Violation of a resource, the requested resources of the PM with the new version of the VM
+     * above the capacity
+     * @param s                 Scenario (new version of Virtual Machine)
+     * @param oldVm             Virtual Machine (previous version of Virtual Machine)
+     * @param pm                Physical Machine
+     * @param resource          Resource index
+     * @param isMigrationActive Is Migration active
+     * @return Violation, zero if the PM can hold the resource
+     */
+    private static float getViolation(Scenario s, VirtualMachine oldVm, PhysicalMachine pm, int resource,
+            boolean isMigrationActive) {
 
-        if(pm.getResources().get(1) <= ram) {
-            ramViolation = ram - pm.getResources().get(1);
-        }
+        float requested = pm.getResourceRequested(resource)
+                - (oldVm.getResource(resource) * oldVm.getUtilization(resource)/100 )
+                + (s.getResources().get(resource) * getUtilization(s, resource, isMigrationActive)/100);
 
-        if(pm.getResources().get(2) <= net) {
-            netViolation = net - pm.getResources().get(2);
+        if (pm.getResource(resource) <= requested) {
+            return requested - pm.getResource(resource);
         }
-
-        Resources res = new Resources(cpuViolation, ramViolation, netViolation);
-        Violation violation = new Violation(timeViolation, res);
-
-        DynamicVMP.updateEconomicalPenalties(vm,res, timeViolation);
-        DynamicVMP.unsatisfiedResources.put(vm.getCloudService()+"_"+vm.getId(), violation);
+        return 0F;
     }
 
     /**
-     * Update the Resources and Utilization of a VM.
+     * Update the Resources, Utilization and Revenue of a VM in place.
      *
-     * @param virtualMachines Virtual Machines
-     * @param updatedVM       Updated VM
+     * @param vm                Virtual Machine
+     * @param s                 Scenario (new version of Virtual Machine)
+     * @param isMigrationActive Is Migration active
      */
-    public static void updateVmResources(List<VirtualMachine> virtualMachines, VirtualMachine updatedVM) {
-
-        virtualMachines.forEach(vm -> {
-
-            if (vm.equals(updatedVM)) {
-                vm.setUtilization(updatedVM.getUtilization());
-                vm.setResources(updatedVM.getResources());
-                vm.setRevenue(updatedVM.getRevenue());
-            }
-        });
+    public static void updateVmResources(VirtualMachine vm, Scenario s, boolean isMigrationActive) {
+
+        VmTable table = vm.getTable();
+        int handle = vm.getHandle();
+        Revenue revenue = s.getRevenue();
+        for (int k = 0; k < VmTable.NUMBER_OF_RESOURCES; k++) {
+            table.setResource(handle, k, s.getResources().get(k));
+            table.setUtilization(handle, k, getUtilization(s, k, isMigrationActive));
+            table.setRevenue(handle, k, revenue == null ? 0F : revenue.get(k));
+        }
     }
 
     /**
@@ -227,21 +307,21 @@ public class Heuristics {
 
         List<VirtualMachine> toRemoveVM = new ArrayList<>();
 
-        virtualMachines.forEach(vm -> {
-            if (vm.getTend() <= timeUnit) {
-                Integer pmId = vm.getPhysicalMachine();
-                PhysicalMachine pm = PhysicalMachine.getById(pmId, physicalMachines);
-                if(pm != null ) {
-                    for (int i = 0; i < vm.getResources().size(); i++) {
-                        Float freeResource = vm.getResources().get(i) * vm.getUtilization().get(i)/100;
-                        pm.updateResource(i, freeResource, Utils.SUB);
-                    }
-                    pm.updateUtilization();
-                    toRemoveVM.add(vm);
+        VirtualMachine.getExpiredVMs(virtualMachines, timeUnit).forEach(vm -> {
+            VmTable table = vm.getTable();
+            int handle = vm.getHandle();
+            Integer pmId = vm.getPhysicalMachine();
+            PhysicalMachine pm = PhysicalMachine.getById(pmId, physicalMachines);
+            if(pm != null ) {
+                for (int i = 0; i < VmTable.NUMBER_OF_RESOURCES; i++) {
+                    pm.getState().subRequested(i, pm.getSlot(), table.getUsedResource(handle, i));
                 }
+                pm.updateUtilization();
+                toRemoveVM.add(vm);
             }
         });
-        virtualMachines.removeAll(toRemoveVM);
+        VirtualMachine.removeVMsList(virtualMachines, toRemoveVM);
+        VirtualMachine.releaseVMsList(toRemoveVM);
     }
 
     /**
@@ -251,14 +331,10 @@ public class Heuristics {
      */
     public static void removeDerivatedVMByTime(List<VirtualMachine> derivatedVMs, Integer timeUnit) {
 
-        List<VirtualMachine> toRemoveVM = new ArrayList<>();
+        List<VirtualMachine> toRemoveVM = VirtualMachine.getExpiredVMs(derivatedVMs, timeUnit);
 
-        derivatedVMs.forEach(vm -> {
-            if (vm.getTend() <= timeUnit) {
-                    toRemoveVM.add(vm);
-            }
-        });
-        derivatedVMs.removeAll(toRemoveVM);
+        VirtualMachine.removeVMsList(derivatedVMs, toRemoveVM);
+        VirtualMachine.releaseVMsList(toRemoveVM);
     }
 
     /**
@@ -281,7 +357,84 @@ public class Heuristics {
     }
 
     /**
-     * Allocate VM To DC
+     * @param code Heuristic Code
+     * @return <b>True</b>, if the heuristic keeps the order of the PMs (First Fit, First Fit Decreasing)
+     */
+    public static boolean isFirstFit(Integer code) {
+        return ascendingWeights[code] == null;
+    }
+
+    /**
+     * First Fit of a run of new VMs
+     * <p>
+     *     Same placement as {@link #firstFit(VirtualMachine, List, List, List)} called for each VM in
+     *     order. With a {@link PhysicalMachineList} the run is placed in one pass over its capacity
+     *     index (see {@link PhysicalMachineList#firstFitAll(float[][], PhysicalMachineList.Packing)}):
+     *     the demand of each VM is computed once and each PM is checked against the VMs still
+     *     pending. The VMs are added to the allocated or to the derived VMs in order, at the end.
+     * </p>
+     * @param vms              New Virtual Machines, in order
+     * @param physicalMachines Physical Machines
+     * @param virtualMachines  Virtual Machines
+     * @param derivedVMs       Derived Virtual Machines
+     * @return Number of VMs allocated
+     */
+    public static int firstFitAll(List<VirtualMachine> vms, List<PhysicalMachine> physicalMachines,
+            List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs) {
+
+        int allocated = 0;
+        if (!(physicalMachines instanceof PhysicalMachineList)) {
+            for (VirtualMachine vm : vms) {
+                if (firstFit(vm, physicalMachines, virtualMachines, derivedVMs)) {
+                    allocated++;
+                }
+            }
+            return allocated;
+        }
+
+        float[][] demands = new float[vms.size()][];
+        for (int i = 0; i < vms.size(); i++) {
+            VirtualMachine vm = vms.get(i);
+            // If the VM is new, we set the utilization to 100%, we don't know this information a priori.
+            for (int k = 0; k < VmTable.NUMBER_OF_RESOURCES; k++) {
+                vm.getTable().setUtilization(vm.getHandle(), k, 100F);
+            }
+            demands[i] = Constraints.getProtectedDemand(vm);
+        }
+        PhysicalMachine[] hosts = new PhysicalMachine[vms.size()];
+        // (cloud service, PM) of the VMs of the run already placed, for the fault tolerance
+        Set<Long> placedCloudServices = new HashSet<>();
+
+        ((PhysicalMachineList) physicalMachines).firstFitAll(demands, (d, pm) -> {
+            VirtualMachine vm = vms.get(d);
+            long cloudServiceInPM = ((long) vm.getCloudService() << 32) | (pm.getId() & 0xFFFFFFFFL);
+            if (!Constraints.checkResources(pm, null, vm, virtualMachines, false)
+                    || (Parameter.FAULT_TOLERANCE && placedCloudServices.contains(cloudServiceInPM))) {
+                return false;
+            }
+            allocateVMToPM(vm, pm);
+            vm.setPhysicalMachine(pm.getId());
+            hosts[d] = pm;
+            if (Parameter.FAULT_TOLERANCE) {
+                placedCloudServices.add(cloudServiceInPM);
+            }
+            return true;
+        });
+
+        for (int i = 0; i < vms.size(); i++) {
+            if (hosts[i] != null) {
+                virtualMachines.add(vms.get(i));
+                allocated++;
+            } else {
+                derivedVMs.add(vms.get(i));
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Allocate VM To DC, in the first PM that can host it (see
+     * {@link #findHost(VirtualMachine, List, List, PhysicalMachine)})
      * @param vm                VirtualMachine
      * @param physicalMachines List of PM
      * @param virtualMachines  List of VM
@@ -291,19 +444,84 @@ public class Heuristics {
             final List<VirtualMachine> virtualMachines) {
 
         // If the VM is new, we set the utilization to 100%, we don't know this information a priori.
-        Resources uti = new Resources(100F, 100F, 100F);
-        vm.setUtilization(Arrays.asList(uti.getCpu(),uti.getRam(),uti.getNet()));
+        for (int k = 0; k < VmTable.NUMBER_OF_RESOURCES; k++) {
+            vm.getTable().setUtilization(vm.getHandle(), k, 100F);
+        }
+
+        PhysicalMachine host = findHost(vm, physicalMachines, virtualMachines, null);
+        if (host == null) {
+            return false;
+        }
+        // Allocate la VM to VM
+        allocateVMToPM(vm, host);
+        vm.setPhysicalMachine(host.getId());
+        virtualMachines.add(vm);
+        return true;
+    }
 
+    /**
+     * First PM of the list that can host a VM
+     * <p>
+     *     For a {@link PhysicalMachineList} the demand is first checked against the maximum free
+     *     resources of the DC, then the PM is searched in the capacity index of the list, skipping the
+     *     PMs without the free resources.
+     * </p>
+     * @param vm               VirtualMachine
+     * @param physicalMachines List of PM
+     * @param virtualMachines  List of VM
+     * @param excluded         PM that can not host the VM (its current host), <b>null</b> for none
+     * @return Physical Machine, <b>null</b> if no PM can host the VM
+     */
+    static PhysicalMachine findHost(final VirtualMachine vm, final List<PhysicalMachine> physicalMachines,
+            final List<VirtualMachine> virtualMachines, final PhysicalMachine excluded) {
+
+        if (physicalMachines instanceof PhysicalMachineList) {
+            PhysicalMachineList pml = (PhysicalMachineList) physicalMachines;
+            float[] demand = Constraints.getProtectedDemand(vm);
+            if (!pml.mayHost(demand)) {
+                // Saturated DC, no PM has the free resources of the VM
+                return null;
+            }
+            return pml.firstFit(demand,
+                    pm -> pm != excluded && Constraints.checkResources(pm, null, vm, virtualMachines, false));
+        }
+        Feasibility feasibility = new Feasibility(vm);
         for (PhysicalMachine pm : physicalMachines) {
-            if (Constraints.checkResources(pm, null, vm, virtualMachines, false)) {
-                // Allocate la VM to VM
-                allocateVMToPM(vm, pm);
-                vm.setPhysicalMachine(pm.getId());
-                virtualMachines.add(vm);
-                return true;
+            if (pm != excluded && feasibility.test(pm)
+                    && Constraints.checkFaultTolerance(pm, vm, virtualMachines)) {
+                return pm;
             }
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Sort the PMs in the order of a heuristic
+     * @param code             Heuristic Code
+     * @param physicalMachines List of PM
+     */
+    static void sortPhysicalMachines(Integer code, List<PhysicalMachine> physicalMachines) {
+
+        if (ascendingWeights[code] != null) {
+            sortByWeight(ascendingWeights[code], physicalMachines);
+        }
+    }
+
+    /**
+     * Sort the PMs by weight
+     * @param isBest           <b>True</b>, ascending weight (Best Fit) <br> <b>False</b>, descending weight
+     * @param physicalMachines List of PM
+     */
+    private static void sortByWeight(boolean isBest, List<PhysicalMachine> physicalMachines) {
+
+        if (physicalMachines instanceof PhysicalMachineList) {
+            // Same order as the sort with the comparators, moving only the PMs whose weight changed
+            ((PhysicalMachineList) physicalMachines).sortByWeight(isBest);
+        } else if (isBest) {
+            Collections.sort(physicalMachines, new BestComparator());
+        } else {
+            Collections.sort(physicalMachines, new WorstComparator());
+        }
     }
 
     /**
@@ -333,11 +551,7 @@ public class Heuristics {
     public static Boolean  bestOrWorstFit(Boolean isBest, VirtualMachine vm, List<PhysicalMachine> physicalMachines,
             List<VirtualMachine> virtualMachines, List<VirtualMachine> derivedVMs) {
 
-        if (isBest) {
-            Collections.sort(physicalMachines, new BestComparator());
-        } else {
-            Collections.sort(physicalMachines, new WorstComparator());
-        }
+        sortByWeight(isBest, physicalMachines);
 
         if (allocateVMToDC(vm, physicalMachines, virtualMachines)) {
             return true;
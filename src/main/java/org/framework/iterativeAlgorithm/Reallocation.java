@@ -0,0 +1,64 @@
+package org.framework.iterativeAlgorithm;
+
+import org.domain.MigrationPlan;
+import org.domain.PhysicalMachine;
+import org.domain.PlacementTransaction;
+import org.domain.VirtualMachine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reallocation of the VMs evicted from their hosts
+ * <p>
+ *     Used by the migrations of the threshold-based approach. Each VM is placed with the order of
+ *     the PMs of a heuristic, excluding its current host, and moved in place: the resources of the
+ *     VM go from the old host to the new one and the VM keeps its position in the list of VMs.
+ *     With a {@link org.domain.PhysicalMachineList} every placement is a search in the capacity
+ *     index, so the whole batch is placed in O(V log P).
+ * </p>
+ * @since 10/18/26.
+ */
+public class Reallocation {
+
+    private Reallocation() {
+        // Default Constructor
+    }
+
+    /**
+     * Reallocate VMs evicted from their hosts
+     * <p>
+     *     The VMs are placed in increasing order of revenue. A VM that no other PM can host stays in
+     *     its host and is not part of the plan.
+     * </p>
+     * @param code             Heuristic Code
+     * @param physicalMachines List of Physical Machines
+     * @param virtualMachines  List of allocated Virtual Machines
+     * @param evictedVMs       List of VMs to migrate
+     * @return Migration Plan with the VMs moved
+     */
+    public static MigrationPlan reallocateVMs(Integer code, List<PhysicalMachine> physicalMachines,
+            List<VirtualMachine> virtualMachines, List<VirtualMachine> evictedVMs) {
+
+        MigrationPlan plan = new MigrationPlan();
+        // Moves applied in place, without a log
+        PlacementTransaction moves = new PlacementTransaction();
+        List<VirtualMachine> sortedVMs = new ArrayList<>(evictedVMs);
+        Collections.sort(sortedVMs);
+
+        for (VirtualMachine vm : sortedVMs) {
+            PhysicalMachine source = PhysicalMachine.getById(vm.getPhysicalMachine(), physicalMachines);
+            if (source == null) {
+                continue;
+            }
+            Heuristics.sortPhysicalMachines(code, physicalMachines);
+            PhysicalMachine target = Heuristics.findHost(vm, physicalMachines, virtualMachines, source);
+            if (target != null) {
+                moves.moveVM(vm, source, target);
+                plan.add(vm, source.getId(), target.getId());
+            }
+        }
+        return plan;
+    }
+}
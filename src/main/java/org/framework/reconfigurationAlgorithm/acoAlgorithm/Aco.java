@@ -3,7 +3,11 @@ package org.framework.reconfigurationAlgorithm.acoAlgorithm;
 import org.domain.APrioriValue;
 import org.domain.PhysicalMachine;
 import org.domain.Placement;
+import org.domain.PlacementTransaction;
 import org.domain.VirtualMachine;
+import org.framework.Constant;
+import org.framework.MigratedMemory;
+import org.framework.ObjectiveScore;
 import org.framework.ObjectivesFunctions;
 import org.framework.Utils;
 
@@ -20,12 +24,22 @@ public class Aco {
     private Float normalizedProb[][];
     private Integer nVMs, nPMs;
     private Integer randomVM, randomPM;
+    private int vmSelected, pmSelected;
 
     private List<PhysicalMachine> tempAntPMs;
     private List<VirtualMachine> tempAntVMs;
 
+    // Moves of the ant over tempAntPMs/tempAntVMs, undone before the next ant
+    private PlacementTransaction transaction;
+
     private Float[] objectiveFunctions;
 
+    // Reused by every evaluation of the ants
+    private final MigratedMemory migratedMemory = new MigratedMemory();
+
+    // Score of the placements of the ants, with the a priori values of the reconfiguration
+    private ObjectiveScore placementScore;
+
     /**
      * This method is called to executed de ACO VMPr algorithm, to find and
      * return a new posible best placement of VMs in the provided PMs
@@ -53,9 +67,9 @@ public class Aco {
         setMaxPheromone(settings);
 
         // local variables
-        Float tempAntScore, antScore, bestAntScore, globalScore, initialScore;
+        float tempAntScore, antScore, bestAntScore, globalScore, initialScore;
 
-        List<PhysicalMachine> antPMs;
+        int antSavepoint;
         List<PhysicalMachine> bestAntPMs;
         List<PhysicalMachine> mapPMs;
 
@@ -67,27 +81,31 @@ public class Aco {
         mapPMs = PhysicalMachine.clonePMsList(actualPlacement.getPhysicalMachines());
         mapVMs = VirtualMachine.cloneVMsList(actualPlacement.getVirtualMachineList());
 
+        // the ants move the VMs of one copy of the placement
+        tempAntPMs = PhysicalMachine.clonePMsList(actualPlacement.getPhysicalMachines());
+        tempAntVMs = VirtualMachine.cloneVMsList(actualPlacement.getVirtualMachineList());
+        transaction = new PlacementTransaction();
+
         // first time loading O.F. to initialize globalScore
         loadObjectiveFunctions(actualPlacement.getVirtualMachineList(), actualPlacement.getVirtualMachineList(),
                 actualPlacement.getDerivedVMs(), actualPlacement.getPhysicalMachines());
-        initialScore = Utils.calcPlacemenScore(objectiveFunctions, aPrioriValueList);
+        placementScore = new ObjectiveScore(aPrioriValueList, Constant.NUM_OBJ_FUNCT_COMP, Constant.WEIGHT_OFFLINE);
+        initialScore = placementScore.getScore(objectiveFunctions);
         globalScore = initialScore;
 
         while(acoIterations>0){
             acoIterations--;
             bestAntScore = initialScore;
 
-            bestAntPMs = PhysicalMachine.clonePMsList(actualPlacement.getPhysicalMachines());
-            bestAntVMs = VirtualMachine.cloneVMsList(VirtualMachine.cloneVMsList(actualPlacement.getVirtualMachineList()));
+            bestAntPMs = null;
+            bestAntVMs = null;
 
             for(int a=0; a<nAnts; a++){
                 antScore = initialScore;
+                antVMs = actualPlacement.getVirtualMachineList();
 
-                antPMs = PhysicalMachine.clonePMsList(actualPlacement.getPhysicalMachines());
-                antVMs = VirtualMachine.cloneVMsList(VirtualMachine.cloneVMsList(actualPlacement.getVirtualMachineList()));
-
-                tempAntPMs = PhysicalMachine.clonePMsList(actualPlacement.getPhysicalMachines());
-                tempAntVMs = VirtualMachine.cloneVMsList(VirtualMachine.cloneVMsList(actualPlacement.getVirtualMachineList()));
+                transaction.begin();
+                antSavepoint = transaction.savepoint();
 
                 for(int v=0; v<nVMs; v++){
                     computeHeuristic();
@@ -97,28 +115,31 @@ public class Aco {
 
                     // evaluate tempAntScore
                     loadObjectiveFunctions(tempAntVMs, antVMs, actualPlacement.getDerivedVMs(), tempAntPMs);
-                    tempAntScore = Utils.calcPlacemenScore(objectiveFunctions, aPrioriValueList);
+                    tempAntScore = placementScore.getScore(objectiveFunctions);
 
                     // replaces the best solution if Ant found a better one
                     if(tempAntScore<antScore){
                         antScore = tempAntScore;
-                        antPMs = PhysicalMachine.clonePMsList(tempAntPMs);
+                        antSavepoint = transaction.savepoint();
                         antVMs = VirtualMachine.cloneVMsList(tempAntVMs);
                     }
                 }
 
                 if(antScore<bestAntScore){
+                    // back to the best placement of the ant
+                    transaction.rollback(antSavepoint);
                     bestAntScore = antScore;
-                    bestAntPMs = PhysicalMachine.clonePMsList(antPMs);
-                    bestAntVMs = VirtualMachine.cloneVMsList(antVMs);
+                    bestAntPMs = PhysicalMachine.clonePMsList(tempAntPMs);
+                    bestAntVMs = antVMs;
                 }
+                transaction.rollback();
             } // end Ants
 
             // update globalScore, mapPMs, mapVMs according to the best ant if appropiate
             if(bestAntScore<globalScore){
                 globalScore = bestAntScore;
-                mapPMs = PhysicalMachine.clonePMsList(bestAntPMs);
-                mapVMs = VirtualMachine.cloneVMsList(bestAntVMs);
+                mapPMs = bestAntPMs;
+                mapVMs = bestAntVMs;
             }
 
             // update pheromone
@@ -190,7 +211,7 @@ public class Aco {
         Float wastedResources;
         Float memoryMigrated;
 
-        memoryMigrated = ObjectivesFunctions.migratedMemoryBtwPM(antVMs, tempAntVMs, tempAntPMs.size());
+        memoryMigrated = ObjectivesFunctions.migratedMemoryBtwPM(antVMs, tempAntVMs, migratedMemory);
         powerConsumption = ObjectivesFunctions.powerConsumption(tempAntPMs);
         wastedResources = ObjectivesFunctions.wastedResources(tempAntPMs, null);
 //        Utils.updateDerivedVMs(tempAntVMs, derivedVMs);
@@ -206,6 +227,7 @@ public class Aco {
     /**
      * Update the resources of the pmSelected, as well as the oldPM
      * of the vmSelected chosen. It also sets the PM of vmSelected to pmSelected.
+     * The move is recorded in the transaction of the ant.
      */
     private void updateTempVMsandPMs() {
         PhysicalMachine pm = tempAntPMs.get(pmSelected);
@@ -225,17 +247,8 @@ public class Aco {
             Float freeSpace1 = pm.getResources().get(1) - (pm.getResourcesRequested().get(1) + vmResource1);
             Float freeSpace2 = pm.getResources().get(2) - (pm.getResourcesRequested().get(2) + vmResource2);
             if (freeSpace0>=0.00000001F && freeSpace1>=0.00000001F && freeSpace2>=0.00000001F) {
-                // update PM of VM
-                vm.setPhysicalMachine(pm.getId());
-
-                // update PM capacity
-                oldPM.updateResource(0, vmResource0, "SUB");
-                oldPM.updateResource(1, vmResource1, "SUB");
-                oldPM.updateResource(2, vmResource2, "SUB");
-
-                pm.updateResource(0, vmResource0, "SUM");
-                pm.updateResource(1, vmResource1, "SUM");
-                pm.updateResource(2, vmResource2, "SUM");
+                // update PM of VM and PM capacity
+                transaction.moveVM(vm, oldPM, pm);
             }
         }
     }
@@ -245,7 +258,7 @@ public class Aco {
      *  Generate a random number between [0,1] and then based on the cumulative
      *  probability a randomVM and randomPM are chosen.
      */
-    private void choosePMforVM(vm) {
+    private void choosePMforVM(int vm) {
         Double randomProb = Math.random();
         vmSelected = vm;
         pmSelected = 0;
@@ -300,6 +313,9 @@ public class Aco {
         Float heuristic0;
         Float heuristic1;
         Float heuristic2;
+        Float freeSpaceRatio0;
+        Float freeSpaceRatio1;
+        Float freeSpaceRatio2;
         Float vmResource0;
         Float vmResource1;
         Float vmResource2;
@@ -0,0 +1,111 @@
+package org.framework.reconfigurationAlgorithm.enums;
+
+/**
+ * Scalarization Methods, combine the normalized values of the objective functions into one value
+ * <p>
+ *     The method is resolved once from its code ({@link #getByCode(String)}) and applied to primitive
+ *     values, without allocation.
+ * </p>
+ * @since 10/18/26.
+ */
+public enum ScalarizationMethodEnum {
+
+	/**
+	 * Euclidean Distance to the origin
+	 */
+	EUCLIDEAN_DISTANCE("ED") {
+		@Override
+		public float scalarize(float[] values, int length, float weight) {
+
+			float tempSum = 0;
+			for (int i = 0; i < length; i++) {
+				//sum the square of each objective function
+				tempSum += Math.pow(values[i], 2);
+			}
+			return (float) Math.sqrt(tempSum);
+		}
+	},
+
+	/**
+	 * Chebyshev Distance to the origin (max value)
+	 */
+	CHEBYSHEV_DISTANCE("CD") {
+		@Override
+		public float scalarize(float[] values, int length, float weight) {
+
+			float max = values[0];
+			for (int i = 1; i < length; i++) {
+				if (Float.compare(values[i], max) > 0) {
+					max = values[i];
+				}
+			}
+			return max;
+		}
+	},
+
+	/**
+	 * Manhattan Distance to the origin (sum of the values, in double)
+	 */
+	MANHATTAN_DISTANCE("MD") {
+		@Override
+		public float scalarize(float[] values, int length, float weight) {
+
+			double sum = 0;
+			for (int i = 0; i < length; i++) {
+				sum += values[i];
+			}
+			return (float) sum;
+		}
+	},
+
+	/**
+	 * Weighted Sum
+	 */
+	WEIGHTED_SUM("WS") {
+		@Override
+		public float scalarize(float[] values, int length, float weight) {
+
+			float tempSum = 0F;
+			for (int i = 0; i < length; i++) {
+				tempSum += weight * values[i];
+			}
+			return tempSum;
+		}
+	};
+
+	private static final ScalarizationMethodEnum[] METHODS = values();
+
+	private String code;
+
+	ScalarizationMethodEnum(String code){
+		this.code = code;
+	}
+
+	public String getCode(){
+		return code;
+	}
+
+	/**
+	 * Combine values into one
+	 * @param values Normalized values of the objective functions
+	 * @param length Number of values
+	 * @param weight Weight of each value (Weighted Sum)
+	 * @return Scalarized value
+	 */
+	public abstract float scalarize(float[] values, int length, float weight);
+
+	/**
+	 * @param code Code of the method (ED, CD, MD or WS)
+	 * @return Scalarization Method, {@link #WEIGHTED_SUM} for any other code
+	 */
+	public static ScalarizationMethodEnum getByCode(String code){
+
+		for (ScalarizationMethodEnum method : METHODS) {
+			if (method.code.equals(code)) {
+				return method;
+			}
+		}
+		return WEIGHTED_SUM;
+	}
+
+}
@@ -4,10 +4,11 @@ import org.domain.APrioriValue;
 import org.domain.PhysicalMachine;
 import org.domain.VirtualMachine;
 import org.framework.Constant;
+import org.framework.MigratedMemory;
+import org.framework.ObjectiveScore;
 import org.framework.ObjectivesFunctions;
 import org.framework.Utils;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,6 +16,12 @@ import java.util.List;
  */
 public class EvaluationByScalarizationMethod implements FitnessEvaluation{
 
+    // Reused by every individual
+    private final MigratedMemory migratedMemory = new MigratedMemory();
+
+    // Bounds and scalarization method of the a priori values of the last call
+    private ObjectiveScore objectiveScore;
+
     public EvaluationByScalarizationMethod() {
         super();
     }
@@ -44,7 +51,7 @@ public class EvaluationByScalarizationMethod implements FitnessEvaluation{
         Float wastedResources;
         Float memoryMigrated;
 
-        memoryMigrated = ObjectivesFunctions.migratedMemoryBtwPM(previousVirtualMachineList,virtualMachineList,physicalMachineList.size());
+        memoryMigrated = ObjectivesFunctions.migratedMemoryBtwPM(previousVirtualMachineList,virtualMachineList,migratedMemory);
         powerConsumption = ObjectivesFunctions.powerConsumption(physicalMachineList);
         wastedResources = ObjectivesFunctions.wastedResources(physicalMachineList,null);
         Utils.updateDerivedVMs(virtualMachineList,derivedVMs);
@@ -60,18 +67,11 @@ public class EvaluationByScalarizationMethod implements FitnessEvaluation{
     @Override
     public void loadFitness(Individual individual, List<APrioriValue> aPrioriValuesList, int numberOfObjFunctions) {
 
-        int iteratorObjFunctions;
-        APrioriValue aPrioriValue;
-        List<Float> normalizedOjbFunctions = new ArrayList<>();
-        Float normalizedValue ;
-        for(iteratorObjFunctions= 0; iteratorObjFunctions < numberOfObjFunctions; iteratorObjFunctions++){
-            aPrioriValue = aPrioriValuesList.get(iteratorObjFunctions);
-            normalizedValue = Utils.normalizeValue(individual.getObjectiveFunctions()[iteratorObjFunctions],aPrioriValue.getMinValue(),aPrioriValue.getMaxValue());
-            normalizedOjbFunctions.add(iteratorObjFunctions,normalizedValue);
+        if (objectiveScore == null || !objectiveScore.isFor(aPrioriValuesList, numberOfObjFunctions)) {
+            objectiveScore = new ObjectiveScore(aPrioriValuesList, numberOfObjFunctions, Constant.WEIGHT_OFFLINE);
         }
 
-        Float distance = ObjectivesFunctions.getScalarizationMethod(normalizedOjbFunctions, Constant.WEIGHT_OFFLINE);
-        individual.setFitness(distance);
+        individual.setFitness(objectiveScore.getScore(individual.getObjectiveFunctions()));
 
     }
 
@@ -82,6 +82,7 @@ public class EvaluationByScalarizationMethod implements FitnessEvaluation{
         int iteratorSolution;
         int iteratorResource;
         int physicalMachineId;
+        float utilization;
         VirtualMachine vm;
         for (Individual individual : population.getIndividuals()){
             for(iteratorSolution=0;iteratorSolution<individual.getSize(); iteratorSolution++) {
@@ -89,7 +90,9 @@ public class EvaluationByScalarizationMethod implements FitnessEvaluation{
                 if (physicalMachineId != 0) {
                     vm = virtualMachineList.get(iteratorSolution);
                     for (iteratorResource = 0; iteratorResource < numberOfResources; iteratorResource++) {
-                        individual.getUtilization()[physicalMachineId - 1][iteratorResource] += vm.getResources().get(iteratorResource) * (vm.getUtilization().get(iteratorResource)/100);
+                        utilization = individual.getUtilization(physicalMachineId - 1, iteratorResource);
+                        utilization += vm.getResources().get(iteratorResource) * (vm.getUtilization().get(iteratorResource)/100);
+                        individual.setUtilization(physicalMachineId - 1, iteratorResource, utilization);
                     }
                 }
             }
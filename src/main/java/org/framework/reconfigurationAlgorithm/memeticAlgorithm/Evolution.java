@@ -24,6 +24,19 @@ public class Evolution {
      */
     public static Population getNextGeneration(Population populationP, Population populationQ) {
 
+        return getNextGeneration(populationP, populationQ, new IndividualPool());
+    }
+
+    /**
+     *
+     * @param populationP Population P
+     * @param populationQ Population Q
+     * @param pool        Pool where the individuals that do not survive are released
+     * @return New Generation of Population
+     */
+    public static Population getNextGeneration(Population populationP, Population populationQ,
+            IndividualPool pool) {
+
         List<Individual> individualsPQ = new ArrayList<>();
         individualsPQ.addAll(populationP.getIndividuals());
         individualsPQ.addAll(populationQ.getIndividuals());
@@ -33,7 +46,7 @@ public class Evolution {
 
         Population population = new Population();
         population.setIndividuals(individualsPQ);
-        population.truncate(populationP.size());
+        population.truncate(populationP.size(), pool);
         return population;
     }
 }
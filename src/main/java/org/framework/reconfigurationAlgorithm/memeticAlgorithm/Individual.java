@@ -2,20 +2,27 @@ package org.framework.reconfigurationAlgorithm.memeticAlgorithm;
 
 import org.domain.PhysicalMachine;
 import org.domain.VirtualMachine;
-import org.framework.Utils;
 
 import java.util.Arrays;
 import java.util.List;
 
 /**
+ * Individual of the population
+ * <p>
+ *     The genome is primitive: the PM of each VM (by VM index, PM ID from 1, 0 if the VM is not
+ *     placed) and the utilization of each PM in a flat block
+ *     ([pm index * numberOfResources + resource]), so an individual is copied with two array copies
+ *     and can be reused through an {@link IndividualPool}.
+ * </p>
  * @author Leonardo Benitez.
  */
 public class Individual {
 
-    private Integer[] solution;
-    private Float[][] utilization;
-    private Float[] objectiveFunctions;
-    private Float fitness;
+    private int[] solution;
+    private float[] utilization;
+    private int numberOfResources;
+    private float[] objectiveFunctions;
+    private float fitness;
 
 
     public Individual(){
@@ -24,11 +31,10 @@ public class Individual {
 
 
     public Individual(Integer numberOfObjFuncts, Integer numberOfVMs, Integer numberOfPMs, Integer numberOfRes){
-        this.solution = new Integer[numberOfVMs];
-        this.utilization = new Float[numberOfPMs][numberOfRes];
-        this.objectiveFunctions = new Float[numberOfObjFuncts];
-        this.utilization = new Float[numberOfPMs][numberOfRes];
-	    Utils.initializeMatrix(utilization,numberOfPMs,numberOfRes);
+        this.solution = new int[numberOfVMs];
+        this.utilization = new float[numberOfPMs * numberOfRes];
+        this.numberOfResources = numberOfRes;
+        this.objectiveFunctions = new float[numberOfObjFuncts];
 	    this.fitness= 0F;
     }
 
@@ -41,32 +47,42 @@ public class Individual {
         this.fitness = fitness;
     }
 
-    public Integer[] getSolution() {
+    public int[] getSolution() {
 
         return solution;
     }
 
-    public void setSolution(Integer[] solution) {
+    public void setSolution(int[] solution) {
 
         this.solution = solution;
     }
 
-    public Float[][] getUtilization() {
+    /**
+     * @param pmIndex  Index of the PM (PM ID - 1)
+     * @param resource Resource index
+     * @return Utilization of the resource of the PM
+     */
+    public float getUtilization(int pmIndex, int resource) {
 
-        return utilization;
+        return utilization[pmIndex * numberOfResources + resource];
     }
 
-    public void setUtilization(Float[][] utilization) {
+    /**
+     * @param pmIndex  Index of the PM (PM ID - 1)
+     * @param resource Resource index
+     * @param value    Utilization of the resource of the PM
+     */
+    public void setUtilization(int pmIndex, int resource, float value) {
 
-        this.utilization = utilization;
+        utilization[pmIndex * numberOfResources + resource] = value;
     }
 
-    public Float[] getObjectiveFunctions() {
+    public float[] getObjectiveFunctions() {
 
         return objectiveFunctions;
     }
 
-    public void setObjectiveFunctions(Float[] objectiveFunctions) {
+    public void setObjectiveFunctions(float[] objectiveFunctions) {
 
         this.objectiveFunctions = objectiveFunctions;
     }
@@ -77,17 +93,36 @@ public class Individual {
     }
 
     protected Individual(Individual individual){
-        Integer numberOfVMs = individual.getSolution().length;
-        Integer numberOfObjFuncts = individual.getObjectiveFunctions().length;
-        Integer numberOfPMs = individual.getUtilization().length;
-        Integer numberOfRes = individual.getUtilization()[0].length;
 
-        this.solution = new Integer[numberOfVMs];
-        this.objectiveFunctions = new Float[numberOfObjFuncts];
-        this.utilization = new Float[numberOfPMs][numberOfRes];
-	    Utils.initializeMatrix(utilization,numberOfPMs,numberOfRes);
-        this.solution = Arrays.copyOf(individual.getSolution(),numberOfVMs);
+        this(individual.getObjectiveFunctions().length, individual.getSize(), individual.getNumberOfPMs(),
+                individual.numberOfResources);
+        System.arraycopy(individual.getSolution(), 0, this.solution, 0, individual.getSize());
+    }
+
+    /**
+     * Copy the solution of an individual, the utilization, objective functions and fitness are reset
+     * as in {@link #copy()}
+     * @param individual Individual of the same size
+     */
+    void copyFrom(Individual individual) {
+
+        System.arraycopy(individual.getSolution(), 0, this.solution, 0, individual.getSize());
+        Arrays.fill(utilization, 0F);
+        Arrays.fill(objectiveFunctions, 0F);
+        this.fitness = 0F;
+    }
 
+    /**
+     * @param individual Individual
+     * @return <b>True</b>, if the individual has the same number of VMs, PMs, resources and
+     * objective functions
+     */
+    boolean isSameSize(Individual individual) {
+
+        return solution.length == individual.solution.length
+                && utilization.length == individual.utilization.length
+                && numberOfResources == individual.numberOfResources
+                && objectiveFunctions.length == individual.objectiveFunctions.length;
     }
 
     public Integer getSize(){
@@ -95,6 +130,14 @@ public class Individual {
         return this.getSolution().length;
     }
 
+    /**
+     * @return Number of Physical Machines
+     */
+    public int getNumberOfPMs() {
+
+        return numberOfResources == 0 ? 0 : utilization.length / numberOfResources;
+    }
+
     /**
      * Transform Individual to List of Virtual Machine
      * @param virtualMachineList List of Virtual Machine
@@ -102,11 +145,10 @@ public class Individual {
      */
     public List<VirtualMachine> convertToVMList(List<VirtualMachine> virtualMachineList){
 
-        Integer iteratorSolution,physicalMachine;
+        int iteratorSolution;
 
         for(iteratorSolution=0;iteratorSolution<this.getSize();iteratorSolution++){
-            physicalMachine = this.getSolution()[iteratorSolution];
-            virtualMachineList.get(iteratorSolution).setPhysicalMachine(physicalMachine);
+            virtualMachineList.get(iteratorSolution).setPhysicalMachine(this.getSolution()[iteratorSolution]);
         }
 
         return virtualMachineList;
@@ -120,13 +162,13 @@ public class Individual {
      */
     public List<PhysicalMachine> convertToPMList(List<PhysicalMachine> physicalMachineList, Integer numberOfResources){
 
-        Integer iteratorPhysical, iteratorResources;
-        Float utilizationOfResource, utilizationPercentage, resource;
+        int iteratorPhysical, iteratorResources;
+        float utilizationOfResource, utilizationPercentage, resource;
 
         for (iteratorPhysical=0;iteratorPhysical<physicalMachineList.size();iteratorPhysical++){
             for(iteratorResources=0;iteratorResources<numberOfResources;iteratorResources++){
                 resource = physicalMachineList.get(iteratorPhysical).getResources().get(iteratorResources);
-                utilizationOfResource = this.getUtilization()[iteratorPhysical][iteratorResources];
+                utilizationOfResource = this.getUtilization(iteratorPhysical,iteratorResources);
 
                 utilizationPercentage = (utilizationOfResource/resource)*100;
 
@@ -138,4 +180,4 @@ public class Individual {
         return physicalMachineList;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package org.framework.reconfigurationAlgorithm.memeticAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of the individuals of a search
+ * <p>
+ *     The individuals dropped from a population (the children over the arity of a crossover, the
+ *     individuals that do not survive to the next generation) are released to the pool, and the
+ *     copies of the next crossover reuse them, so after the first generations a search copies
+ *     individuals without allocation. A released individual must not be referenced by any
+ *     population.
+ * </p>
+ * @since 10/18/26.
+ */
+public class IndividualPool {
+
+    private final List<Individual> free = new ArrayList<>();
+
+    /* Methods */
+
+    /**
+     * Copy an individual into an individual of the pool, see {@link Individual#copy()}
+     * @param individual Individual
+     * @return Copy of the individual
+     */
+    public Individual copy(Individual individual) {
+
+        while (!free.isEmpty()) {
+            Individual copy = free.remove(free.size() - 1);
+            if (copy.isSameSize(individual)) {
+                copy.copyFrom(individual);
+                return copy;
+            }
+        }
+        return individual.copy();
+    }
+
+    /**
+     * Return an individual to the pool
+     * @param individual Individual no longer in use
+     */
+    public void release(Individual individual) {
+
+        free.add(individual);
+    }
+
+    /**
+     * @return Number of individuals in the pool
+     */
+    public int size() {
+
+        return free.size();
+    }
+}
@@ -49,8 +49,10 @@ public class MoMaVMP {
     public Individual search(List<VirtualMachine> virtualMachineList, List<VirtualMachine> derivedVMs,
                              List<PhysicalMachine> physicalMachineList, List<APrioriValue> aPrioriValuesList, MASettings settings){
 
+        // Individuals dropped by a generation, reused by the children of the next ones
+        IndividualPool pool = new IndividualPool();
         Selection selectionOperator = new TournamentSelection();
-        Crossover crossoverOperator = new OnePointCrossover(settings.getCrossoverProb());
+        Crossover crossoverOperator = new OnePointCrossover(settings.getCrossoverProb(), pool);
         Mutation mutationOperator = new UniformMutation();
         Initialization initialization = new Initialization();
         FitnessEvaluation fitnessEvaluator = new EvaluationByScalarizationMethod();
@@ -73,7 +75,7 @@ public class MoMaVMP {
                     settings.getNumberOfResources());
             fitnessEvaluator.evaluate(populationQ,virtualMachineList,derivedVMs, physicalMachineList,aPrioriValuesList,
                     settings.getNumberOfResources(),settings.getNumberOfObjFunctions());
-            populationP = Evolution.getNextGeneration(populationP,populationQ);
+            populationP = Evolution.getNextGeneration(populationP,populationQ,pool);
             generation+=1;
         }
 
@@ -12,8 +12,16 @@ public class OnePointCrossover implements Crossover {
 
     private final Double probability;
 
+    // Individuals reused by the children
+    private final IndividualPool pool;
+
     public OnePointCrossover(Double probability){
+        this(probability, new IndividualPool());
+    }
+
+    public OnePointCrossover(Double probability, IndividualPool pool){
         this.probability = probability;
+        this.pool = pool;
     }
 
 
@@ -35,7 +43,7 @@ public class OnePointCrossover implements Crossover {
 
             if (population.size() >= arity) break;
         }
-        population.truncate(arity);
+        population.truncate(arity, pool);
         return population;
     }
 
@@ -44,8 +52,8 @@ public class OnePointCrossover implements Crossover {
 
         int crossoverPoint,temp;
         int individualSize = individual1.getSize();
-        Individual result1 = individual1.copy();
-        Individual result2 = individual2.copy();
+        Individual result1 = pool.copy(individual1);
+        Individual result2 = pool.copy(individual2);
 
         if(Utils.getRandomDouble() <= probability){
 
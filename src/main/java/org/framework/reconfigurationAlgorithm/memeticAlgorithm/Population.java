@@ -54,6 +54,19 @@ public class Population {
 
     }
 
+    /**
+     * Truncate the population, the individuals removed are released to a pool
+     * @param size Size of the population
+     * @param pool Pool of individuals
+     */
+    public void truncate(int size, IndividualPool pool){
+
+        while(individuals.size() > size){
+            pool.release(individuals.remove(individuals.size()-1));
+        }
+
+    }
+
     public int size() {
 
         return individuals.size();
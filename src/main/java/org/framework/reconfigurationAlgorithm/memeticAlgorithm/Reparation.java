@@ -3,7 +3,7 @@ package org.framework.reconfigurationAlgorithm.memeticAlgorithm;
 import org.domain.PhysicalMachine;
 import org.domain.VirtualMachine;
 import org.framework.Constraints;
-import org.framework.Parameter;
+import org.framework.Feasibility;
 import org.framework.Utils;
 
 import java.util.List;
@@ -52,14 +52,13 @@ public class Reparation {
         int physicalMachineId;
         PhysicalMachine pm;
         VirtualMachine vm;
-        List<VirtualMachine> vmsInPM;
         for(iteratorSolution=0;iteratorSolution<individual.getSize(); iteratorSolution++){
            physicalMachineId = individual.getSolution()[iteratorSolution];
            if(physicalMachineId != 0){
                pm = PhysicalMachine.getById(physicalMachineId,individualPmList);
-               vmsInPM = Utils.filterVMsByPM(individualVmList,physicalMachineId);
                vm = individualVmList.get(iteratorSolution);
-               if(Constraints.checkPMOverloaded(pm,vmsInPM, Parameter.PROTECTION_FACTOR)){
+               // The protected load of the PM is kept by the VM list, it follows each move
+               if(Constraints.isProtectedLoadOverloaded(pm, individualVmList)){
                   moveVM(individual,iteratorSolution,vm,individualVmList,individualPmList,numberOfResources);
                }
            }
@@ -82,30 +81,33 @@ public class Reparation {
         int pmIdCandidate;
         int iteratorPhysical;
         int iteratorResources;
-        Float vmResource;
-        Float resourceRequested;
-        Float newResourceRequested;
+        float vmResource;
+        float resourceRequested;
+        float newResourceRequested;
         int numberOfPMs  = physicalMachineList.size();
         int actualPMId = vm.getPhysicalMachine();
         PhysicalMachine pmCandidate;
 
+        // The demand of the VM is checked against all the PMs at once
+        Feasibility feasibility = new Feasibility(vm);
+
         pmIdCandidate = Utils.getRandomInt(1,numberOfPMs);
         for(iteratorPhysical=0;iteratorPhysical<numberOfPMs;iteratorPhysical++){
             pmCandidate = PhysicalMachine.getById(pmIdCandidate,physicalMachineList);
-            if(Constraints.checkResources(pmCandidate,null,vm,virtualMachineList,false)){
+            if(feasibility.test(pmCandidate) && Constraints.checkFaultTolerance(pmCandidate,vm,virtualMachineList)){
 
                 for(iteratorResources=0;iteratorResources<numberOfResources;iteratorResources++){
 
                     vmResource = vm.getResources().get(iteratorResources)*(vm.getUtilization().get(iteratorResources)/100);
 
-                    resourceRequested = individual.getUtilization()[actualPMId-1][iteratorResources];
+                    resourceRequested = individual.getUtilization(actualPMId-1,iteratorResources);
                     newResourceRequested = resourceRequested - vmResource;
-                    individual.getUtilization()[actualPMId-1][iteratorResources] = newResourceRequested;
+                    individual.setUtilization(actualPMId-1,iteratorResources,newResourceRequested);
                     physicalMachineList.get(actualPMId-1).getResourcesRequested().set(iteratorResources,newResourceRequested);
 
-                    resourceRequested = individual.getUtilization()[pmIdCandidate-1][iteratorResources];
+                    resourceRequested = individual.getUtilization(pmIdCandidate-1,iteratorResources);
                     newResourceRequested = resourceRequested + vmResource;
-                    individual.getUtilization()[pmIdCandidate-1][iteratorResources] = newResourceRequested;
+                    individual.setUtilization(pmIdCandidate-1,iteratorResources,newResourceRequested);
                     physicalMachineList.get(pmIdCandidate-1).getResourcesRequested().set(iteratorResources,newResourceRequested);
 
                 }
@@ -26,7 +26,7 @@ public class UniformMutation implements Mutation {
     public Individual mutate(Individual individual) {
 
         int numberOfVMs = individual.getSolution().length;
-        int numberOfPMs = individual.getUtilization().length;
+        int numberOfPMs = individual.getNumberOfPMs();
         int oldPhysicalPosition, newPhysicalPosition;
 
 
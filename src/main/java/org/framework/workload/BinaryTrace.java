@@ -0,0 +1,180 @@
+package org.framework.workload;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary columnar workload trace format
+ * <p>
+ *     Layout (little endian):
+ * </p>
+ * <pre>
+ *  header {
+ *      magic      = "DVMW",
+ *      version    = 1,
+ *      rows       = N,
+ *      timeUnits  = U
+ *  }
+ *  int   time[N], service[N], datacenter[N], vm[N], tinit[N], tend[N]
+ *  float resources[3N], utilization[3N], revenue[3N]     (CPU, RAM, NET by row)
+ *  int   timeUnit[U], firstRow[U]                        (time unit offset index)
+ * </pre>
+ * <p>
+ *     A file in this format is loaded with a single bulk read and copied column by column, with no
+ *     text parsing. Use {@link TraceConverter} to convert the tab separated traces.
+ * </p>
+ * @since 10/18/26.
+ */
+public class BinaryTrace {
+
+    /**
+     * Magic number of the format ("DVMW")
+     */
+    public static final int MAGIC = 0x44564D57;
+
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private static final int INT_COLUMNS = 6;
+
+    private static final int FLOAT_COLUMNS = 3;
+
+    private BinaryTrace() {
+        // Default Constructor
+    }
+
+    /**
+     * @param path Workload trace file
+     * @return <b>True</b>, if the file starts with the magic number of the format <br> <b>False</b>, otherwise
+     * @throws IOException Error managing files
+     */
+    public static boolean isBinaryTrace(Path path) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int read = 0;
+            while (magic.hasRemaining() && read >= 0) {
+                read = channel.read(magic);
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Load a binary workload trace
+     * @param path Workload trace file
+     * @return Workload trace columns
+     * @throws IOException Error managing files or invalid format
+     */
+    public static WorkloadTrace read(Path path) throws IOException {
+
+        long fileSize = Files.size(path);
+        if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Invalid binary workload trace size: " + path);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        int magic = buffer.getInt();
+        int version = buffer.getInt();
+        int rows = buffer.getInt();
+        int timeUnitCount = buffer.getInt();
+        if (magic != MAGIC || version != VERSION || rows < 0 || timeUnitCount < 0
+                || fileSize != fileSize(rows, timeUnitCount)) {
+            throw new IOException("Invalid binary workload trace: " + path);
+        }
+
+        int[][] ints = new int[INT_COLUMNS][rows];
+        for (int[] column : ints) {
+            buffer.asIntBuffer().get(column);
+            skip(buffer, rows * Integer.BYTES);
+        }
+
+        float[][] floats = new float[FLOAT_COLUMNS][rows * WorkloadTrace.NUMBER_OF_RESOURCES];
+        for (float[] column : floats) {
+            buffer.asFloatBuffer().get(column);
+            skip(buffer, column.length * Float.BYTES);
+        }
+
+        int[] timeUnits = new int[timeUnitCount];
+        int[] timeUnitFirstRows = new int[timeUnitCount];
+        buffer.asIntBuffer().get(timeUnits);
+        skip(buffer, timeUnitCount * Integer.BYTES);
+        buffer.asIntBuffer().get(timeUnitFirstRows);
+
+        return new WorkloadTrace(rows, ints, floats, timeUnits, timeUnitFirstRows);
+    }
+
+    /**
+     * Write a workload trace in the binary format
+     * @param trace Workload trace columns
+     * @param path  Destination file
+     * @throws IOException Error managing files
+     */
+    public static void write(WorkloadTrace trace, Path path) throws IOException {
+
+        int rows = trace.size();
+        int timeUnitCount = trace.getTimeUnitCount();
+        long fileSize = fileSize(rows, timeUnitCount);
+        if (fileSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Workload trace too large for the binary format: " + rows + " rows");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(rows);
+        buffer.putInt(timeUnitCount);
+
+        for (int[] column : trace.getIntColumns()) {
+            buffer.asIntBuffer().put(column, 0, rows);
+            skip(buffer, rows * Integer.BYTES);
+        }
+        for (float[] column : trace.getFloatColumns()) {
+            int length = rows * WorkloadTrace.NUMBER_OF_RESOURCES;
+            buffer.asFloatBuffer().put(column, 0, length);
+            skip(buffer, length * Float.BYTES);
+        }
+        for (int timeUnit = 0; timeUnit < timeUnitCount; timeUnit++) {
+            buffer.putInt(trace.getTimeUnit(timeUnit));
+        }
+        for (int timeUnit = 0; timeUnit < timeUnitCount; timeUnit++) {
+            buffer.putInt(trace.getTimeUnitFirstRow(timeUnit));
+        }
+        // Through Buffer, ByteBuffer.flip() is not in the Java 8 runtime
+        ((Buffer) buffer).flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Move the position of a buffer forward
+     * <p>
+     *     Called through {@link Buffer}: compiled on a newer JDK for Java 8, {@code ByteBuffer.position(int)}
+     *     would bind to the covariant override, which the Java 8 runtime does not have.
+     * </p>
+     * @param buffer Buffer
+     * @param bytes  Number of bytes
+     */
+    private static void skip(ByteBuffer buffer, int bytes) {
+        ((Buffer) buffer).position(buffer.position() + bytes);
+    }
+
+    private static long fileSize(int rows, int timeUnitCount) {
+
+        return HEADER_SIZE + (long) rows * INT_COLUMNS * Integer.BYTES
+                + (long) rows * FLOAT_COLUMNS * WorkloadTrace.NUMBER_OF_RESOURCES * Float.BYTES
+                + 2L * timeUnitCount * Integer.BYTES;
+    }
+}
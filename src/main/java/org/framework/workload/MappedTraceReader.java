@@ -0,0 +1,354 @@
+package org.framework.workload;
+
+import org.domain.Resources;
+import org.domain.Revenue;
+import org.domain.Scenario;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader of the tab separated workload trace
+ * <p>
+ *     The file is mapped with {@link FileChannel#map} in windows aligned to line boundaries and each
+ *     line is parsed directly from the mapped bytes, one row at a time, into primitive fields. No
+ *     String or boxed object is created per row.
+ * </p>
+ * <p>
+ *     Line layout: time, service, datacenter, vm, 3 resources, 3 utilizations, 3 revenues, tinit
+ *     and tend. Decimals whose digits fit in the float mantissa are converted exactly, the rest are
+ *     delegated to {@link Float#parseFloat(String)}, so values are the same as the text loader.
+ * </p>
+ * @since 10/18/26.
+ */
+public class MappedTraceReader implements WorkloadReader {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private static final int FIELDS = 15;
+
+    private static final int END = -1;
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 24;
+
+    private static final int MAX_DIGITS = 18;
+
+    private static final float[] FLOAT_POW10 = {1e0F, 1e1F, 1e2F, 1e3F, 1e4F, 1e5F, 1e6F, 1e7F, 1e8F, 1e9F,
+            1e10F};
+
+    private final FileChannel channel;
+
+    private final long fileSize;
+
+    private MappedByteBuffer buffer;
+
+    private long windowStart;
+
+    private int position;
+
+    private int limit;
+
+    private boolean lastWindow;
+
+    private boolean truncated;
+
+    private long lineNumber;
+
+    // time, service, datacenter, vm, tinit, tend
+    private final int[] ints = new int[6];
+
+    // resources, utilization, revenue
+    private final float[] floats = new float[3 * WorkloadTrace.NUMBER_OF_RESOURCES];
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param path Workload trace file
+     * @throws IOException Error managing files
+     */
+    public MappedTraceReader(Path path) throws IOException {
+
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        map(0L);
+    }
+
+    /* Getters and Setters */
+
+    @Override
+    public int getTime() {
+        return ints[0];
+    }
+
+    public int getCloudService() {
+        return ints[1];
+    }
+
+    public int getDatacenter() {
+        return ints[2];
+    }
+
+    public int getVirtualMachine() {
+        return ints[3];
+    }
+
+    public int getTinit() {
+        return ints[4];
+    }
+
+    public int getTend() {
+        return ints[5];
+    }
+
+    public float getResource(int resource) {
+        return floats[resource];
+    }
+
+    public float getUtilization(int resource) {
+        return floats[WorkloadTrace.NUMBER_OF_RESOURCES + resource];
+    }
+
+    public float getRevenue(int resource) {
+        return floats[2 * WorkloadTrace.NUMBER_OF_RESOURCES + resource];
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /* Methods */
+
+    /**
+     * Read a whole workload trace file
+     * @param path Workload trace file
+     * @return Workload trace columns
+     * @throws IOException Error managing files
+     */
+    public static WorkloadTrace readAll(Path path) throws IOException {
+
+        try (MappedTraceReader reader = new MappedTraceReader(path)) {
+            WorkloadTrace trace = new WorkloadTrace((int) Math.min(reader.fileSize / 48 + 1, Integer.MAX_VALUE / 8));
+            while (reader.next()) {
+                reader.copyTo(trace);
+            }
+            return trace;
+        }
+    }
+
+    /**
+     * Append the current row to a workload trace
+     * @param trace Workload trace columns
+     */
+    public void copyTo(WorkloadTrace trace) {
+        trace.add(ints, floats);
+    }
+
+    /**
+     * Build the {@link Scenario} of the current row
+     * @return Scenario
+     */
+    @Override
+    public Scenario toScenario() {
+
+        Resources resources = new Resources(getResource(0), getResource(1), getResource(2));
+        Resources utilization = new Resources(getUtilization(0), getUtilization(1), getUtilization(2));
+        Revenue revenue = new Revenue(getRevenue(0), getRevenue(1), getRevenue(2));
+
+        return new Scenario(getTime(), getCloudService(), getDatacenter(), getVirtualMachine(), resources,
+                utilization, revenue, getTinit(), getTend());
+    }
+
+    /**
+     * Advance to the next row, skipping empty lines
+     * @return <b>False</b> at the end of the file
+     * @throws IOException Error managing files or malformed line
+     */
+    @Override
+    public boolean next() throws IOException {
+
+        while (true) {
+            int b = byteAt(position);
+            while (b == '\n' || b == '\r') {
+                if (b == '\n') {
+                    lineNumber++;
+                }
+                b = byteAt(++position);
+            }
+            if (b == END) {
+                if (lastWindow) {
+                    return false;
+                }
+                map(windowStart + position);
+                continue;
+            }
+
+            int lineStart = position;
+            truncated = false;
+            if (parseRow()) {
+                return true;
+            }
+            // The line crosses the end of the window, map again starting at the line
+            if (lineStart == 0) {
+                throw new IOException("Line " + (lineNumber + 1) + " of the workload trace is too long");
+            }
+            map(windowStart + lineStart);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Parse the line at the current position
+     * @return <b>False</b> if the line is truncated by the end of the window
+     * @throws IOException Malformed line
+     */
+    private boolean parseRow() throws IOException {
+
+        for (int field = 0; field < FIELDS; field++) {
+            if (field > 0) {
+                int b = byteAt(position);
+                if (b != '\t') {
+                    if (truncated) {
+                        return false;
+                    }
+                    throw new IOException("Line " + (lineNumber + 1) + " of the workload trace has " + field
+                            + " fields, expected " + FIELDS);
+                }
+                position++;
+            }
+
+            if (field < 4) {
+                ints[field] = parseInt();
+            } else if (field < 13) {
+                floats[field - 4] = parseFloat();
+            } else {
+                ints[field - 9] = parseInt();
+            }
+            if (truncated) {
+                return false;
+            }
+        }
+
+        // Ignore the remaining fields
+        int b = byteAt(position);
+        while (b != '\n' && b != '\r' && b != END) {
+            b = byteAt(++position);
+        }
+        return !truncated;
+    }
+
+    private int parseInt() {
+
+        int start = position;
+        int b = byteAt(position);
+        boolean negative = b == '-';
+        if (negative) {
+            b = byteAt(++position);
+        }
+
+        long value = 0;
+        int digits = 0;
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            digits++;
+            b = byteAt(++position);
+        }
+        if (truncated) {
+            return 0;
+        }
+        if (digits == 0 || digits > 10 || !isEndOfField(b) || value > Integer.MAX_VALUE) {
+            String field = fieldToString(start);
+            return truncated ? 0 : Integer.parseInt(field);
+        }
+        return negative ? (int) -value : (int) value;
+    }
+
+    private float parseFloat() {
+
+        int start = position;
+        int b = byteAt(position);
+        boolean negative = b == '-';
+        if (negative) {
+            b = byteAt(++position);
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int decimals = 0;
+        while (b >= '0' && b <= '9') {
+            mantissa = mantissa * 10 + (b - '0');
+            digits++;
+            b = byteAt(++position);
+        }
+        if (b == '.') {
+            b = byteAt(++position);
+            while (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                decimals++;
+                b = byteAt(++position);
+            }
+        }
+        if (truncated) {
+            return 0F;
+        }
+        if (digits == 0 || digits > MAX_DIGITS || decimals >= FLOAT_POW10.length || mantissa > MAX_EXACT_MANTISSA
+                || !isEndOfField(b)) {
+            String field = fieldToString(start);
+            return truncated ? 0F : Float.parseFloat(field);
+        }
+
+        // Both operands are exact, so the correctly rounded quotient is the correctly rounded decimal
+        float value = (float) mantissa / FLOAT_POW10[decimals];
+        return negative ? -value : value;
+    }
+
+    private String fieldToString(int start) {
+
+        position = start;
+        while (!isEndOfField(byteAt(position))) {
+            position++;
+        }
+        if (truncated) {
+            return null;
+        }
+        byte[] bytes = new byte[position - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isEndOfField(int b) {
+        return b == '\t' || b == '\n' || b == '\r' || b == END;
+    }
+
+    private int byteAt(int index) {
+
+        if (index >= limit) {
+            if (!lastWindow) {
+                truncated = true;
+            }
+            return END;
+        }
+        return buffer.get(index) & 0xFF;
+    }
+
+    private void map(long offset) throws IOException {
+
+        long size = Math.min(WINDOW_SIZE, fileSize - offset);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+        position = 0;
+        limit = (int) size;
+        lastWindow = offset + size >= fileSize;
+    }
+}
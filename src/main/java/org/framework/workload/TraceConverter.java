@@ -0,0 +1,75 @@
+package org.framework.workload;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One-shot converter from the tab separated workload trace to the {@link BinaryTrace} format
+ * <p>
+ *     Usage: <code>TraceConverter &lt;trace.csv&gt; [&lt;trace.bin&gt;]</code>. When the destination is
+ *     missing, the binary trace is written next to the source, with the extension of the source
+ *     replaced by <b>.bin</b> (<code>trace.csv</code> to <code>trace.bin</code>).
+ *     The binary file can be listed under SCENARIOS in the parameter file like any other trace.
+ * </p>
+ * @since 10/18/26.
+ */
+public class TraceConverter {
+
+    public static final String BINARY_EXTENSION = ".bin";
+
+    private static Logger logger = Logger.getLogger("TraceConverter");
+
+    private TraceConverter() {
+        // Default Constructor
+    }
+
+    /**
+     * @param args Source trace and, optionally, destination file
+     * @throws IOException Error managing files
+     */
+    public static void main(String[] args) throws IOException {
+
+        if (args.length == 0) {
+            logger.log(Level.SEVERE, "Usage: TraceConverter <trace.csv> [<trace.bin>]");
+            return;
+        }
+        Path source = Paths.get(args[0]);
+        Path destination = args.length > 1 ? Paths.get(args[1]) : binaryPath(source);
+
+        WorkloadTrace trace = convert(source, destination);
+        logger.log(Level.INFO, "Converted " + source + " to " + destination + ": " + trace.size() + " requests, "
+                + trace.getTimeUnitCount() + " time units");
+    }
+
+    /**
+     * @param source Tab separated trace
+     * @return Binary trace next to the source, the extension of the source replaced by
+     * {@value #BINARY_EXTENSION} (appended if the source has no extension or is already binary)
+     */
+    private static Path binaryPath(Path source) {
+
+        String name = source.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        if (extension > 0 && !name.endsWith(BINARY_EXTENSION)) {
+            name = name.substring(0, extension);
+        }
+        return source.resolveSibling(name + BINARY_EXTENSION);
+    }
+
+    /**
+     * Convert a tab separated workload trace to the binary format
+     * @param source      Tab separated workload trace
+     * @param destination Binary workload trace
+     * @return Workload trace columns
+     * @throws IOException Error managing files
+     */
+    public static WorkloadTrace convert(Path source, Path destination) throws IOException {
+
+        WorkloadTrace trace = MappedTraceReader.readAll(source);
+        BinaryTrace.write(trace, destination);
+        return trace;
+    }
+}
@@ -0,0 +1,207 @@
+package org.framework.workload;
+
+import org.domain.Scenario;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streaming cursor over a workload trace
+ * <p>
+ *     Requests are read from a {@link WorkloadReader} one time unit at a time, so a text trace is
+ *     never held in memory as a whole. The cursor offers one request of lookahead
+ *     ({@link #nextTimeUnit()}) to detect the end of a time unit, and a bounded window
+ *     ({@link #window(Integer, Integer)}) for the reconfiguration algorithms that need to look at the
+ *     requests around a memetic execution.
+ * </p>
+ * <p>
+ *     The trace is expected in time order. When <b>sortByTimeUnit</b> is set, the requests of each
+ *     time unit are sorted with {@link Scenario#compareTo(Scenario)}, which gives the same order as
+ *     sorting the whole trace (used by the decreasing heuristics).
+ * </p>
+ * @since 10/18/26.
+ */
+public class WorkloadCursor implements Closeable {
+
+    private final WorkloadReader reader;
+
+    private final Boolean sortByTimeUnit;
+
+    // The reader holds a request that was not buffered yet
+    private boolean pending;
+
+    // Delivered and look-ahead requests, the next request is at position
+    private final List<Scenario> buffer = new ArrayList<>();
+
+    private int position;
+
+    // Delivered requests kept for the window
+    private final List<Scenario> retained = new ArrayList<>();
+
+    private Integer retainFrom = Integer.MAX_VALUE;
+
+    private Integer currentTimeUnit = -1;
+
+    /* Constructors */
+
+    /**
+     * Constructor
+     * @param reader         Workload trace reader
+     * @param sortByTimeUnit Sort the requests of each time unit
+     * @throws IOException Error managing files
+     */
+    public WorkloadCursor(WorkloadReader reader, Boolean sortByTimeUnit) throws IOException {
+
+        this.reader = reader;
+        this.sortByTimeUnit = sortByTimeUnit;
+        this.pending = reader.next();
+    }
+
+    /* Getters and Setters */
+
+    /**
+     * @return Time unit of the last request returned by {@link #next()}, -1 before the first one
+     */
+    public Integer getCurrentTimeUnit() {
+        return currentTimeUnit;
+    }
+
+    /* Methods */
+
+    /**
+     * @return <b>True</b>, if there are more requests <br> <b>False</b>, otherwise
+     * @throws IOException Error managing files
+     */
+    public boolean hasNext() throws IOException {
+        return position < buffer.size() || loadTimeUnit();
+    }
+
+    /**
+     * @return Next request of the workload trace
+     * @throws IOException Error managing files
+     */
+    public Scenario next() throws IOException {
+
+        if (!hasNext()) {
+            throw new IllegalStateException("No more requests in the workload trace");
+        }
+        Scenario request = buffer.get(position++);
+        currentTimeUnit = request.getTime();
+        return request;
+    }
+
+    /**
+     * @return Time unit of the next request, -1 if the last request was already returned
+     */
+    public Integer nextTimeUnit() {
+
+        if (position < buffer.size()) {
+            return buffer.get(position).getTime();
+        }
+        return pending ? reader.getTime() : -1;
+    }
+
+    /**
+     * @return <b>True</b>, if the last request returned is the last one of its time unit <br>
+     * <b>False</b>, otherwise
+     */
+    public boolean isEndOfTimeUnit() {
+
+        Integer nextTimeUnit = nextTimeUnit();
+        return nextTimeUnit == -1 || !nextTimeUnit.equals(currentTimeUnit);
+    }
+
+    /**
+     * Keep every request delivered from now on with time greater than <b>time</b>, so they can be
+     * returned by {@link #window(Integer, Integer)}. Requests already released are not recovered.
+     * @param time Start time of the window (exclusive)
+     */
+    public void retainFrom(Integer time) {
+
+        this.retainFrom = time;
+        retained.removeIf(request -> request.getTime() <= time);
+    }
+
+    /**
+     * Stop keeping delivered requests
+     */
+    public void releaseRetained() {
+
+        this.retainFrom = Integer.MAX_VALUE;
+        retained.clear();
+    }
+
+    /**
+     * Requests with time in (<b>timeStart</b>, <b>timeEnd</b>), in the order they are (or will be)
+     * returned by the cursor. Future requests are read ahead up to <b>timeEnd</b>, past requests
+     * must have been kept with {@link #retainFrom(Integer)}.
+     * @param timeStart Start time (exclusive)
+     * @param timeEnd   End time (exclusive)
+     * @return Requests in the window
+     * @throws IOException Error managing files
+     */
+    public List<Scenario> window(Integer timeStart, Integer timeEnd) throws IOException {
+
+        while (pending && reader.getTime() < timeEnd) {
+            loadTimeUnit();
+        }
+
+        List<Scenario> window = new ArrayList<>();
+        for (Scenario request : retained) {
+            if (request.getTime() > timeStart && request.getTime() < timeEnd) {
+                window.add(request);
+            }
+        }
+        for (Scenario request : buffer) {
+            if (request.getTime() > timeStart && request.getTime() < timeEnd) {
+                window.add(request);
+            }
+        }
+        return window;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Append the requests of the next time unit to the buffer
+     * @return <b>False</b>, if the end of the trace was reached
+     * @throws IOException Error managing files
+     */
+    private boolean loadTimeUnit() throws IOException {
+
+        if (!pending) {
+            return false;
+        }
+        releaseDelivered();
+
+        int from = buffer.size();
+        int time = reader.getTime();
+        do {
+            buffer.add(reader.toScenario());
+            pending = reader.next();
+        } while (pending && reader.getTime() == time);
+
+        if (sortByTimeUnit) {
+            Collections.sort(buffer.subList(from, buffer.size()));
+        }
+        return true;
+    }
+
+    private void releaseDelivered() {
+
+        for (int i = 0; i < position; i++) {
+            Scenario request = buffer.get(i);
+            if (request.getTime() > retainFrom) {
+                retained.add(request);
+            }
+        }
+        buffer.subList(0, position).clear();
+        position = 0;
+    }
+}
@@ -0,0 +1,31 @@
+package org.framework.workload;
+
+import org.domain.Scenario;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sequential reader of the requests of a workload trace, one row at a time
+ * @since 10/18/26.
+ */
+public interface WorkloadReader extends Closeable {
+
+    /**
+     * Advance to the next row
+     * @return <b>False</b> at the end of the trace
+     * @throws IOException Error managing files
+     */
+    boolean next() throws IOException;
+
+    /**
+     * @return Time of the current row
+     */
+    int getTime();
+
+    /**
+     * @return {@link Scenario} of the current row
+     */
+    Scenario toScenario();
+
+}
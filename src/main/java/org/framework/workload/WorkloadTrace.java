@@ -0,0 +1,290 @@
+package org.framework.workload;
+
+import org.domain.Resources;
+import org.domain.Revenue;
+import org.domain.Scenario;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Workload trace stored as primitive columns
+ * <p>
+ *     Each row of the trace is one request (a {@link Scenario}). Integer fields are stored in
+ *     one column each, and the three resources, utilizations and revenues are stored row-major
+ *     in flat float columns (CPU, RAM, NET).
+ * </p>
+ * @since 10/18/26.
+ */
+public class WorkloadTrace {
+
+    /**
+     * Number of resources by row
+     */
+    public static final int NUMBER_OF_RESOURCES = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+
+    private int[] time;
+
+    private int[] cloudService;
+
+    private int[] datacenter;
+
+    private int[] virtualMachine;
+
+    private int[] tinit;
+
+    private int[] tend;
+
+    private float[] resources;
+
+    private float[] utilization;
+
+    private float[] revenue;
+
+    // Time unit offset index: time and first row of each time unit
+    private int timeUnitCount = -1;
+
+    private int[] timeUnits;
+
+    private int[] timeUnitFirstRows;
+
+    /* Constructors */
+
+    /**
+     * Default Constructor
+     */
+    public WorkloadTrace() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * @param capacity Initial number of rows
+     */
+    public WorkloadTrace(int capacity) {
+
+        int rows = Math.max(capacity, 1);
+        this.time = new int[rows];
+        this.cloudService = new int[rows];
+        this.datacenter = new int[rows];
+        this.virtualMachine = new int[rows];
+        this.tinit = new int[rows];
+        this.tend = new int[rows];
+        this.resources = new float[rows * NUMBER_OF_RESOURCES];
+        this.utilization = new float[rows * NUMBER_OF_RESOURCES];
+        this.revenue = new float[rows * NUMBER_OF_RESOURCES];
+    }
+
+    /**
+     * Constructor over already loaded columns
+     * @param size              Number of rows
+     * @param ints              Time, service, datacenter, vm, tinit and tend columns
+     * @param floats            Resources, utilization and revenue columns
+     * @param timeUnits         Time of each time unit
+     * @param timeUnitFirstRows First row of each time unit
+     */
+    WorkloadTrace(int size, int[][] ints, float[][] floats, int[] timeUnits, int[] timeUnitFirstRows) {
+
+        this.size = size;
+        this.time = ints[0];
+        this.cloudService = ints[1];
+        this.datacenter = ints[2];
+        this.virtualMachine = ints[3];
+        this.tinit = ints[4];
+        this.tend = ints[5];
+        this.resources = floats[0];
+        this.utilization = floats[1];
+        this.revenue = floats[2];
+        this.timeUnitCount = timeUnits.length;
+        this.timeUnits = timeUnits;
+        this.timeUnitFirstRows = timeUnitFirstRows;
+    }
+
+    /* Getters and Setters */
+
+    public int size() {
+        return size;
+    }
+
+    public int getTime(int row) {
+        return time[row];
+    }
+
+    public int getCloudService(int row) {
+        return cloudService[row];
+    }
+
+    public int getDatacenter(int row) {
+        return datacenter[row];
+    }
+
+    public int getVirtualMachine(int row) {
+        return virtualMachine[row];
+    }
+
+    public int getTinit(int row) {
+        return tinit[row];
+    }
+
+    public int getTend(int row) {
+        return tend[row];
+    }
+
+    public float getResource(int row, int resource) {
+        return resources[row * NUMBER_OF_RESOURCES + resource];
+    }
+
+    public float getUtilization(int row, int resource) {
+        return utilization[row * NUMBER_OF_RESOURCES + resource];
+    }
+
+    public float getRevenue(int row, int resource) {
+        return revenue[row * NUMBER_OF_RESOURCES + resource];
+    }
+
+    /**
+     * @return Number of time units of the trace
+     */
+    public int getTimeUnitCount() {
+
+        indexTimeUnits();
+        return timeUnitCount;
+    }
+
+    /**
+     * @param timeUnit Time unit index
+     * @return Time of the time unit
+     */
+    public int getTimeUnit(int timeUnit) {
+
+        indexTimeUnits();
+        return timeUnits[timeUnit];
+    }
+
+    /**
+     * @param timeUnit Time unit index
+     * @return First row of the time unit
+     */
+    public int getTimeUnitFirstRow(int timeUnit) {
+
+        indexTimeUnits();
+        return timeUnitFirstRows[timeUnit];
+    }
+
+    int[][] getIntColumns() {
+        return new int[][]{time, cloudService, datacenter, virtualMachine, tinit, tend};
+    }
+
+    float[][] getFloatColumns() {
+        return new float[][]{resources, utilization, revenue};
+    }
+
+    /* Methods */
+
+    /**
+     * Append a row to the trace
+     * @param ints   Time, service, datacenter, vm, tinit and tend, in that order
+     * @param floats Resources, utilization and revenue (CPU, RAM, NET each), in that order
+     */
+    public void add(int[] ints, float[] floats) {
+
+        ensureCapacity(size + 1);
+        time[size] = ints[0];
+        cloudService[size] = ints[1];
+        datacenter[size] = ints[2];
+        virtualMachine[size] = ints[3];
+        tinit[size] = ints[4];
+        tend[size] = ints[5];
+
+        int offset = size * NUMBER_OF_RESOURCES;
+        System.arraycopy(floats, 0, resources, offset, NUMBER_OF_RESOURCES);
+        System.arraycopy(floats, NUMBER_OF_RESOURCES, utilization, offset, NUMBER_OF_RESOURCES);
+        System.arraycopy(floats, 2 * NUMBER_OF_RESOURCES, revenue, offset, NUMBER_OF_RESOURCES);
+        size++;
+        timeUnitCount = -1;
+    }
+
+    /**
+     * Remove every row, keeping the allocated columns
+     */
+    public void clear() {
+
+        size = 0;
+        timeUnitCount = -1;
+    }
+
+    /**
+     * Build the {@link Scenario} of a row
+     * @param row Row index
+     * @return Scenario
+     */
+    public Scenario toScenario(int row) {
+
+        int offset = row * NUMBER_OF_RESOURCES;
+        Resources res = new Resources(resources[offset], resources[offset + 1], resources[offset + 2]);
+        Resources util = new Resources(utilization[offset], utilization[offset + 1], utilization[offset + 2]);
+        Revenue rev = new Revenue(revenue[offset], revenue[offset + 1], revenue[offset + 2]);
+
+        return new Scenario(time[row], cloudService[row], datacenter[row], virtualMachine[row], res, util, rev,
+                tinit[row], tend[row]);
+    }
+
+    /**
+     * Append every row of the trace, in order, to a list of scenarios
+     * @param scenarios Workload trace
+     */
+    public void toScenarios(List<Scenario> scenarios) {
+
+        for (int row = 0; row < size; row++) {
+            scenarios.add(toScenario(row));
+        }
+    }
+
+    /**
+     * Build the time unit offset index, a new time unit starts on each change of time
+     */
+    private void indexTimeUnits() {
+
+        if (timeUnitCount >= 0) {
+            return;
+        }
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (row == 0 || time[row] != time[row - 1]) {
+                count++;
+            }
+        }
+        timeUnits = new int[count];
+        timeUnitFirstRows = new int[count];
+        count = 0;
+        for (int row = 0; row < size; row++) {
+            if (row == 0 || time[row] != time[row - 1]) {
+                timeUnits[count] = time[row];
+                timeUnitFirstRows[count] = row;
+                count++;
+            }
+        }
+        timeUnitCount = count;
+    }
+
+    private void ensureCapacity(int rows) {
+
+        if (rows <= time.length) {
+            return;
+        }
+        int capacity = Math.max(rows, time.length + (time.length >> 1));
+        time = Arrays.copyOf(time, capacity);
+        cloudService = Arrays.copyOf(cloudService, capacity);
+        datacenter = Arrays.copyOf(datacenter, capacity);
+        virtualMachine = Arrays.copyOf(virtualMachine, capacity);
+        tinit = Arrays.copyOf(tinit, capacity);
+        tend = Arrays.copyOf(tend, capacity);
+        resources = Arrays.copyOf(resources, capacity * NUMBER_OF_RESOURCES);
+        utilization = Arrays.copyOf(utilization, capacity * NUMBER_OF_RESOURCES);
+        revenue = Arrays.copyOf(revenue, capacity * NUMBER_OF_RESOURCES);
+    }
+}
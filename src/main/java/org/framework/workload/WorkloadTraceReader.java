@@ -0,0 +1,48 @@
+package org.framework.workload;
+
+import org.domain.Scenario;
+
+/**
+ * {@link WorkloadReader} over a workload trace already loaded in memory
+ * @since 10/18/26.
+ */
+public class WorkloadTraceReader implements WorkloadReader {
+
+    private final WorkloadTrace trace;
+
+    private int row = -1;
+
+    /**
+     * Constructor
+     * @param trace Workload trace columns
+     */
+    public WorkloadTraceReader(WorkloadTrace trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public boolean next() {
+
+        if (row + 1 >= trace.size()) {
+            row = trace.size();
+            return false;
+        }
+        row++;
+        return true;
+    }
+
+    @Override
+    public int getTime() {
+        return trace.getTime(row);
+    }
+
+    @Override
+    public Scenario toScenario() {
+        return trace.toScenario(row);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}